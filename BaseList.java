@@ -1,130 +1,1200 @@
-
-/**
- * An abstract list class that stores objects implementing the Searchable interface.
- * Provides basic functionality such as adding, retrieving, and checking size.
- * Prevents duplicate entries and dynamically resizes the internal array as needed.
- */
- 
-public abstract class BaseList {
-
-    /**
-     * Internal array used to store list elements.
-     */
-    protected Object[] internalList;
-    
-    /**
-     * Current number of elements in the list.
-     */
-    protected int size;
-    
-    /**
-     * Current capacity of the internal array.
-     */
-    protected int capacity;
-    
-    
-    /**
-     * Constructs a BaseList with a default initial capacity of 10.
-     */
-    public BaseList() {
-        this(10);
-    }
-
-    /**
-     * Constructs a BaseList with a specified initial capacity.
-     *
-     * @param capacity the initial capacity of the internal array
-     */
-    public BaseList(int capacity) {
-        this.internalList = new Object[capacity];
-        this.size = 0;
-        this.capacity = capacity;
-    }
-    
-    /**
-     * Adds a new object to the list if it is not already present.
-     * Only allows objects that implement the Searchable interface.
-     * Automatically grows the internal list if capacity is exceeded.
-     *
-     * @param obj the object to add
-     * @throws IllegalArgumentException if the object does not implement Searchable
-     */
-    public void add(Object obj) {
-        // only add searchable objects
-        if(!(obj instanceof Searchable))
-            throw new IllegalArgumentException("Object must implement Searchable");
-            
-        // check if it is already in the list
-        // do not add it anymore
-        if(this.contains(obj)) return;
-            
-        if(this.size+1 == this.capacity)
-            growList();
-            
-        this.internalList[this.size++] = obj;
-    }
-    
-    /**
-     * Retrieves the object at the specified index.
-     *
-     * @param index the index of the object
-     * @return the object at the specified position
-     * @throws ArrayIndexOutOfBoundsException if the index is invalid
-     */
-    public Object get(int index) {
-        return this.internalList[index];
-    }
-    
-    /**
-     * Returns the current number of elements in the list.
-     *
-     * @return the size of the list
-     */
-    public int size() {
-        return this.size;
-    }
-    
-    /**
-     * Doubles the capacity of the internal array and copies over existing elements.
-     */
-    private void growList() {
-        // grow the internal array
-        this.capacity = this.capacity * 2;
-        Object[] newList = new Object[this.capacity];
-        
-        // copy old elements
-        for(int i = 0; i < this.size; i++) {
-            newList[i] = this.internalList[i];
-        }
-        
-        this.internalList = newList;
-    }
-
-    /**
-     * Finds and returns the first object in the list that matches the given key.
-     * Implemented by subclasses based on specific matching logic.
-     *
-     * @param key the search key
-     * @return the matching object, or null if no match is found
-     */
-    public abstract Object findMatch(String key);
-    
-    /**
-     * Returns a new list containing all objects that match the given key.
-     * Implemented by subclasses with their specific type and match logic.
-     *
-     * @param key the search key
-     * @return a BaseList containing all matching elements
-     */
-    public abstract BaseList query(String key);
-    
-    /**
-     * Determines whether the specified object is already in the list.
-     * Implemented by subclasses using their equality logic.
-     *
-     * @param obj the object to check for
-     * @return true if the object exists in the list; false otherwise
-     */
-    public abstract boolean contains(Object obj);
-    
-}
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An abstract list class that stores objects implementing the Searchable interface.
+ * The type parameter is the type of the elements, so that they are read without casts.
+ * Provides basic functionality such as adding, retrieving, and checking size.
+ * Prevents duplicate entries and dynamically resizes the internal array as needed.
+ * Duplicates are detected through a hash index of the {@link Searchable#getKey() keys}
+ * of the stored elements, which is kept in step with the internal array. The key of
+ * every element is taken once, when the element is indexed, and the element is later
+ * replaced or removed under that key even if its own key has changed since.
+ *
+ * <p>Elements can be replaced with {@link #set(int, Searchable)} and removed with
+ * {@link #remove(Object)} or {@link #remove(int)}. A removed element only leaves a
+ * tombstone (an empty slot) behind in the internal array. The tombstones are counted
+ * in a Fenwick tree, through which an index, as passed to {@link #get(int)} and returned
+ * by the queries, is mapped to the slot of its element and back in logarithmic time.
+ * Indexes therefore always number the remaining elements from 0 to {@code size() - 1},
+ * in order, just as if the removed elements had been taken out. Once more than half the
+ * slots are tombstones, the removal compacts the internal array and moves the entries of
+ * the indexes to the new positions, so removal takes amortized constant time. Compaction
+ * also happens on {@link #trimToSize()} and {@link #compact()}, but never while reading:
+ * lookups, queries, iteration and streams do not modify the list, and may run on several
+ * threads at once as long as no thread modifies it.</p>
+ *
+ * <p>The list is {@link Iterable} and can be {@link #stream() streamed}. Its
+ * {@link #spliterator() spliterator} is sized and splits the list into halves by
+ * position, so parallel streams divide the work evenly. Iterators and streams
+ * fail with a {@link ConcurrentModificationException} if the list is modified
+ * while they are in use.</p>
+ *
+ * @param <T> the type of the elements
+ */
+ 
+public abstract class BaseList<T extends Searchable> implements Iterable<T> {
+
+    /**
+     * Internal array used to store list elements.
+     */
+    protected Searchable[] internalList;
+    
+    /**
+     * Current number of elements in the list.
+     */
+    protected int size;
+    
+    /**
+     * Current capacity of the internal array.
+     */
+    protected int capacity;
+    
+    /**
+     * Maps the key of every stored element to its position in the internal array,
+     * or null until it is first needed. Use {@link #keyIndex()} to access it.
+     * Published once complete, since readers may build it.
+     */
+    protected volatile HashMap<Object, Integer> keyIndex;
+    
+    /**
+     * The key under which the element at every position is stored in the key index,
+     * or null while the key index is. Slots of removed elements are null.
+     */
+    private Object[] keys;
+    
+    /**
+     * Optional trigram index over the search text of the elements, or null if disabled.
+     */
+    protected NGramIndex searchIndex;
+    
+    /**
+     * The lowercased search text of the element at every position, or null unless
+     * {@linkplain #enableSearchFormCache() enabled}. Slots of removed elements are null.
+     */
+    private String[] searchForms;
+    
+    /**
+     * Maps the case-folded lookup key of the elements to their positions, in increasing order,
+     * or null until the first lookup. Published once complete, since readers may build it.
+     * Positions of removed elements stay in it until the list is compacted.
+     */
+    protected volatile HashMap<String, PositionList> lookupIndex;
+    
+    /**
+     * The case-folded lookup key under which the element at every position is stored
+     * in the lookup index, or null while the lookup index is. Elements changed in place
+     * and then {@linkplain #set(int, Searchable) set} again are moved from this key,
+     * since their current key is already the new one.
+     */
+    private String[] lookupKeys;
+    
+    /**
+     * Number of removed elements whose slots in the internal array have not been compacted yet.
+     */
+    protected int removed;
+    
+    /**
+     * Counts the tombstones among the slots of the internal array in a Fenwick tree,
+     * indexed from 1, or null while there are none.
+     */
+    private int[] removedTree;
+    
+    /**
+     * Number of structural modifications (additions, removals and replacements) made so far.
+     */
+    protected int modCount;
+    
+    /**
+     * Decides how much the internal array grows when it is full.
+     */
+    private GrowthPolicy growthPolicy = GrowthPolicy.DOUBLING;
+    
+    
+    /**
+     * Constructs a BaseList with a default initial capacity of 10.
+     */
+    public BaseList() {
+        this(10);
+    }
+
+    /**
+     * Constructs a BaseList with a specified initial capacity.
+     *
+     * @param capacity the initial capacity of the internal array
+     */
+    public BaseList(int capacity) {
+        this.internalList = new Searchable[capacity];
+        this.size = 0;
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Adds a new object to the list if it is not already present.
+     * Automatically grows the internal list if capacity is exceeded.
+     *
+     * @param obj the object to add
+     * @throws IllegalArgumentException if the object is null
+     */
+    public void add(T obj) {
+        // a missing element has no key
+        if(obj == null)
+            throw new IllegalArgumentException("Element must not be null");
+            
+        // check if it is already in the list
+        // do not add it anymore
+        if(this.contains(obj)) return;
+        
+        append(obj);
+    }
+    
+    /**
+     * Appends an object that is known not to be in the list yet, skipping the
+     * duplicate check, and updates the indexes that have been built so far.
+     * Used to fill result lists with elements taken from a list without duplicates.
+     *
+     * @param obj the searchable object to append
+     */
+    protected void append(T obj) {
+        if(this.size+1 >= this.capacity)
+            growList();
+            
+        indexAppended(obj, this.size);
+        
+        this.internalList[this.size++] = obj;
+        this.modCount++;
+    }
+    
+    /**
+     * Updates the indexes that have been built so far for an element
+     * appended at the given position.
+     *
+     * @param obj the appended element
+     * @param pos the position of the element, which is the largest one in the list
+     */
+    protected void indexAppended(T obj, int pos) {
+        // remember where the element is stored
+        if(this.keyIndex != null)
+            storeKey(pos, obj.getKey());
+        
+        if(this.searchIndex != null || this.searchForms != null) {
+            String form = searchText(obj).toLowerCase();
+            
+            if(this.searchIndex != null)
+                this.searchIndex.add(pos, form);
+            
+            if(this.searchForms != null)
+                storeSearchForm(pos, form);
+        }
+        
+        // append the position to those sharing the same lookup key
+        if(this.lookupIndex != null) {
+            String folded = foldCase(lookupKey(obj));
+            
+            storeLookupKey(pos, folded);
+            this.lookupIndex.compute(folded, (key, positions) -> positions == null ? PositionList.of(pos) : positions.append(pos));
+        }
+    }
+    
+    /**
+     * Retrieves the object at the specified index. Takes constant time,
+     * or logarithmic time while removed elements have left tombstones behind.
+     *
+     * @param index the index of the object
+     * @return the object at the specified position
+     * @throws ArrayIndexOutOfBoundsException if the index is invalid
+     */
+    public T get(int index) {
+        return elementAt(positionOf(index));
+    }
+    
+    /**
+     * Returns the element in a slot of the internal array,
+     * for positions taken from the indexes.
+     *
+     * @param pos the position of the slot
+     * @return the element in the slot, or null if it was removed
+     */
+    @SuppressWarnings("unchecked")
+    protected final T elementAt(int pos) {
+        // only elements of type T are ever stored
+        return (T) this.internalList[pos];
+    }
+    
+    /**
+     * Returns the element at a position taken from the indexes of a list of any kind.
+     * Subclasses that do not keep their elements in the internal array never remove
+     * elements, so their positions are indexes.
+     *
+     * @param pos the position of a remaining element
+     * @return the element at that position
+     */
+    protected T getAt(int pos) {
+        return this.removed == 0 ? get(pos) : elementAt(pos);
+    }
+    
+    /**
+     * Returns the number of positions the indexes may refer to: the size of the
+     * list, plus the tombstones of removed elements that have not been compacted yet.
+     *
+     * @return the position just past the last one in use
+     */
+    protected final int positionCount() {
+        return this.removed == 0 ? size() : this.size;
+    }
+    
+    /**
+     * Determines whether a position belongs to a removed element.
+     *
+     * @param pos a position below {@link #positionCount()}
+     * @return true if the element at that position was removed; false otherwise
+     */
+    protected final boolean isRemoved(int pos) {
+        return this.removed > 0 && this.internalList[pos] == null;
+    }
+    
+    /**
+     * Returns the position in the internal array of the element with the given index.
+     *
+     * @param index the index of an element
+     * @return the position of the element; the index itself if no tombstones are pending
+     */
+    protected final int positionOf(int index) {
+        if(this.removed == 0 || index < 0)
+            return index;
+        
+        int[] tree = this.removedTree;
+        int n = tree.length - 1;
+        int pos = 0;
+        int remaining = index + 1;
+        
+        // descend the tree to the slot holding the (index + 1)-th remaining element
+        for(int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+            int next = pos + step;
+            
+            if(next <= n && step - tree[next] < remaining) {
+                pos = next;
+                remaining -= step - tree[next];
+            }
+        }
+        
+        return pos;
+    }
+    
+    /**
+     * Returns the index of the element at the given position of the internal array.
+     *
+     * @param pos the position of a remaining element
+     * @return the index of the element; the position itself if no tombstones are pending
+     */
+    protected final int indexOfPosition(int pos) {
+        if(this.removed == 0)
+            return pos;
+        
+        int before = 0;
+        
+        // count the tombstones before the position
+        for(int i = pos; i > 0; i -= i & -i)
+            before += this.removedTree[i];
+        
+        return pos - before;
+    }
+    
+    /**
+     * Converts positions of the internal array, in increasing order, to the indexes of
+     * their elements, leaving out positions of removed elements. While no tombstones are
+     * pending, positions are indexes and the array is returned as it is.
+     *
+     * @param positions the positions, in increasing order, overwritten in place
+     * @return the indexes of the remaining elements, in increasing order
+     */
+    protected int[] toIndexes(int[] positions) {
+        if(this.removed == 0)
+            return positions;
+        
+        int count = 0;
+        
+        for(int pos : positions) {
+            if(this.internalList[pos] != null)
+                positions[count++] = indexOfPosition(pos);
+        }
+        
+        return count == positions.length ? positions : Arrays.copyOf(positions, count);
+    }
+    
+    /**
+     * Returns the current number of elements in the list.
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return this.size - this.removed;
+    }
+    
+    /**
+     * Replaces the element at the specified index, keeping the indexes up to date.
+     *
+     * @param index the index of the element to replace
+     * @param obj the new element
+     * @return the element previously at that position
+     * @throws IllegalArgumentException if the object is null,
+     *         or an element with the same key is stored at another position
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public T set(int index, T obj) {
+        if(obj == null)
+            throw new IllegalArgumentException("Element must not be null");
+        
+        checkIndex(index);
+        index = positionOf(index);
+        
+        T old = elementAt(index);
+        Object newKey = obj.getKey();
+        
+        // an element may only be stored once
+        Integer other = keyIndex().get(newKey);
+        if(other != null && other != index)
+            throw new IllegalArgumentException("An element with the same key is already in the list");
+        
+        // the old element may have changed its key since it was stored
+        this.keyIndex.remove(this.keys[index]);
+        storeKey(index, newKey);
+        
+        indexReplaced(old, obj, index);
+        
+        this.internalList[index] = obj;
+        this.modCount++;
+        
+        return old;
+    }
+    
+    /**
+     * Updates the search and lookup indexes that have been built so far
+     * for an element replaced in place.
+     *
+     * @param old the element previously at the position
+     * @param obj the new element
+     * @param index the position of the element
+     */
+    protected void indexReplaced(T old, T obj, int index) {
+        if(this.searchIndex != null || this.searchForms != null) {
+            String form = searchText(obj).toLowerCase();
+            
+            // the trigrams of the old text stay behind as harmless false candidates
+            if(this.searchIndex != null)
+                this.searchIndex.insert(index, form);
+            
+            if(this.searchForms != null)
+                storeSearchForm(index, form);
+        }
+        
+        // move the position from the key it was stored under, which old may no longer have
+        if(this.lookupIndex != null) {
+            String oldLookup = this.lookupKeys[index];
+            String newLookup = foldCase(lookupKey(obj));
+            
+            if(!oldLookup.equals(newLookup)) {
+                this.lookupIndex.computeIfPresent(oldLookup, (k, positions) -> positions.without(index));
+                this.lookupIndex.compute(newLookup, (key, positions) -> positions == null ? PositionList.of(index) : positions.insert(index));
+                this.lookupKeys[index] = newLookup;
+            }
+        }
+    }
+    
+    /**
+     * Removes the element at the specified index. The elements after it move down
+     * one index at once. Runs in amortized logarithmic time.
+     *
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public T remove(int index) {
+        checkIndex(index);
+        
+        int pos = positionOf(index);
+        T old = elementAt(pos);
+        tombstone(pos);
+        
+        return old;
+    }
+    
+    /**
+     * Removes the element with the same key as the given object, if there is one.
+     * Runs in amortized constant time on average.
+     *
+     * @param obj the searchable object whose key to look up
+     * @return true if an element was removed; false if none had the same key
+     */
+    public boolean remove(Object obj) {
+        if(!(obj instanceof Searchable)) return false;
+        
+        Integer pos = keyIndex().get(((Searchable) obj).getKey());
+        
+        if(pos == null) return false;
+        
+        tombstone(pos);
+        
+        return true;
+    }
+    
+    /**
+     * Empties the slot at the given position, counts the tombstone,
+     * and compacts the list if more than half of its slots are empty.
+     *
+     * @param pos the position of the element to remove
+     */
+    private void tombstone(int pos) {
+        if(this.keyIndex != null) {
+            this.keyIndex.remove(this.keys[pos]);
+            this.keys[pos] = null;
+        }
+        
+        this.internalList[pos] = null;
+        this.removed++;
+        
+        if(this.searchForms != null)
+            this.searchForms[pos] = null;
+        this.modCount++;
+        
+        if(this.removed * 2 > this.size) {
+            compact();
+        }
+        else if(this.removedTree == null) {
+            buildRemovedTree();
+        }
+        else {
+            for(int i = pos + 1; i < this.removedTree.length; i += i & -i)
+                this.removedTree[i]++;
+        }
+    }
+    
+    /**
+     * Builds the Fenwick tree counting the tombstones, covering the whole internal array.
+     */
+    private void buildRemovedTree() {
+        int n = this.internalList.length;
+        int[] tree = new int[n + 1];
+        
+        for(int i = 0; i < this.size; i++) {
+            if(this.internalList[i] == null)
+                tree[i + 1]++;
+        }
+        
+        // add every node to its parent, in linear time
+        for(int i = 1; i <= n; i++) {
+            int parent = i + (i & -i);
+            
+            if(parent <= n)
+                tree[parent] += tree[i];
+        }
+        
+        this.removedTree = tree;
+    }
+    
+    /**
+     * Closes the gaps left by removed elements, keeping the order of the others,
+     * and moves the entries of every index to the new positions.
+     * Does nothing if no element was removed since the last compaction.
+     */
+    public void compact() {
+        if(this.removed == 0) return;
+        
+        int[] newPositions = new int[this.size];
+        int live = 0;
+        
+        for(int i = 0; i < this.size; i++) {
+            if(this.internalList[i] == null) {
+                newPositions[i] = -1;
+            }
+            else {
+                this.internalList[live] = this.internalList[i];
+                newPositions[i] = live++;
+            }
+        }
+        
+        Arrays.fill(this.internalList, live, this.size, null);
+        this.size = live;
+        this.removed = 0;
+        this.removedTree = null;
+        
+        indexCompacted(newPositions);
+    }
+    
+    /**
+     * Moves the entries of the indexes that have been built so far
+     * to the positions of their elements after compaction.
+     *
+     * @param newPositions the new position of every old position, or -1 if it was removed
+     */
+    protected void indexCompacted(int[] newPositions) {
+        // removed keys were already dropped from the key index
+        if(this.keyIndex != null) {
+            this.keyIndex.replaceAll((key, pos) -> newPositions[pos]);
+            moveDown(this.keys, newPositions);
+        }
+        
+        if(this.searchIndex != null)
+            this.searchIndex.remap(newPositions);
+        
+        if(this.searchForms != null)
+            moveDown(this.searchForms, newPositions);
+        
+        if(this.lookupIndex != null) {
+            this.lookupIndex.replaceAll((key, positions) -> positions.remap(newPositions));
+            this.lookupIndex.values().removeIf(positions -> positions == null);
+            moveDown(this.lookupKeys, newPositions);
+        }
+    }
+    
+    /**
+     * Moves the entries of an array kept in step with the internal array
+     * to the positions of their elements after compaction.
+     *
+     * @param slots the entries by old position
+     * @param newPositions the new position of every old position, or -1 if it was removed
+     */
+    private static void moveDown(Object[] slots, int[] newPositions) {
+        int live = 0;
+        
+        // positions only move down, so the entries can be moved in place
+        for(int i = 0; i < newPositions.length; i++) {
+            if(newPositions[i] >= 0)
+                slots[live++] = slots[i];
+        }
+        
+        Arrays.fill(slots, live, newPositions.length, null);
+    }
+    
+    /**
+     * Compacts the list and shrinks the internal array to the number of elements,
+     * releasing the memory kept for future additions.
+     */
+    public void trimToSize() {
+        compact();
+        
+        if(this.capacity > this.size) {
+            this.internalList = Arrays.copyOf(this.internalList, this.size);
+            this.capacity = this.size;
+        }
+        
+        if(this.searchForms != null && this.searchForms.length > this.size)
+            this.searchForms = Arrays.copyOf(this.searchForms, this.size);
+        
+        if(this.keys != null && this.keys.length > this.size)
+            this.keys = Arrays.copyOf(this.keys, this.size);
+        
+        if(this.lookupKeys != null && this.lookupKeys.length > this.size)
+            this.lookupKeys = Arrays.copyOf(this.lookupKeys, this.size);
+    }
+    
+    /**
+     * Sets how much the internal array grows when it is full.
+     *
+     * @param growthPolicy the growth policy to use from now on
+     */
+    public void setGrowthPolicy(GrowthPolicy growthPolicy) {
+        if(growthPolicy == null)
+            throw new IllegalArgumentException("Growth policy must not be null");
+        
+        this.growthPolicy = growthPolicy;
+    }
+    
+    /**
+     * Returns the number of structural modifications made to the list so far.
+     * Results computed from the list remain valid as long as this number does not change.
+     *
+     * @return the modification count
+     */
+    public int getModCount() {
+        return this.modCount;
+    }
+    
+    /**
+     * Returns the capacity the storage of a full list should grow to under the growth policy.
+     *
+     * @param capacity the current capacity
+     * @return the new capacity, at least one larger than the current one
+     */
+    protected int grownCapacity(int capacity) {
+        return Math.max(this.growthPolicy.grow(capacity), capacity + 1);
+    }
+    
+    /**
+     * Checks that an index refers to an element.
+     *
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+    }
+    
+    /**
+     * Returns the position of the element with the same key as the given object.
+     * Runs in constant time on average.
+     *
+     * @param obj the searchable object whose key to look up
+     * @return the position of the matching element, or -1 if there is none
+     */
+    public int indexOf(Object obj) {
+        if(!(obj instanceof Searchable)) return -1;
+        
+        Integer pos = keyIndex().get(((Searchable) obj).getKey());
+        
+        return pos == null ? -1 : indexOfPosition(pos);
+    }
+    
+    /**
+     * Determines whether an element with the same key as the given object
+     * is already stored in the list. Runs in constant time on average.
+     *
+     * @param obj the object whose key to look up
+     * @return true if an element with an equal key is stored; false otherwise
+     */
+    protected boolean containsKey(Searchable obj) {
+        return keyIndex().containsKey(obj.getKey());
+    }
+    
+    /**
+     * Returns the index from element keys to positions, building it on first use.
+     * Lists that are only ever filled through {@link #append(Searchable)} never pay for it.
+     *
+     * @return the key index of this list
+     */
+    protected HashMap<Object, Integer> keyIndex() {
+        HashMap<Object, Integer> index = this.keyIndex;
+        
+        if(index == null) {
+            index = new HashMap<>();
+            Object[] keys = new Object[Math.max(this.size, 1)];
+            
+            for(int i = 0; i < this.size; i++) {
+                // skip the slots of removed elements
+                if(this.internalList[i] != null) {
+                    keys[i] = this.internalList[i].getKey();
+                    index.put(keys[i], i);
+                }
+            }
+            
+            // publish the complete index
+            this.keys = keys;
+            this.keyIndex = index;
+        }
+        
+        return index;
+    }
+    
+    /**
+     * Stores the key of the element at the given position in the key index,
+     * growing the array of keys if needed.
+     *
+     * @param pos the position of the element
+     * @param key the key of the element
+     */
+    private void storeKey(int pos, Object key) {
+        if(pos >= this.keys.length)
+            this.keys = Arrays.copyOf(this.keys, Math.max(pos + 1, grownCapacity(this.keys.length)));
+        
+        this.keys[pos] = key;
+        this.keyIndex.put(key, pos);
+    }
+    
+    /**
+     * Returns the positions, in increasing order, of the elements whose lookup key
+     * equals the given key, ignoring case, as indexes for {@link #get(int)}. Runs in
+     * constant time on average, or in time logarithmic in the size of the list per match
+     * while tombstones are pending. The positions are a read-only view that is valid
+     * until the list is next modified.
+     *
+     * @param key the lookup key
+     * @return the indexes of the matching elements, possibly empty
+     */
+    protected PositionList lookupPositions(String key) {
+        HashMap<String, PositionList> index = this.lookupIndex;
+        
+        // build the index on the first lookup
+        if(index == null) {
+            index = new HashMap<>();
+            String[] folded = new String[Math.max(positionCount(), 1)];
+            
+            for(int i = 0; i < positionCount(); i++) {
+                int pos = i;
+                
+                if(!isRemoved(pos)) {
+                    folded[pos] = foldCase(lookupKeyAt(pos));
+                    index.compute(folded[pos], (k, positions) -> positions == null ? PositionList.of(pos) : positions.append(pos));
+                }
+            }
+            
+            // publish the complete index
+            this.lookupKeys = folded;
+            this.lookupIndex = index;
+            RowCounter.add(size());
+        }
+        
+        PositionList positions = index.get(foldCase(key));
+        
+        if(positions == null)
+            return PositionList.EMPTY;
+        
+        RowCounter.add(positions.size());
+        
+        // the positions of removed elements are still in the index
+        if(this.removed > 0)
+            positions = PositionList.of(toIndexes(positions.toArray()));
+        
+        return positions;
+    }
+    
+    /**
+     * Returns the key by which {@link #findMatch(String)} finds the given element.
+     * Implemented by subclasses; the key should not change while the element is stored.
+     *
+     * @param obj an element of this list
+     * @return the lookup key of the element
+     */
+    protected abstract String lookupKey(T obj);
+    
+    /**
+     * Returns the lookup key of the element at the given position.
+     * Subclasses that do not keep their elements in the internal array override this.
+     *
+     * @param pos the position of the element
+     * @return the lookup key of the element
+     */
+    protected String lookupKeyAt(int pos) {
+        return lookupKey(elementAt(pos));
+    }
+    
+    /**
+     * Maps a string to a form that is equal for two strings exactly when
+     * they are equal according to {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param str the string to fold
+     * @return the case-folded string
+     */
+    protected static String foldCase(String str) {
+        char[] chars = null;
+        
+        for(int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            
+            // only copy the string once a character actually changes
+            if(folded != c) {
+                if(chars == null)
+                    chars = str.toCharArray();
+                
+                chars[i] = folded;
+            }
+        }
+        
+        return chars == null ? str : new String(chars);
+    }
+    
+    /**
+     * Builds a trigram index over the search text of the current elements and keeps it
+     * up to date as elements are added. Speeds up {@link #query(String)} for keys of at
+     * least {@value NGramIndex#N} characters at the cost of extra memory.
+     * Does nothing if the index is already enabled.
+     */
+    public void enableSearchIndex() {
+        if(this.searchIndex != null) return;
+        
+        NGramIndex index = new NGramIndex();
+        
+        for(int i = 0; i < positionCount(); i++) {
+            if(!isRemoved(i))
+                index.add(i, searchFormAt(i));
+        }
+        
+        this.searchIndex = index;
+    }
+    
+    /**
+     * Determines whether the trigram search index has been enabled.
+     *
+     * @return true if {@link #enableSearchIndex()} has been called; false otherwise
+     */
+    public boolean isSearchIndexEnabled() {
+        return this.searchIndex != null;
+    }
+    
+    /**
+     * Stores the lowercased search text of every element once and keeps it up to date
+     * as elements are added, replaced and removed. {@link #query(String)} then compares
+     * keys against the stored forms instead of lowercasing the text of every element it
+     * looks at, at the cost of one extra string per element whose text is not already
+     * lowercase. Does nothing if the cache is already enabled.
+     */
+    public void enableSearchFormCache() {
+        if(this.searchForms != null) return;
+        
+        String[] forms = new String[Math.max(positionCount(), 1)];
+        
+        // the slots of removed elements stay null
+        for(int i = 0; i < positionCount(); i++) {
+            if(!isRemoved(i))
+                forms[i] = searchTextAt(i).toLowerCase();
+        }
+        
+        this.searchForms = forms;
+    }
+    
+    /**
+     * Determines whether the lowercased search texts are cached.
+     *
+     * @return true if {@link #enableSearchFormCache()} has been called; false otherwise
+     */
+    public boolean isSearchFormCacheEnabled() {
+        return this.searchForms != null;
+    }
+    
+    /**
+     * Returns the lowercased search text of the element at the given position,
+     * from the cache if it is enabled.
+     *
+     * @param pos the position of the element
+     * @return the lowercased search text of the element
+     */
+    protected String searchFormAt(int pos) {
+        if(this.searchForms != null)
+            return this.searchForms[pos];
+        
+        return searchTextAt(pos).toLowerCase();
+    }
+    
+    /**
+     * Stores the lowercased search text of the element at the given position,
+     * growing the cache if needed.
+     *
+     * @param pos the position of the element
+     * @param form the lowercased search text
+     */
+    private void storeSearchForm(int pos, String form) {
+        if(pos >= this.searchForms.length)
+            this.searchForms = Arrays.copyOf(this.searchForms, Math.max(pos + 1, grownCapacity(this.searchForms.length)));
+        
+        this.searchForms[pos] = form;
+    }
+    
+    /**
+     * Stores the folded lookup key of the element at the given position,
+     * growing the array of lookup keys if needed.
+     *
+     * @param pos the position of the element
+     * @param folded the case-folded lookup key
+     */
+    private void storeLookupKey(int pos, String folded) {
+        if(pos >= this.lookupKeys.length)
+            this.lookupKeys = Arrays.copyOf(this.lookupKeys, Math.max(pos + 1, grownCapacity(this.lookupKeys.length)));
+        
+        this.lookupKeys[pos] = folded;
+    }
+    
+    /**
+     * Returns the text that {@link #query(String)} searches in for the given element.
+     * Implemented by subclasses that support the search index.
+     *
+     * @param obj an element of this list
+     * @return the searchable text of the element
+     * @throws UnsupportedOperationException if this list has no search text
+     */
+    protected String searchText(T obj) {
+        throw new UnsupportedOperationException("This list does not define a search text");
+    }
+    
+    /**
+     * Returns the search text of the element at the given position.
+     * Subclasses that do not keep their elements in the internal array override this.
+     *
+     * @param pos the position of the element
+     * @return the searchable text of the element
+     */
+    protected String searchTextAt(int pos) {
+        return searchText(elementAt(pos));
+    }
+    
+    /**
+     * Returns the indexes, in increasing order, of the elements whose search text
+     * contains the given key, ignoring case. Uses the search index when it is enabled
+     * and the key is long enough, and scans the whole list otherwise.
+     *
+     * @param key the search key
+     * @return the indexes of the matching elements
+     */
+    protected int[] matchPositions(String key) {
+        return matchPositions(key, 0, size());
+    }
+    
+    /**
+     * Returns the indexes, in increasing order, of the elements within the given
+     * range of indexes whose search text contains the given key, ignoring case.
+     * Searching a large list range by range gives the same result as searching it at once.
+     *
+     * @param key the search key
+     * @param from the first index to search
+     * @param to the index just past the last one to search
+     * @return the indexes of the matching elements within the range
+     */
+    protected int[] matchPositions(String key, int from, int to) {
+        key = key.toLowerCase();
+        
+        // the range of slots holding the elements of the range
+        if(this.removed > 0) {
+            from = from >= size() ? this.size : positionOf(from);
+            to = to >= size() ? this.size : positionOf(to);
+        }
+        
+        int[] candidates = null;
+        
+        if(this.searchIndex != null)
+            candidates = this.searchIndex.candidates(key, from, to);
+        
+        int count = 0;
+        
+        RowCounter.add(candidates != null ? candidates.length : to - from);
+        
+        if(candidates != null) {
+            // verify the candidates, which may contain the key's trigrams apart
+            for(int i = 0; i < candidates.length; i++) {
+                if(!isRemoved(candidates[i]) && searchFormAt(candidates[i]).contains(key))
+                    candidates[count++] = candidates[i];
+            }
+        }
+        else {
+            candidates = new int[to - from];
+            
+            for(int i = from; i < to; i++) {
+                if(!isRemoved(i) && searchFormAt(i).contains(key))
+                    candidates[count++] = i;
+            }
+        }
+        
+        return toIndexes(Arrays.copyOf(candidates, count));
+    }
+    
+    /**
+     * Grows the internal array according to the growth policy and copies over existing elements.
+     */
+    private void growList() {
+        // room for at least the element being added
+        this.capacity = Math.max(grownCapacity(this.capacity), this.size + 2);
+        this.internalList = Arrays.copyOf(this.internalList, this.capacity);
+        
+        // the tree covers the whole array
+        if(this.removedTree != null)
+            buildRemovedTree();
+    }
+
+    /**
+     * Finds and returns the first object in the list that matches the given key.
+     * Implemented by subclasses based on specific matching logic.
+     *
+     * @param key the search key
+     * @return the matching object, or null if no match is found
+     */
+    public abstract T findMatch(String key);
+    
+    /**
+     * Returns a new list containing all objects that match the given key.
+     * Implemented by subclasses with their specific type and match logic.
+     *
+     * @param key the search key
+     * @return a BaseList containing all matching elements
+     */
+    public abstract BaseList<T> query(String key);
+    
+    /**
+     * Determines whether the specified object is already in the list.
+     * Implemented by subclasses using their equality logic.
+     *
+     * @param obj the object to check for
+     * @return true if the object exists in the list; false otherwise
+     */
+    public abstract boolean contains(Object obj);
+    
+    /**
+     * Returns an iterator over the elements in list order.
+     *
+     * @return an iterator that fails if the list is modified while it is used
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+    
+    /**
+     * Returns a spliterator over the elements in list order. It is
+     * {@link Spliterator#SIZED sized} and {@link Spliterator#SUBSIZED subsized},
+     * since every split covers a known range of indexes. The range is fixed when
+     * the spliterator is first used. Reading does not modify the list.
+     *
+     * @return a spliterator that fails if the list is modified while it is used
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new ListSpliterator(0, -1, 0);
+    }
+    
+    /**
+     * Returns a sequential stream of the elements in list order.
+     *
+     * @return a stream of the elements
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+    
+    /**
+     * Returns a parallel stream of the elements.
+     *
+     * @return a possibly parallel stream of the elements
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+    
+    /**
+     * A spliterator over a range of indexes of the list, reading the elements
+     * with {@link BaseList#get(int)} so that it works for every kind of list.
+     * It never modifies the list, so the splits can be read in parallel.
+     */
+    private class ListSpliterator implements Spliterator<T> {
+        
+        /** The next position to read */
+        private int index;
+        
+        /** The position just past the last one to read, or -1 until the range is fixed */
+        private int fence;
+        
+        /** The modification count of the list when the range was fixed */
+        private int expectedModCount;
+        
+        /**
+         * Constructs a spliterator over a range of positions.
+         *
+         * @param origin the first position to read
+         * @param fence the position just past the last one, or -1 for the end of the list on first use
+         * @param expectedModCount the modification count the range is valid for
+         */
+        ListSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+        
+        /**
+         * Returns the end of the range, fixing it to the end of the list on first use.
+         *
+         * @return the position just past the last one to read
+         */
+        private int getFence() {
+            if(this.fence < 0) {
+                this.expectedModCount = getModCount();
+                this.fence = size();
+            }
+            
+            return this.fence;
+        }
+        
+        /**
+         * Splits off the first half of the remaining range.
+         *
+         * @return a spliterator over the first half, or null if the range is too small to split
+         */
+        @Override
+        public Spliterator<T> trySplit() {
+            int hi = getFence();
+            int lo = this.index;
+            int mid = (lo + hi) >>> 1;
+            
+            return lo >= mid ? null : new ListSpliterator(lo, this.index = mid, this.expectedModCount);
+        }
+        
+        /**
+         * Passes the next element to the action.
+         *
+         * @param action the action
+         * @return false if no elements remain; true otherwise
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if(this.index >= getFence())
+                return false;
+            
+            action.accept(get(this.index++));
+            checkModCount();
+            
+            return true;
+        }
+        
+        /**
+         * Passes every remaining element to the action.
+         *
+         * @param action the action
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            int hi = getFence();
+            
+            if(removed > 0 && this.index < hi) {
+                // walk the slots once instead of locating every element
+                int pos = positionOf(this.index);
+                
+                for(; this.index < hi; this.index++, pos++) {
+                    while(internalList[pos] == null)
+                        pos++;
+                    
+                    action.accept(elementAt(pos));
+                }
+            }
+            else {
+                for(; this.index < hi; this.index++)
+                    action.accept(get(this.index));
+            }
+            
+            checkModCount();
+        }
+        
+        /**
+         * Returns the number of elements remaining.
+         *
+         * @return the exact number of elements remaining
+         */
+        @Override
+        public long estimateSize() {
+            return getFence() - this.index;
+        }
+        
+        /**
+         * Returns the characteristics of this spliterator.
+         *
+         * @return ORDERED, SIZED, SUBSIZED and NONNULL
+         */
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+        
+        /**
+         * Fails if the list has been modified since the range was fixed.
+         *
+         * @throws ConcurrentModificationException if the list was modified
+         */
+        private void checkModCount() {
+            if(getModCount() != this.expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+    
+}
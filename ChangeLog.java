@@ -0,0 +1,345 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.InputMismatchException;
+
+/**
+ * The {@code ChangeLog} class writes and applies an append-only log of changes
+ * to the student data, so that a loaded {@link Controller} can be brought up to
+ * date without reloading the whole data file.
+ *
+ * <p>The log is a UTF-8 text file with one event per line. The fields of an event
+ * are separated by tabs, and the first field names the event:</p>
+ * <ul>
+ *   <li>{@code STUDENT_ADDED name Graduate topic} or
+ *       {@code STUDENT_ADDED name Undergraduate year} adds a student without courses;</li>
+ *   <li>{@code COURSE_ADDED student code credit title} enrolls a student in a course,
+ *       adding the course to the catalog if it is new;</li>
+ *   <li>{@code COURSE_DROPPED student code} drops a student's course with that code;</li>
+ *   <li>{@code YEAR_LEVEL_CHANGED student year} changes an undergraduate's year level.</li>
+ * </ul>
+ * <p>Students are identified by name, ignoring case, like {@link Controller#getStudent(String)};
+ * if several students share a name, the first one is changed.</p>
+ *
+ * <p>An instance appends events to a log file. Events are applied with
+ * {@link Controller#applyChanges(String)}, which remembers how far the log has
+ * been applied so that each call only reads the events added since. While the
+ * application runs, {@link DataFileWatcher} applies the events as they are added.</p>
+ */
+public class ChangeLog implements Closeable {
+
+    /** Names the event adding a student */
+    public static final String STUDENT_ADDED = "STUDENT_ADDED";
+
+    /** Names the event enrolling a student in a course */
+    public static final String COURSE_ADDED = "COURSE_ADDED";
+
+    /** Names the event dropping a student's course */
+    public static final String COURSE_DROPPED = "COURSE_DROPPED";
+
+    /** Names the event changing an undergraduate's year level */
+    public static final String YEAR_LEVEL_CHANGED = "YEAR_LEVEL_CHANGED";
+
+    /** The separator of the fields of an event */
+    private static final char SEPARATOR = '\t';
+
+
+    /** The writer appending to the log file */
+    private Writer out;
+
+
+    /**
+     * Opens a log file for appending, creating it if it does not exist.
+     *
+     * @param filename the path of the log file
+     * @throws IOException if the file cannot be opened
+     */
+    public ChangeLog(String filename) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filename, true), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Logs the addition of a student. Only the name and the thesis topic or
+     * year level are logged; courses are logged with {@link #courseAdded(String, Course)}.
+     *
+     * @param stud the student added
+     * @throws IOException if the event cannot be written
+     */
+    public void studentAdded(Student stud) throws IOException {
+        if(stud instanceof GraduateStudent)
+            write(STUDENT_ADDED, stud.getName(), "Graduate", ((GraduateStudent) stud).getThesisTopic());
+        else if(stud instanceof UndergraduateStudent)
+            write(STUDENT_ADDED, stud.getName(), "Undergraduate", Integer.toString(((UndergraduateStudent) stud).getYearLevel()));
+        else
+            throw new IllegalArgumentException("Unsupported student type: " + stud.getClass().getName());
+    }
+
+    /**
+     * Logs the enrollment of a student in a course.
+     *
+     * @param student the name of the student
+     * @param c the course
+     * @throws IOException if the event cannot be written
+     */
+    public void courseAdded(String student, Course c) throws IOException {
+        write(COURSE_ADDED, student, c.getCode(), Integer.toString(c.getCredit()), c.getTitle());
+    }
+
+    /**
+     * Logs a student dropping a course.
+     *
+     * @param student the name of the student
+     * @param code the code of the course
+     * @throws IOException if the event cannot be written
+     */
+    public void courseDropped(String student, String code) throws IOException {
+        write(COURSE_DROPPED, student, code);
+    }
+
+    /**
+     * Logs a change of an undergraduate's year level.
+     *
+     * @param student the name of the student
+     * @param yearLevel the new year level
+     * @throws IOException if the event cannot be written
+     */
+    public void yearLevelChanged(String student, int yearLevel) throws IOException {
+        write(YEAR_LEVEL_CHANGED, student, Integer.toString(yearLevel));
+    }
+
+    /**
+     * Closes the log file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+    /**
+     * Writes one event as a complete line and flushes it, so that readers
+     * of the log never apply an event that is only partly written.
+     *
+     * @param fields the fields of the event
+     * @throws IOException if the event cannot be written
+     * @throws IllegalArgumentException if a field holds a tab or line break
+     */
+    private void write(String... fields) throws IOException {
+        StringBuilder line = new StringBuilder();
+
+        for(String field : fields) {
+            if(field == null)
+                field = "";
+
+            if(field.indexOf(SEPARATOR) >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0)
+                throw new IllegalArgumentException("Field must not contain tabs or line breaks: " + field);
+
+            if(line.length() > 0)
+                line.append(SEPARATOR);
+
+            line.append(field);
+        }
+
+        this.out.write(line.append('\n').toString());
+        this.out.flush();
+    }
+
+    /**
+     * Applies one event to the given lists. Students are changed by replacing
+     * them with a changed copy through {@link BaseList#set(int, Searchable)}, so that
+     * lists storing copies of their students, like {@link ColumnarStudentList}, are
+     * updated as well, and other lists sharing the student objects are not changed.
+     * Dropping a course the student does not take has no effect. A
+     * {@link ConcurrentStudentList} only accepts events adding students.
+     *
+     * @param event a line of the log, without its line terminator
+     * @param students the students to change
+     * @param courses the catalog courses are interned into
+     * @return false if the line is blank and was skipped; true otherwise
+     * @throws UnsupportedOperationException if the event changes a student of a concurrent list
+     * @throws InputMismatchException if the event is malformed or names an unknown student
+     */
+    static boolean apply(String event, StudentList students, CourseList courses) {
+        if(event.isBlank())
+            return false;
+
+        String[] fields = event.split(String.valueOf(SEPARATOR), -1);
+
+        switch(fields[0]) {
+            case STUDENT_ADDED: {
+                expect(fields, 4);
+
+                if(fields[2].equals("Graduate")) {
+                    GraduateStudent gs = new GraduateStudent(fields[1]);
+                    gs.setThesisTopic(fields[3]);
+                    students.add(gs);
+                }
+                else if(fields[2].equals("Undergraduate")) {
+                    UndergraduateStudent ugs = new UndergraduateStudent(fields[1]);
+                    ugs.setYearLevel(parseInt(fields[3]));
+                    students.add(ugs);
+                }
+                else {
+                    throw new InputMismatchException("Unknown student type " + fields[2]);
+                }
+
+                return true;
+            }
+            case COURSE_ADDED: {
+                expect(fields, 5);
+
+                int pos = find(students, fields[1]);
+                Student stud = copyOf(students.get(pos), courses);
+
+                stud.enroll( courses.intern(new Course(fields[2], fields[4], parseInt(fields[3]))) );
+                students.set(pos, stud);
+
+                return true;
+            }
+            case COURSE_DROPPED: {
+                expect(fields, 3);
+
+                int pos = find(students, fields[1]);
+                Student stud = copyOf(students.get(pos), courses);
+
+                if(stud.dropCourse(fields[2]) != null)
+                    students.set(pos, stud);
+
+                return true;
+            }
+            case YEAR_LEVEL_CHANGED: {
+                expect(fields, 3);
+
+                int pos = find(students, fields[1]);
+                Student stud = copyOf(students.get(pos), courses);
+
+                if(!(stud instanceof UndergraduateStudent))
+                    throw new InputMismatchException(fields[1] + " is not an undergraduate");
+
+                ((UndergraduateStudent) stud).setYearLevel(parseInt(fields[2]));
+                students.set(pos, stud);
+
+                return true;
+            }
+            default:
+                throw new InputMismatchException("Unknown event " + fields[0]);
+        }
+    }
+
+    /**
+     * Returns the length of the part of a log file that consists of complete lines.
+     * A line still being written at the end of the file is left for the next call.
+     *
+     * @param channel the channel of the log file
+     * @param from the position the search may stop at, at the start of a line
+     * @return the position just past the last line terminator, or {@code from} if there is none after it
+     * @throws IOException if the file cannot be read
+     */
+    static long completeLength(FileChannel channel, long from) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(1 << 12);
+        long end = channel.size();
+
+        // search backwards for the last line feed
+        while(end > from) {
+            int length = (int) Math.min(block.capacity(), end - from);
+            long start = end - length;
+
+            block.clear().limit(length);
+
+            while(block.hasRemaining() && channel.read(block, start + block.position()) >= 0);
+
+            for(int i = length - 1; i >= 0; i--) {
+                if(block.get(i) == '\n')
+                    return start + i + 1;
+            }
+
+            end = start;
+        }
+
+        return from;
+    }
+
+    /**
+     * Returns the position of the first student with the given name, for an event
+     * that changes the student. Checked before the student is changed, so that a
+     * rejected event leaves the student as it was.
+     *
+     * @param students the students to search
+     * @param name the name of the student
+     * @return the position of the student
+     * @throws UnsupportedOperationException if the list is a {@link ConcurrentStudentList},
+     *         whose students cannot be replaced
+     * @throws InputMismatchException if there is no student with that name
+     */
+    private static int find(StudentList students, String name) {
+        if(students instanceof ConcurrentStudentList)
+            throw new UnsupportedOperationException("Cannot change " + name + ": a concurrent list is append-only");
+
+        int pos = students.indexOfName(name);
+
+        if(pos < 0)
+            throw new InputMismatchException("Unknown student " + name);
+
+        return pos;
+    }
+
+    /**
+     * Copies a student before an event changes it, sharing the catalog courses.
+     *
+     * @param stud the student to copy
+     * @param courses the catalog the courses of the copy are interned into
+     * @return a copy of the student, of the same type
+     * @throws IllegalArgumentException if the student is neither a graduate nor an undergraduate
+     */
+    private static Student copyOf(Student stud, CourseList courses) {
+        Student copy;
+
+        if(stud instanceof GraduateStudent)
+            copy = new GraduateStudent((GraduateStudent) stud);
+        else if(stud instanceof UndergraduateStudent)
+            copy = new UndergraduateStudent((UndergraduateStudent) stud);
+        else
+            throw new IllegalArgumentException("Unsupported student type: " + stud.getClass().getName());
+
+        // the copy constructors copy every course
+        copy.internCourses(courses);
+
+        return copy;
+    }
+
+    /**
+     * Checks the number of fields of an event.
+     *
+     * @param fields the fields of the event
+     * @param count the number of fields expected
+     * @throws InputMismatchException if the number differs
+     */
+    private static void expect(String[] fields, int count) {
+        if(fields.length != count)
+            throw new InputMismatchException(String.format("%s expects %d fields but has %d", fields[0], count, fields.length));
+    }
+
+    /**
+     * Parses an integer field.
+     *
+     * @param field the field
+     * @return the integer value
+     * @throws InputMismatchException if the field is not an integer
+     */
+    private static int parseInt(String field) {
+        try {
+            return Integer.parseInt(field.trim());
+        }
+        catch(NumberFormatException e) {
+            throw new InputMismatchException("Expected an integer but found \"" + field + "\"");
+        }
+    }
+
+}
@@ -0,0 +1,585 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link StudentList} that stores its students column by column in primitive
+ * arrays instead of keeping one object per student.
+ *
+ * <p>The columns are:</p>
+ * <ul>
+ *   <li>the names, encoded as UTF-8 one after another in a single shared byte
+ *       pool, with the offset of every name in an int array;</li>
+ *   <li>the student type and the year level of undergraduates, one byte each;</li>
+ *   <li>the thesis topics of graduates, as ids into a dictionary of distinct topics;</li>
+ *   <li>the enrollments in compressed sparse row form: the ids of the courses
+ *       in a course table of the list, one student after another, with the
+ *       offset of every student's first course in a separate int array.</li>
+ * </ul>
+ *
+ * <p>The courses are interned into a shared {@link CourseList} catalog, and the
+ * course table holds the catalog's course objects, each under an id that never
+ * changes. Removing or moving courses in the catalog therefore does not change the
+ * courses of the students, just as it does not for students kept as objects.</p>
+ *
+ * <p>{@link #get(int)} materializes a new flyweight {@link Student} from the columns
+ * on every call, enrolled in the catalog's course objects. The flyweights are copies:
+ * changing one does not change the list. Searching by name reads the name column
+ * directly without creating any students.</p>
+ *
+ * <p>A student added to this list is copied into the columns and its courses are
+ * interned into the catalog. Since the list holds no student objects, students are
+ * told apart by their contents instead of their identity: {@link #contains(Object)}
+ * and {@link #indexOf(Object)} find a student whose name, type, year level or thesis
+ * topic, and courses are the same, so a flyweight is found at the position it was read
+ * from.</p>
+ *
+ * <p>Unlike {@link BaseList#add(Searchable)}, adding a student does not check for
+ * duplicates, since that would take an index over all students and give up much of
+ * the memory the columns save. A student with the same contents as a stored one is
+ * stored again, and {@link #indexOf(Object)} then finds the first of them. Lists
+ * loaded from a data file hold no such duplicates, since the students in the file have
+ * distinct names. Students cannot be removed. A student can be replaced with
+ * {@link #set(int, Student)}, so a flyweight that was changed can be stored back.</p>
+ */
+public class ColumnarStudentList extends StudentList {
+
+    /** The type byte of an undergraduate student */
+    private static final byte UNDERGRADUATE = 0;
+
+    /** The type byte of a graduate student */
+    private static final byte GRADUATE = 1;
+
+    /** The topic id of a graduate without a thesis topic */
+    private static final int NO_TOPIC = -1;
+
+
+    /** The catalog the courses of the students are interned into */
+    private CourseList catalog;
+
+    /** The course objects the enrollments refer to, by course id */
+    private ArrayList<Course> courseTable;
+
+    /** The id of every course object in the course table */
+    private IdentityHashMap<Course, Integer> courseTableIds;
+
+    /** The number of students stored */
+    private int count;
+
+    /** The UTF-8 bytes of all names, one after another */
+    private byte[] namePool;
+
+    /** The number of bytes used in the name pool */
+    private int namePoolSize;
+
+    /** The offset of every name in the name pool, followed by the end of the last one */
+    private int[] nameOffsets;
+
+    /** The type byte of every student */
+    private byte[] types;
+
+    /** The year level of every undergraduate, unused for graduates */
+    private byte[] yearLevels;
+
+    /** The thesis topic id of every graduate, unused for undergraduates */
+    private int[] topicIds;
+
+    /** The distinct thesis topics, by id */
+    private ArrayList<String> topics;
+
+    /** The id of every distinct thesis topic */
+    private HashMap<String, Integer> topicIndex;
+
+    /** The course ids of the courses of all students, one student after another */
+    private int[] courseIds;
+
+    /** The number of course ids used */
+    private int courseIdCount;
+
+    /** The offset of every student's first course id, followed by the end of the last one */
+    private int[] courseOffsets;
+
+
+    /**
+     * Constructs an empty list whose courses are kept in the given catalog.
+     * Usually the catalog is the course list of the same {@link Controller}.
+     *
+     * @param catalog the course list receiving the courses of the students
+     */
+    public ColumnarStudentList(CourseList catalog) {
+        this(catalog, 10);
+    }
+
+    /**
+     * Constructs an empty list whose courses are kept in the given catalog,
+     * with room for the given number of students.
+     *
+     * @param catalog the course list receiving the courses of the students
+     * @param capacity the initial number of students
+     */
+    public ColumnarStudentList(CourseList catalog, int capacity) {
+        super(0);
+        capacity = Math.max(capacity, 1);
+
+        this.catalog = catalog;
+        this.namePool = new byte[capacity * 16];
+        this.nameOffsets = new int[capacity + 1];
+        this.types = new byte[capacity];
+        this.yearLevels = new byte[capacity];
+        this.topicIds = new int[capacity];
+        this.topics = new ArrayList<>();
+        this.topicIndex = new HashMap<>();
+        this.courseTable = new ArrayList<>();
+        this.courseTableIds = new IdentityHashMap<>();
+        this.courseIds = new int[capacity * 4];
+        this.courseOffsets = new int[capacity + 1];
+    }
+
+    /**
+     * Copies a student into the columns. The student's courses are interned
+     * into the catalog first. Does not check for duplicates, as described above.
+     *
+     * @param obj the student to add
+     * @throws IllegalArgumentException if the object is not a supported student,
+     *         or an undergraduate's year level does not fit in a byte
+     */
+    @Override
+    public void add(Student obj) {
+        append(obj);
+    }
+
+    /**
+     * Copies a student into the columns, like {@link #add(Student)}.
+     *
+     * @param obj the student to add
+     */
+    @Override
+    protected void append(Student obj) {
+        Student stud = checkStudent(obj);
+
+        if(this.count + 1 >= this.types.length)
+            growRows();
+
+        // start with an empty row and fill it in
+        this.nameOffsets[this.count + 1] = this.namePoolSize;
+        this.courseOffsets[this.count + 1] = this.courseIdCount;
+        this.count++;
+
+        store(this.count - 1, stud);
+
+        indexAppended(stud, this.count - 1);
+        this.modCount++;
+    }
+
+    /**
+     * Copies a student into the columns in place of the student at the specified index.
+     * The names and enrollments of the students after it are moved to make room,
+     * so this takes time linear in the size of the list.
+     *
+     * @param index the index of the student to replace
+     * @param obj the new student
+     * @return a flyweight copy of the student previously at that position
+     * @throws IllegalArgumentException if the object is not a supported student,
+     *         or an undergraduate's year level does not fit in a byte
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public Student set(int index, Student obj) {
+        Student stud = checkStudent(obj);
+
+        if(index < 0 || index >= this.count)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.count);
+
+        Student old = get(index);
+        store(index, stud);
+
+        indexReplaced(old, stud, index);
+        this.modCount++;
+
+        return old;
+    }
+
+    /**
+     * Checks that a student can be stored in the columns.
+     *
+     * @param obj the student to check
+     * @return the student
+     * @throws IllegalArgumentException if the student is not of a supported type,
+     *         or an undergraduate's year level does not fit in a byte
+     */
+    private static Student checkStudent(Student obj) {
+        if(obj instanceof UndergraduateStudent) {
+            int year = ((UndergraduateStudent) obj).getYearLevel();
+
+            if(year < Byte.MIN_VALUE || year > Byte.MAX_VALUE)
+                throw new IllegalArgumentException("Year level out of range: " + year);
+        }
+        else if(!(obj instanceof GraduateStudent)) {
+            throw new IllegalArgumentException("Unsupported student type: " + (obj == null ? null : obj.getClass().getName()));
+        }
+
+        return obj;
+    }
+
+    /**
+     * Writes a checked student into an existing row of the columns.
+     *
+     * @param row the row to write
+     * @param stud the student to store
+     */
+    private void store(int row, Student stud) {
+        // fixed-size columns
+        if(stud instanceof GraduateStudent) {
+            this.types[row] = GRADUATE;
+            this.topicIds[row] = topicId(((GraduateStudent) stud).getThesisTopic());
+        }
+        else {
+            this.types[row] = UNDERGRADUATE;
+            this.yearLevels[row] = (byte) ((UndergraduateStudent) stud).getYearLevel();
+        }
+
+        // name pool
+        byte[] name = stud.getName().getBytes(StandardCharsets.UTF_8);
+        int start = this.nameOffsets[row];
+        int stop = this.nameOffsets[row + 1];
+        int delta = name.length - (stop - start);
+
+        if(this.namePoolSize + delta > this.namePool.length)
+            this.namePool = Arrays.copyOf(this.namePool, Math.max(this.namePoolSize + delta, grownCapacity(this.namePool.length)));
+
+        // move the names of the following rows, if any
+        System.arraycopy(this.namePool, stop, this.namePool, stop + delta, this.namePoolSize - stop);
+        System.arraycopy(name, 0, this.namePool, start, name.length);
+        this.namePoolSize += delta;
+        shift(this.nameOffsets, row, delta);
+
+        // enrollments by course id
+        List<Course> taken = stud.getCourses();
+        int first = this.courseOffsets[row];
+        int end = this.courseOffsets[row + 1];
+        int change = taken.size() - (end - first);
+
+        if(this.courseIdCount + change > this.courseIds.length)
+            this.courseIds = Arrays.copyOf(this.courseIds, Math.max(this.courseIdCount + change, grownCapacity(this.courseIds.length)));
+
+        System.arraycopy(this.courseIds, end, this.courseIds, end + change, this.courseIdCount - end);
+        this.courseIdCount += change;
+        shift(this.courseOffsets, row, change);
+
+        for(int i = 0; i < taken.size(); i++)
+            this.courseIds[first + i] = courseId(taken.get(i));
+    }
+
+    /**
+     * Moves the end offsets of a row and of all rows after it.
+     *
+     * @param offsets the offsets of a variable-length column
+     * @param row the row that grew or shrank
+     * @param delta the change in length of the row
+     */
+    private void shift(int[] offsets, int row, int delta) {
+        if(delta == 0) return;
+
+        for(int i = row + 1; i <= this.count; i++)
+            offsets[i] += delta;
+    }
+
+    /**
+     * Returns a new empty columnar list keeping its courses in the given catalog.
+     *
+     * @param courses the catalog of the new list
+     * @return a new empty ColumnarStudentList
+     */
+    @Override
+    public StudentList emptyList(CourseList courses) {
+        return new ColumnarStudentList(courses);
+    }
+
+    /**
+     * Materializes the student at the specified index from the columns.
+     * Every call returns a new object.
+     *
+     * @param index the index of the student
+     * @return a flyweight copy of the student at the specified position
+     * @throws ArrayIndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public Student get(int index) {
+        if(index < 0 || index >= this.count)
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.count);
+
+        Student stud;
+
+        if(this.types[index] == GRADUATE) {
+            GraduateStudent gs = new GraduateStudent(nameAt(index));
+            int topic = this.topicIds[index];
+
+            gs.setThesisTopic(topic == NO_TOPIC ? null : this.topics.get(topic));
+            stud = gs;
+        }
+        else {
+            UndergraduateStudent ugs = new UndergraduateStudent(nameAt(index));
+            ugs.setYearLevel(this.yearLevels[index]);
+            stud = ugs;
+        }
+
+        for(int i = this.courseOffsets[index]; i < this.courseOffsets[index + 1]; i++)
+            stud.enroll( this.courseTable.get(this.courseIds[i]) );
+
+        return stud;
+    }
+
+    /**
+     * Returns the number of students stored.
+     *
+     * @return the size of the list
+     */
+    @Override
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Always throws, since the columns do not support removing a student.
+     *
+     * @param index the index of the student that would have been removed
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Student remove(int index) {
+        throw new UnsupportedOperationException("A columnar student list cannot remove students");
+    }
+
+    /**
+     * Always throws, since the columns do not support removing a student.
+     *
+     * @param obj the student that would have been removed
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean remove(Object obj) {
+        throw new UnsupportedOperationException("A columnar student list cannot remove students");
+    }
+
+    /**
+     * Shrinks every column to the data stored, releasing the memory kept for future additions.
+     */
+    @Override
+    public void trimToSize() {
+        int capacity = this.count + 1;
+
+        this.namePool = Arrays.copyOf(this.namePool, this.namePoolSize);
+        this.nameOffsets = Arrays.copyOf(this.nameOffsets, capacity + 1);
+        this.types = Arrays.copyOf(this.types, capacity);
+        this.yearLevels = Arrays.copyOf(this.yearLevels, capacity);
+        this.topicIds = Arrays.copyOf(this.topicIds, capacity);
+        this.courseIds = Arrays.copyOf(this.courseIds, this.courseIdCount);
+        this.courseOffsets = Arrays.copyOf(this.courseOffsets, capacity + 1);
+        this.courseTable.trimToSize();
+    }
+
+    /**
+     * Determines whether a student with the same contents is stored,
+     * as described for {@link #indexOf(Object)}.
+     *
+     * @param obj the object to check for
+     * @return true if a student with the same contents is stored; false otherwise
+     */
+    @Override
+    public boolean contains(Object obj) {
+        return indexOf(obj) >= 0;
+    }
+
+    /**
+     * Returns the first position of a student with the same name, type, year level
+     * or thesis topic, and courses as the given one, so that {@code indexOf(get(i))}
+     * is {@code i} unless an identical student is stored before it. The candidates
+     * are found through the lookup index by name.
+     *
+     * @param obj the student to look for
+     * @return the position of the matching student, or -1 if there is none
+     */
+    @Override
+    public int indexOf(Object obj) {
+        if(!(obj instanceof Student))
+            return -1;
+
+        Student stud = (Student) obj;
+        PositionList found = lookupPositions(stud.getName());
+
+        for(int i = 0; i < found.size(); i++) {
+            if(rowEquals(found.get(i), stud))
+                return found.get(i);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Determines whether a row of the columns holds the same contents as a student.
+     *
+     * @param row the row to compare
+     * @param stud the student to compare with
+     * @return true if the name, type, year level or thesis topic, and courses are equal
+     */
+    private boolean rowEquals(int row, Student stud) {
+        // the lookup index ignores case
+        if(!nameAt(row).equals(stud.getName()))
+            return false;
+
+        if(stud instanceof GraduateStudent) {
+            int topic = this.topicIds[row];
+
+            if(this.types[row] != GRADUATE || !Objects.equals(topic == NO_TOPIC ? null : this.topics.get(topic), ((GraduateStudent) stud).getThesisTopic()))
+                return false;
+        }
+        else if(stud instanceof UndergraduateStudent) {
+            if(this.types[row] != UNDERGRADUATE || this.yearLevels[row] != ((UndergraduateStudent) stud).getYearLevel())
+                return false;
+        }
+        else {
+            return false;
+        }
+
+        List<Course> taken = stud.getCourses();
+        int first = this.courseOffsets[row];
+
+        if(this.courseOffsets[row + 1] - first != taken.size())
+            return false;
+
+        for(int i = 0; i < taken.size(); i++) {
+            if(!this.courseTable.get(this.courseIds[first + i]).isEqual(taken.get(i)))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines whether a student with the same contents is stored,
+     * like {@link #contains(Object)}.
+     *
+     * @param obj the student to check for
+     * @return true if a student with the same contents is stored; false otherwise
+     */
+    @Override
+    protected boolean containsKey(Searchable obj) {
+        return indexOf(obj) >= 0;
+    }
+
+    /**
+     * Always throws, since the list keeps no student objects to index by key;
+     * every method that would use the key index compares contents instead.
+     *
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    protected HashMap<Object, Integer> keyIndex() {
+        throw new UnsupportedOperationException("A columnar student list has no key index");
+    }
+
+    /**
+     * Returns the name of the student at the given position, read from the name pool.
+     *
+     * @param pos the position of the student
+     * @return the name of the student
+     */
+    @Override
+    protected String searchTextAt(int pos) {
+        return nameAt(pos);
+    }
+
+    /**
+     * Returns the name of the student at the given position, read from the name pool.
+     *
+     * @param pos the position of the student
+     * @return the name of the student
+     */
+    @Override
+    protected String lookupKeyAt(int pos) {
+        return nameAt(pos);
+    }
+
+    /**
+     * Returns the catalog this list keeps its courses in.
+     *
+     * @return the course catalog
+     */
+    public CourseList getCatalog() {
+        return this.catalog;
+    }
+
+    /**
+     * Decodes the name of the student at the given position.
+     *
+     * @param pos the position of the student
+     * @return the name of the student
+     */
+    private String nameAt(int pos) {
+        int start = this.nameOffsets[pos];
+
+        return new String(this.namePool, start, this.nameOffsets[pos + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the dictionary id of a thesis topic, adding it if it is new.
+     *
+     * @param topic the thesis topic, possibly null
+     * @return the id of the topic, or {@code NO_TOPIC} for null
+     */
+    private int topicId(String topic) {
+        if(topic == null)
+            return NO_TOPIC;
+
+        Integer id = this.topicIndex.get(topic);
+
+        if(id == null) {
+            id = this.topics.size();
+            this.topics.add(topic);
+            this.topicIndex.put(topic, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Returns the course id of a course, interning it into the catalog and
+     * adding the catalog's course object to the course table if needed.
+     *
+     * @param c the course
+     * @return the id of the equal catalog course
+     */
+    private int courseId(Course c) {
+        Course shared = this.catalog.intern(c);
+        Integer id = this.courseTableIds.get(shared);
+
+        if(id == null) {
+            id = this.courseTable.size();
+            this.courseTable.add(shared);
+            this.courseTableIds.put(shared, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Grows the per-student columns according to the growth policy.
+     */
+    private void growRows() {
+        int capacity = grownCapacity(this.types.length);
+
+        this.nameOffsets = Arrays.copyOf(this.nameOffsets, capacity + 1);
+        this.types = Arrays.copyOf(this.types, capacity);
+        this.yearLevels = Arrays.copyOf(this.yearLevels, capacity);
+        this.topicIds = Arrays.copyOf(this.topicIds, capacity);
+        this.courseOffsets = Arrays.copyOf(this.courseOffsets, capacity + 1);
+    }
+
+}
@@ -0,0 +1,236 @@
+import java.util.Spliterator;
+
+/**
+ * A {@link CourseList} that many threads can read and add to at the same time.
+ *
+ * <p>Reads never block: {@link #get(int)}, {@link #size()}, {@link #query(String)},
+ * {@link #findMatch(String)} and {@link #contains(Object)} work on the courses
+ * published when they start, without locking. Adds and {@link #intern(Course)} are
+ * serialized by a single writer lock. Every operation is linearizable: an added
+ * course becomes visible to all threads at one instant, after which every read
+ * sees it, and of several threads interning equal courses concurrently exactly one
+ * stores its course and all of them get that same instance back.</p>
+ *
+ * <p>The list is append-only, and queries scan the list since the trigram index
+ * cannot be shared with concurrent readers. See {@link ConcurrentListStore}.</p>
+ */
+public class ConcurrentCourseList extends CourseList {
+
+    /** The published courses and their indexes */
+    private final ConcurrentListStore<Course> store;
+
+
+    /**
+     * Constructs an empty list.
+     */
+    public ConcurrentCourseList() {
+        this(10);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    public ConcurrentCourseList(int capacity) {
+        super(0);
+        this.store = new ConcurrentListStore<>(this, capacity);
+    }
+
+    /**
+     * Adds the course unless one with the same key is already in the list.
+     * Concurrent adds of courses with equal keys store exactly one of them.
+     *
+     * @param obj the course to add
+     * @throws IllegalArgumentException if the course is null
+     */
+    @Override
+    public void add(Course obj) {
+        if(obj == null)
+            throw new IllegalArgumentException("Element must not be null");
+
+        this.store.addIfAbsent(obj);
+    }
+
+    /**
+     * Returns the stored course equal to the given one, storing the given course if there is none.
+     * Concurrent calls with equal courses all return the same instance.
+     *
+     * @param c the course to intern
+     * @return the course stored in the list that is equal to {@code c}
+     */
+    @Override
+    public Course intern(Course c) {
+        return this.store.addIfAbsent(c);
+    }
+
+    /**
+     * Returns a new empty concurrent list.
+     *
+     * @return a new empty ConcurrentCourseList
+     */
+    @Override
+    public CourseList emptyList() {
+        return new ConcurrentCourseList();
+    }
+
+    /**
+     * Appends the course without checking for duplicates.
+     *
+     * @param obj the course to append
+     */
+    @Override
+    protected void append(Course obj) {
+        this.store.append(obj);
+    }
+
+    /**
+     * Retrieves the course at the specified index without locking.
+     *
+     * @param index the index of the course
+     * @return the course at the specified position
+     * @throws IndexOutOfBoundsException if the index is not below the current size
+     */
+    @Override
+    public Course get(int index) {
+        return this.store.get(index);
+    }
+
+    /**
+     * Returns the number of courses added so far, without locking.
+     *
+     * @return the size of the list
+     */
+    @Override
+    public int size() {
+        return this.store.size();
+    }
+
+    /**
+     * Returns the size of the list, which only changes when a course is added.
+     *
+     * @return the modification count
+     */
+    @Override
+    public int getModCount() {
+        return this.store.size();
+    }
+
+    /**
+     * Returns the position of the course with the same key as the given object.
+     *
+     * @param obj the searchable object whose key to look up
+     * @return the position of the matching course, or -1 if there is none
+     */
+    @Override
+    public int indexOf(Object obj) {
+        if(!(obj instanceof Searchable)) return -1;
+
+        return this.store.indexOf(((Searchable) obj).getKey());
+    }
+
+    /**
+     * Returns a spliterator over the courses added when it is called, without locking.
+     * Unlike the spliterator of an ordinary list, it is not affected by later adds.
+     *
+     * @return a sized spliterator over the courses added so far
+     */
+    @Override
+    public Spliterator<Course> spliterator() {
+        return this.store.spliterator();
+    }
+
+    /**
+     * Determines whether a course with the same key as the given object has been added.
+     *
+     * @param obj the object whose key to look up
+     * @return true if a course with an equal key is stored; false otherwise
+     */
+    @Override
+    protected boolean containsKey(Searchable obj) {
+        return this.store.indexOf(obj.getKey()) >= 0;
+    }
+
+    /**
+     * Returns the positions of the courses whose lookup key equals the given key, ignoring case.
+     *
+     * @param key the lookup key
+     * @return the positions of the matching courses, possibly empty
+     */
+    @Override
+    protected PositionList lookupPositions(String key) {
+        return this.store.lookupPositions(key);
+    }
+
+    /**
+     * Returns the positions of the courses within the given range whose search text
+     * contains the given key, ignoring case. Always scans the range.
+     *
+     * @param key the search key
+     * @param from the first position to search
+     * @param to the position just past the last one to search
+     * @return the positions of the matching courses within the range
+     */
+    @Override
+    protected int[] matchPositions(String key, int from, int to) {
+        return this.store.matchPositions(key, from, to);
+    }
+
+    /**
+     * Always throws, since the trigram index cannot be read while it is being updated.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableSearchIndex() {
+        throw new UnsupportedOperationException("A concurrent list cannot be indexed");
+    }
+
+    /**
+     * Always throws, since the cached search forms cannot be read while they are being updated.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableSearchFormCache() {
+        throw new UnsupportedOperationException("A concurrent list cannot cache search forms");
+    }
+
+    /**
+     * Always throws, since courses can only be added.
+     *
+     * @param index the index of the course that would have been replaced
+     * @param obj the course that would have been stored
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Course set(int index, Course obj) {
+        throw new UnsupportedOperationException("A concurrent list is append-only");
+    }
+
+    /**
+     * Always throws, since courses can only be added.
+     *
+     * @param index the index of the course that would have been removed
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Course remove(int index) {
+        throw new UnsupportedOperationException("A concurrent list is append-only");
+    }
+
+    /**
+     * Always throws, since courses can only be added.
+     *
+     * @param obj the course that would have been removed
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean remove(Object obj) {
+        throw new UnsupportedOperationException("A concurrent list is append-only");
+    }
+
+}
@@ -0,0 +1,252 @@
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The storage shared by {@link ConcurrentStudentList} and {@link ConcurrentCourseList}:
+ * an append-only array published to readers through immutable snapshots.
+ *
+ * <p>Writers are serialized by a single lock. A writer stores the new element in
+ * a slot past the published size, growing the array by copying it if needed,
+ * updates the key and lookup indexes, and then publishes a new snapshot through
+ * a volatile write. Readers take the current snapshot without locking and only
+ * look at the elements below its size, which are never written again. An element
+ * therefore becomes visible to every thread at once, at the moment its snapshot
+ * is published; this is the linearization point of an add.</p>
+ *
+ * <p>The indexes are concurrent maps that may briefly hold positions that are not
+ * published yet. Readers ignore positions at or past the size of the snapshot they
+ * took, so they never see an element before it is published.</p>
+ *
+ * @param <T> the type of the elements
+ */
+class ConcurrentListStore<T extends Searchable> {
+
+    /**
+     * An immutable view of the published elements.
+     */
+    private static final class Snapshot {
+
+        /** The array holding the elements; only the first {@code size} are published */
+        final Searchable[] elements;
+
+        /** The number of published elements */
+        final int size;
+
+        /**
+         * Constructs a snapshot.
+         *
+         * @param elements the array holding the elements
+         * @param size the number of published elements
+         */
+        Snapshot(Searchable[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+    }
+
+
+    /** The list whose keys, lookup keys, search texts and growth policy are used */
+    private final BaseList<T> owner;
+
+    /** Serializes the writers */
+    private final Object writeLock = new Object();
+
+    /** The currently published elements */
+    private volatile Snapshot snapshot;
+
+    /** Maps the key of every element to its position */
+    private final ConcurrentHashMap<Object, Integer> keys;
+
+    /** Maps the case-folded lookup key of the elements to their positions, in increasing order */
+    private final ConcurrentHashMap<String, PositionList> lookup;
+
+
+    /**
+     * Constructs an empty store for the given list.
+     *
+     * @param owner the list using this store
+     * @param capacity the initial capacity
+     */
+    ConcurrentListStore(BaseList<T> owner, int capacity) {
+        this.owner = owner;
+        this.snapshot = new Snapshot(new Searchable[Math.max(capacity, 1)], 0);
+        this.keys = new ConcurrentHashMap<>();
+        this.lookup = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds an element unless one with the same key is published or being added.
+     * Of several threads adding elements with equal keys at the same time, exactly one succeeds.
+     *
+     * @param obj the element to add
+     * @return the element stored with that key: either {@code obj} or the one stored before
+     */
+    T addIfAbsent(T obj) {
+        synchronized(this.writeLock) {
+            Snapshot current = this.snapshot;
+            Object key = obj.getKey();
+
+            // under the lock every indexed position is published
+            Integer pos = this.keys.get(key);
+            if(pos != null)
+                return element(current, pos);
+
+            publish(current, obj);
+
+            return obj;
+        }
+    }
+
+    /**
+     * Appends an element without checking for duplicates.
+     *
+     * @param obj the element to append
+     */
+    void append(T obj) {
+        synchronized(this.writeLock) {
+            publish(this.snapshot, obj);
+        }
+    }
+
+    /**
+     * Stores an element after the published ones and publishes it. Must hold the write lock.
+     *
+     * @param current the current snapshot
+     * @param obj the element to store
+     */
+    private void publish(Snapshot current, T obj) {
+        Searchable[] elements = current.elements;
+        int pos = current.size;
+
+        // readers of older snapshots keep the old array
+        if(pos == elements.length)
+            elements = Arrays.copyOf(elements, this.owner.grownCapacity(elements.length));
+
+        elements[pos] = obj;
+
+        this.keys.putIfAbsent(obj.getKey(), pos);
+        this.lookup.compute(BaseList.foldCase(this.owner.lookupKey(obj)), (key, positions) -> positions == null ? PositionList.of(pos) : positions.append(pos));
+
+        // the linearization point
+        this.snapshot = new Snapshot(elements, pos + 1);
+    }
+
+    /**
+     * Retrieves a published element.
+     *
+     * @param index the index of the element
+     * @return the element at that position
+     * @throws IndexOutOfBoundsException if the index is not below the published size
+     */
+    T get(int index) {
+        Snapshot current = this.snapshot;
+
+        if(index < 0 || index >= current.size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + current.size);
+
+        return element(current, index);
+    }
+
+    /**
+     * Returns a spliterator over the elements published when it is called. Since
+     * those elements are never written again, it needs no locking and never fails,
+     * however many elements are added while it is used.
+     *
+     * @return a sized spliterator over the current snapshot
+     */
+    Spliterator<T> spliterator() {
+        Snapshot current = this.snapshot;
+
+        return Spliterators.spliterator(current.elements, 0, current.size,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Returns the number of published elements.
+     *
+     * @return the published size
+     */
+    int size() {
+        return this.snapshot.size;
+    }
+
+    /**
+     * Returns the position of the published element with the given key.
+     *
+     * @param key the key to look up
+     * @return the position of the element, or -1 if none is published
+     */
+    int indexOf(Object key) {
+        int size = this.snapshot.size;
+        Integer pos = this.keys.get(key);
+
+        return pos == null || pos >= size ? -1 : pos;
+    }
+
+    /**
+     * Returns the positions, in increasing order, of the published elements whose
+     * lookup key equals the given key, ignoring case. The positions are a read-only
+     * view of the elements published when it is called.
+     *
+     * @param key the lookup key
+     * @return the positions of the matching elements, possibly empty
+     */
+    PositionList lookupPositions(String key) {
+        int size = this.snapshot.size;
+        PositionList positions = this.lookup.get(BaseList.foldCase(key));
+
+        if(positions == null)
+            return PositionList.EMPTY;
+
+        // positions indexed but not published yet are at the end
+        positions = positions.below(size);
+
+        RowCounter.add(positions.size());
+
+        return positions;
+    }
+
+    /**
+     * Returns the positions, in increasing order, of the published elements within
+     * the given range whose search text contains the given key, ignoring case.
+     *
+     * @param key the search key
+     * @param from the first position to search
+     * @param to the position just past the last one to search
+     * @return the positions of the matching elements within the range
+     */
+    int[] matchPositions(String key, int from, int to) {
+        key = key.toLowerCase();
+
+        Snapshot current = this.snapshot;
+        to = Math.min(to, current.size);
+
+        int[] matches = new int[Math.max(to - from, 0)];
+        int count = 0;
+
+        RowCounter.add(matches.length);
+
+        for(int i = from; i < to; i++) {
+            if(this.owner.searchText(element(current, i)).toLowerCase().contains(key))
+                matches[count++] = i;
+        }
+
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Returns an element of a snapshot.
+     *
+     * @param current the snapshot
+     * @param pos the position of the element
+     * @return the element at that position
+     */
+    @SuppressWarnings("unchecked")
+    private T element(Snapshot current, int pos) {
+        // only the owner's elements are ever stored
+        return (T) current.elements[pos];
+    }
+
+}
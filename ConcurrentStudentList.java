@@ -0,0 +1,275 @@
+import java.util.Arrays;
+import java.util.Spliterator;
+
+/**
+ * A {@link StudentList} that many threads can read and add to at the same time.
+ *
+ * <p>Reads never block: {@link #get(int)}, {@link #size()}, {@link #query(String)},
+ * {@link #findMatch(String)} and {@link #contains(Object)} work on the students
+ * published when they start, without locking. Adds are serialized by a single
+ * writer lock. Every operation is linearizable: an added student becomes visible
+ * to all threads at one instant, after which every read sees it, and of several
+ * threads adding the same student concurrently exactly one stores it.</p>
+ *
+ * <p>The list is append-only, and queries scan the list since the trigram index
+ * cannot be shared with concurrent readers. The students themselves are not
+ * synchronized and should not be modified once added. See {@link ConcurrentListStore}.</p>
+ */
+public class ConcurrentStudentList extends StudentList {
+
+    /** The published students and their indexes */
+    private final ConcurrentListStore<Student> store;
+
+
+    /**
+     * Constructs an empty list.
+     */
+    public ConcurrentStudentList() {
+        this(10);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     *
+     * @param capacity the initial capacity
+     */
+    public ConcurrentStudentList(int capacity) {
+        super(0);
+        this.store = new ConcurrentListStore<>(this, capacity);
+    }
+
+    /**
+     * Adds the student unless one with the same key is already in the list.
+     * Concurrent adds of students with equal keys store exactly one of them.
+     *
+     * @param obj the student to add
+     * @throws IllegalArgumentException if the student is null
+     */
+    @Override
+    public void add(Student obj) {
+        if(obj == null)
+            throw new IllegalArgumentException("Element must not be null");
+
+        this.store.addIfAbsent(obj);
+    }
+
+    /**
+     * Returns a new empty concurrent list.
+     *
+     * @param courses the catalog of the courses of the new list, unused
+     * @return a new empty ConcurrentStudentList
+     */
+    @Override
+    public StudentList emptyList(CourseList courses) {
+        return new ConcurrentStudentList();
+    }
+
+    /**
+     * Appends the student without checking for duplicates.
+     *
+     * @param obj the student to append
+     */
+    @Override
+    protected void append(Student obj) {
+        this.store.append(obj);
+    }
+
+    /**
+     * Retrieves the student at the specified index without locking.
+     *
+     * @param index the index of the student
+     * @return the student at the specified position
+     * @throws IndexOutOfBoundsException if the index is not below the current size
+     */
+    @Override
+    public Student get(int index) {
+        return this.store.get(index);
+    }
+
+    /**
+     * Returns the number of students added so far, without locking.
+     *
+     * @return the size of the list
+     */
+    @Override
+    public int size() {
+        return this.store.size();
+    }
+
+    /**
+     * Returns the size of the list, which only changes when a student is added.
+     *
+     * @return the modification count
+     */
+    @Override
+    public int getModCount() {
+        return this.store.size();
+    }
+
+    /**
+     * Returns the position of the student with the same key as the given object.
+     *
+     * @param obj the searchable object whose key to look up
+     * @return the position of the matching student, or -1 if there is none
+     */
+    @Override
+    public int indexOf(Object obj) {
+        if(!(obj instanceof Searchable)) return -1;
+
+        return this.store.indexOf(((Searchable) obj).getKey());
+    }
+
+    /**
+     * Returns a spliterator over the students added when it is called, without locking.
+     * Unlike the spliterator of an ordinary list, it is not affected by later adds.
+     *
+     * @return a sized spliterator over the students added so far
+     */
+    @Override
+    public Spliterator<Student> spliterator() {
+        return this.store.spliterator();
+    }
+
+    /**
+     * Determines whether a student with the same key as the given object has been added.
+     *
+     * @param obj the object whose key to look up
+     * @return true if a student with an equal key is stored; false otherwise
+     */
+    @Override
+    protected boolean containsKey(Searchable obj) {
+        return this.store.indexOf(obj.getKey()) >= 0;
+    }
+
+    /**
+     * Returns the positions of the students whose lookup key equals the given key, ignoring case.
+     *
+     * @param key the lookup key
+     * @return the positions of the matching students, possibly empty
+     */
+    @Override
+    protected PositionList lookupPositions(String key) {
+        return this.store.lookupPositions(key);
+    }
+
+    /**
+     * Returns the positions of the students within the given range whose search text
+     * contains the given key, ignoring case. Always scans the range.
+     *
+     * @param key the search key
+     * @param from the first position to search
+     * @param to the position just past the last one to search
+     * @return the positions of the matching students within the range
+     */
+    @Override
+    protected int[] matchPositions(String key, int from, int to) {
+        return this.store.matchPositions(key, from, to);
+    }
+
+    /**
+     * Returns the students sorted by the given key, sorting them again if students
+     * were added since the last call. Synchronized so that concurrent callers
+     * share the cached index.
+     *
+     * @param key the key to sort by
+     * @return an index of the students sorted by that key
+     */
+    @Override
+    public synchronized SortedStudentIndex sortedBy(SortedStudentIndex.Key key) {
+        return super.sortedBy(key);
+    }
+
+    /**
+     * Returns the cached index sorted by the given key if it is current,
+     * synchronized like {@link #sortedBy(SortedStudentIndex.Key)}.
+     *
+     * @param key the sort key
+     * @return the index, or null if none is cached or it is outdated
+     */
+    @Override
+    protected synchronized SortedStudentIndex cachedSortedIndex(SortedStudentIndex.Key key) {
+        return super.cachedSortedIndex(key);
+    }
+
+    /**
+     * Returns the positions of the students enrolled in the given course.
+     * Always scans the students, since the roster index cannot be read while
+     * it is being updated.
+     *
+     * @param c the course
+     * @return the positions of the enrolled students, in increasing order
+     */
+    @Override
+    protected int[] rosterPositions(Course c) {
+        int size = this.store.size();
+        int[] found = new int[size];
+        int count = 0;
+
+        for(int i = 0; i < size; i++) {
+            if(isEnrolled(get(i), c))
+                found[count++] = i;
+        }
+
+        RowCounter.add(size);
+
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Always throws, since the trigram index cannot be read while it is being updated.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableSearchIndex() {
+        throw new UnsupportedOperationException("A concurrent list cannot be indexed");
+    }
+
+    /**
+     * Always throws, since the cached search forms cannot be read while they are being updated.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableSearchFormCache() {
+        throw new UnsupportedOperationException("A concurrent list cannot cache search forms");
+    }
+
+    /**
+     * Always throws, since students can only be added.
+     *
+     * @param index the index of the student that would have been replaced
+     * @param obj the student that would have been stored
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Student set(int index, Student obj) {
+        throw new UnsupportedOperationException("A concurrent list is append-only");
+    }
+
+    /**
+     * Always throws, since students can only be added.
+     *
+     * @param index the index of the student that would have been removed
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Student remove(int index) {
+        throw new UnsupportedOperationException("A concurrent list is append-only");
+    }
+
+    /**
+     * Always throws, since students can only be added.
+     *
+     * @param obj the student that would have been removed
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean remove(Object obj) {
+        throw new UnsupportedOperationException("A concurrent list is append-only");
+    }
+
+}
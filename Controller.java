@@ -1,177 +1,748 @@
-import java.util.Scanner;
-import java.io.File;
-import java.io.FileNotFoundException;
-
-/**
- * The {@code Controller} class acts as the central coordinator
- * for managing lists of students and courses. It provides methods
- * to load data from a file, query students and courses, and convert
- * the lists into formats suitable for display in UI tables.
- * 
- * <p>This class maintains internal {@link StudentList} and {@link CourseList}
- * objects that hold all student and course data respectively.</p>
- */
-public class Controller {
-
-    /** List of all students managed by this controller */
-    private StudentList students;
-    
-    /** List of all courses managed by this controller */
-    private CourseList courses;
-
-
-    /**
-     * Constructs a Controller with empty student and course lists.
-     */
-    public Controller() {
-        // instantiate empty lists for students and courses
-        this.students = new StudentList();
-        this.courses = new CourseList();
-    }
-    
-    /**
-     * Retrieves all student data as a 2D array of Strings
-     * formatted for UI display.
-     * 
-     * @return a 2D String array representing all students' data
-     */
-    public String[][] getStudentListData() {
-        // convert the student list into a 2D String array
-        return Utility.studentListToArray( this.students );
-    }
-    
-    /**
-     * Retrieves student data filtered by the given key
-     * as a 2D array of Strings formatted for UI display.
-     * Only students matching the query key are included.
-     * 
-     * @param key the search query string to filter students
-     * @return a 2D String array of filtered student data
-     */
-    public String[][] getStudentListData(String key) {
-        // convert a filtered student list into a 2D String array
-        // the student list will contain all those that matches
-        // the given query key
-        return Utility.studentListToArray( this.students.query(key) );
-    }
-    
-    /**
-     * Retrieves all course data as a 2D array of Strings
-     * formatted for UI display.
-     * 
-     * @return a 2D String array representing all courses' data
-     */
-    public String[][] getCourseListData() {
-        // convert the course list into a 2D String array
-        return Utility.courseListToArray( this.courses );
-    }
-    
-    /**
-     * Retrieves the course data of a specific student
-     * as a 2D array of Strings formatted for UI display.
-     * 
-     * @param student the student whose courses to retrieve
-     * @return a 2D String array of the student's course data
-     */
-    public String[][] getCourseListData(Student student) {
-        // convert a student's course list into a 2D String array
-        return Utility.courseListToArray( student.getCourseList() );
-    }
-    
-    /**
-     * Finds and returns the first {@link Student} object
-     * that matches the provided key query.
-     * 
-     * @param key the search key to find the student
-     * @return the first matching Student, or null if none found
-     */
-    public Student getStudent(String key) {
-        return students.findMatch(key);
-    }
-    
-    /**
-     * Finds and returns the first {@link Course} object
-     * that matches the provided key query.
-     * 
-     * @param key the search key to find the course
-     * @return the first matching Course, or null if none found
-     */
-    public Course getCourse(String key) {
-        return courses.findMatch(key);
-    }
-    
-    /**
-     * Loads student and course data from a file with the specified filename.
-     * The file format must follow the expected structure with student and
-     * course information. Students can be either Graduate or Undergraduate.
-     * 
-     * @param filename the path to the data file
-     * @throws FileNotFoundException if the specified file does not exist
-     */
-    public void loadData(String filename) throws FileNotFoundException {       
-        Scanner input = new Scanner( new File(filename) );   // from file
-        
-        int T = input.nextInt();
-        input.nextLine();
-        
-        for(int i = 0; i < T; i++) {
-            String name = input.nextLine();
-            
-            // read the student type
-            String type = input.next();
-            
-            Student stud;
-            
-            // check what type of student
-            if( type.equals("Graduate") ) {                
-                // get the thesis topic
-                String topic = input.nextLine().trim();
-                
-                // create a graduate student object
-                GraduateStudent gs = new GraduateStudent(name);
-                
-                // set the thesis topic
-                gs.setThesisTopic(topic);
-                
-                stud = gs;
-            }
-            else {
-                // get the year level
-                int yearLevel = input.nextInt();
-
-                // create an undergraduate student object
-                UndergraduateStudent ugs = new UndergraduateStudent(name);
-                
-                // set the year level
-                ugs.setYearLevel( yearLevel );
-                
-                stud = ugs;
-            }
-            
-            int C = input.nextInt();
-            input.nextLine();
-            
-            for(int j = 0; j < C; j++) {
-                String code = input.next();
-                int credit = input.nextInt();
-                String title = input.nextLine().trim();
-                
-                // create a course object
-                Course cTemp = new Course(code, title, credit);
-                
-                // no need for an if and else statement
-                stud.addCourse( cTemp );
-                
-                // add this to the list of courses
-                this.courses.add(cTemp);
-            }
-            
-            // add this student
-            students.add( stud );
-        }
-        
-        // close the file
-        input.close();
-    }
-    
-}
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The {@code Controller} class acts as the central coordinator
+ * for managing lists of students and courses. It provides methods
+ * to load data from a file, query students and courses, and convert
+ * the lists into formats suitable for display in UI tables.
+ * 
+ * <p>This class maintains internal {@link StudentList} and {@link CourseList}
+ * objects that hold all student and course data respectively.</p>
+ * 
+ * <p>The two lists are held together in a single immutable holder, so that
+ * {@link #reloadData(String, String)} can replace both at once with lists
+ * built in the background. A caller that needs the students and courses
+ * of the same data set should fetch the lists once and keep using them.</p>
+ */
+public class Controller {
+
+    /**
+     * The lists of one version of the data, swapped as a whole on reload.
+     */
+    private static class DataSet {
+        
+        /** List of all students */
+        final StudentList students;
+        
+        /** List of all courses */
+        final CourseList courses;
+        
+        /** The length of the change log applied to the lists so far */
+        long changeLogOffset;
+        
+        /**
+         * Constructs a data set of the given lists.
+         * 
+         * @param students the list of students
+         * @param courses the list of courses
+         */
+        DataSet(StudentList students, CourseList courses) {
+            this.students = students;
+            this.courses = courses;
+        }
+    }
+    
+    
+    /** The data currently managed by this controller */
+    private volatile DataSet data;
+    
+    /** The listeners told about every reload */
+    private CopyOnWriteArrayList<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    
+    /** The metrics recorded for the operations, or null while metrics are disabled */
+    private volatile ControllerMetrics metrics;
+
+
+    /**
+     * Constructs a Controller with empty student and course lists.
+     */
+    public Controller() {
+        // instantiate empty lists for students and courses
+        this.data = new DataSet(new StudentList(), new CourseList());
+    }
+    
+    /**
+     * Constructs a Controller managing the given lists, which may be empty or
+     * already filled. Pass a {@link ColumnarStudentList} that keeps its courses
+     * in the given course list to hold large data sets in much less memory.
+     * 
+     * <p>A columnar list hands out a new copy of a student on every read, so the
+     * students it returns are not the stored ones: changing them does not change
+     * the list until they are stored back with {@code set}, and {@code contains}
+     * and {@code indexOf} compare the contents of students rather than their
+     * identity. Columnar lists do not support removing students.</p>
+     *
+     * @param students the list of students to manage
+     * @param courses the list of courses to manage
+     */
+    public Controller(StudentList students, CourseList courses) {
+        this.data = new DataSet(students, courses);
+    }
+    
+    /**
+     * Enables the trigram search index of the student and course lists,
+     * which speeds up queries on large lists at the cost of extra memory.
+     * Data loaded before or after this call is indexed alike.
+     */
+    public void enableSearchIndex() {
+        DataSet d = this.data;
+        
+        d.students.enableSearchIndex();
+        d.courses.enableSearchIndex();
+    }
+    
+    /**
+     * Stores the lowercased names and titles of the student and course lists once,
+     * so that queries do not lowercase them again on every search, at the cost of
+     * extra memory. Data loaded before or after this call is cached alike.
+     */
+    public void enableSearchFormCache() {
+        DataSet d = this.data;
+        
+        d.students.enableSearchFormCache();
+        d.courses.enableSearchFormCache();
+    }
+    
+    /**
+     * Starts measuring the operations of this controller, if not done yet.
+     * 
+     * @return the metrics being recorded
+     * @see ControllerMetrics
+     */
+    public synchronized ControllerMetrics enableMetrics() {
+        if(this.metrics == null)
+            this.metrics = new ControllerMetrics();
+        
+        return this.metrics;
+    }
+    
+    /**
+     * Stops measuring the operations of this controller. The metrics recorded so
+     * far are kept by whoever holds them but are no longer updated.
+     */
+    public synchronized void disableMetrics() {
+        this.metrics = null;
+    }
+    
+    /**
+     * Returns the metrics being recorded.
+     * 
+     * @return the metrics, or null while metrics are disabled
+     */
+    public ControllerMetrics getMetrics() {
+        return this.metrics;
+    }
+    
+    /**
+     * Retrieves all student data as a 2D array of Strings
+     * formatted for UI display.
+     * 
+     * @return a 2D String array representing all students' data
+     */
+    public String[][] getStudentListData() {
+        ControllerMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        
+        // convert the student list into a 2D String array
+        StudentList students = this.data.students;
+        String[][] result = Utility.studentListToArray( students );
+        
+        if(m != null)
+            m.record(ControllerMetrics.Operation.GET_STUDENT_LIST_DATA, System.nanoTime() - start, result.length);
+        
+        return result;
+    }
+    
+    /**
+     * Retrieves student data filtered by the given key
+     * as a 2D array of Strings formatted for UI display.
+     * Only students matching the query key are included.
+     * 
+     * @param key the search query string to filter students
+     * @return a 2D String array of filtered student data
+     */
+    public String[][] getStudentListData(String key) {
+        // convert a filtered student list into a 2D String array
+        // the student list will contain all those that matches
+        // the given query key
+        ControllerMetrics m = this.metrics;
+        
+        if(m == null)
+            return Utility.studentListToArray( this.data.students.query(key) );
+        
+        // count only the rows this call scans, not those of other threads
+        long start = System.nanoTime();
+        RowCounter counter = RowCounter.start();
+        String[][] result;
+        long rows;
+        
+        try {
+            result = Utility.studentListToArray( this.data.students.query(key) );
+        }
+        finally {
+            rows = counter.stop();
+        }
+        
+        m.record(ControllerMetrics.Operation.GET_STUDENT_LIST_DATA, System.nanoTime() - start, rows);
+        
+        return result;
+    }
+    
+    /**
+     * Computes aggregate figures over all students, such as the tuition due by
+     * status and the enrollment of every course, in parallel and without
+     * formatting any rows for display.
+     * 
+     * @return the report over the current students
+     * @see StudentReport
+     */
+    public StudentReport getReport() {
+        return StudentReport.compute( this.data.students );
+    }
+    
+    /**
+     * Returns the list of all students, for views that display
+     * it directly rather than as a 2D array of Strings.
+     * 
+     * @return the list of all students
+     */
+    public StudentList getStudentList() {
+        return this.data.students;
+    }
+    
+    /**
+     * Returns a new list of the students matching the given key.
+     * 
+     * @param key the search query string to filter students
+     * @return a StudentList of the matching students
+     */
+    public StudentList getStudentList(String key) {
+        return this.data.students.query(key);
+    }
+    
+    /**
+     * Returns the list of all courses, for callers that work
+     * with it directly rather than as a 2D array of Strings.
+     * 
+     * @return the list of all courses
+     */
+    public CourseList getCourseList() {
+        return this.data.courses;
+    }
+    
+    /**
+     * Retrieves all course data as a 2D array of Strings
+     * formatted for UI display.
+     * 
+     * @return a 2D String array representing all courses' data
+     */
+    public String[][] getCourseListData() {
+        ControllerMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        
+        // convert the course list into a 2D String array
+        String[][] result = Utility.courseListToArray( this.data.courses );
+        
+        if(m != null)
+            m.record(ControllerMetrics.Operation.GET_COURSE_LIST_DATA, System.nanoTime() - start, result.length);
+        
+        return result;
+    }
+    
+    /**
+     * Retrieves the course data of a specific student
+     * as a 2D array of Strings formatted for UI display.
+     * 
+     * @param student the student whose courses to retrieve
+     * @return a 2D String array of the student's course data
+     */
+    public String[][] getCourseListData(Student student) {
+        ControllerMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        
+        // convert a student's course list into a 2D String array
+        String[][] result = Utility.courseListToArray( student.getCourseList() );
+        
+        if(m != null)
+            m.record(ControllerMetrics.Operation.GET_COURSE_LIST_DATA, System.nanoTime() - start, result.length);
+        
+        return result;
+    }
+    
+    /**
+     * Finds and returns the first {@link Student} object
+     * that matches the provided key query.
+     * 
+     * @param key the search key to find the student
+     * @return the first matching Student, or null if none found
+     */
+    public Student getStudent(String key) {
+        ControllerMetrics m = this.metrics;
+        
+        if(m == null)
+            return this.data.students.findMatch(key);
+        
+        long start = System.nanoTime();
+        RowCounter counter = RowCounter.start();
+        Student result;
+        long rows;
+        
+        try {
+            result = this.data.students.findMatch(key);
+        }
+        finally {
+            rows = counter.stop();
+        }
+        
+        m.record(ControllerMetrics.Operation.GET_STUDENT, System.nanoTime() - start, rows);
+        
+        return result;
+    }
+    
+    /**
+     * Finds and returns all {@link Student} objects whose name
+     * equals the provided key, ignoring case, in the order they were loaded.
+     * 
+     * @param key the name of the students to find
+     * @return a StudentList of all matching students, empty if none found
+     */
+    public StudentList getStudents(String key) {
+        return this.data.students.findAllMatches(key);
+    }
+    
+    /**
+     * Returns all students sorted by name, total credit hours or tuition due,
+     * for top-K, range and paged queries such as the 100 students with the
+     * highest tuition due. The order is computed in parallel and cached until
+     * the students, or the credit hours of a course they take, change.
+     * 
+     * @param key the key to sort by
+     * @return the students sorted by that key
+     * @see SortedStudentIndex
+     */
+    public SortedStudentIndex getSortedStudents(SortedStudentIndex.Key key) {
+        return this.data.students.sortedBy(key);
+    }
+    
+    /**
+     * Returns the students enrolled in the given course, in the order they
+     * were loaded. Uses a course-to-students index, so this takes time in
+     * proportion to the size of the roster rather than to the number of enrollments.
+     * 
+     * @param course the course, or a copy of it
+     * @return a StudentList of the enrolled students, empty if there are none
+     */
+    public StudentList getCourseRoster(Course course) {
+        return this.data.students.roster(course);
+    }
+    
+    /**
+     * Retrieves the students enrolled in the given course as a 2D array
+     * of Strings formatted for UI display.
+     * 
+     * @param course the course whose roster to retrieve
+     * @return a 2D String array of the enrolled students' data
+     */
+    public String[][] getCourseRosterData(Course course) {
+        return Utility.studentListToArray( getCourseRoster(course) );
+    }
+    
+    /**
+     * Finds and returns the first {@link Course} object
+     * that matches the provided key query.
+     * 
+     * @param key the search key to find the course
+     * @return the first matching Course, or null if none found
+     */
+    public Course getCourse(String key) {
+        ControllerMetrics m = this.metrics;
+        
+        if(m == null)
+            return this.data.courses.findMatch(key);
+        
+        long start = System.nanoTime();
+        RowCounter counter = RowCounter.start();
+        Course result;
+        long rows;
+        
+        try {
+            result = this.data.courses.findMatch(key);
+        }
+        finally {
+            rows = counter.stop();
+        }
+        
+        m.record(ControllerMetrics.Operation.GET_COURSE, System.nanoTime() - start, rows);
+        
+        return result;
+    }
+    
+    /**
+     * Loads student and course data from a file with the specified filename.
+     * The file format must follow the expected structure with student and
+     * course information. Students can be either Graduate or Undergraduate.
+     * 
+     * <p>The file is parsed with a {@link StudentDataReader}, which reports
+     * malformed input with an {@link java.util.InputMismatchException} giving
+     * the line and column of the problem.</p>
+     * 
+     * @param filename the path to the data file
+     * @throws FileNotFoundException if the specified file does not exist
+     */
+    public void loadData(String filename) throws FileNotFoundException {       
+        DataSet d = this.data;
+        ControllerMetrics m = this.metrics;
+        
+        if(m == null) {
+            readData(filename, d.students, d.courses);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        int before = d.students.size();
+        long bytes = readData(filename, d.students, d.courses);
+        long nanos = System.nanoTime() - start;
+        
+        m.recordParse(bytes, nanos);
+        m.record(ControllerMetrics.Operation.LOAD_DATA, nanos, d.students.size() - before);
+    }
+    
+    /**
+     * Reads a data file into the given lists.
+     * 
+     * @param filename the path to the data file
+     * @param students the list receiving the students
+     * @param courses the list receiving the courses
+     * @return the number of bytes parsed
+     * @throws FileNotFoundException if the specified file does not exist
+     */
+    private static long readData(String filename, StudentList students, CourseList courses) throws FileNotFoundException {
+        try( StudentDataReader input = new StudentDataReader(filename) ) {
+            int T = input.nextInt();
+            input.nextLine();
+            
+            for(int i = 0; i < T; i++) {
+                // read the student along with their courses,
+                // which are added to the list of courses
+                Student stud = input.readStudent( courses );
+                
+                // add this student
+                students.add( stud );
+            }
+            
+            return input.getPosition();
+        }
+    }
+    
+    /**
+     * Loads a new version of the data file into new lists and then replaces
+     * the current lists with them in a single step, so readers see either the
+     * old data or the new data but never a mix. The new lists are of the same
+     * kinds as the current ones and get the search index and search form cache
+     * if the current ones have them. Parsing happens on the calling thread, which should not be the
+     * Event Dispatch Thread. Afterwards every reload listener is run on the
+     * calling thread.
+     * 
+     * <p>If a change log is given, its events are applied to the new data before
+     * the swap, as at startup. If loading fails the current data stays in place.</p>
+     * 
+     * @param filename the path to the data file
+     * @param changeLog the path of the change log to apply, or null for none
+     * @throws IOException if the data file or the change log cannot be read
+     * @throws InputMismatchException if the data file or the change log is malformed
+     * @see DataFileWatcher
+     */
+    public void reloadData(String filename, String changeLog) throws IOException {
+        // build the new lists off to the side
+        DataSet next = emptyLike(this.data);
+        
+        readData(filename, next.students, next.courses);
+        
+        if(changeLog != null)
+            applyChanges(next, changeLog, null, 0);
+        
+        synchronized(this) {
+            this.data = next;
+        }
+        
+        for(Runnable listener : this.reloadListeners)
+            listener.run();
+    }
+    
+    /**
+     * Creates an empty data set whose lists are of the same kinds as those of the given
+     * one and have the search index and search form cache enabled if those lists have them.
+     * 
+     * @param current the data set to imitate
+     * @return the new empty data set
+     */
+    private static DataSet emptyLike(DataSet current) {
+        CourseList courses = current.courses.emptyList();
+        DataSet next = new DataSet(current.students.emptyList(courses), courses);
+        
+        if(current.students.isSearchIndexEnabled())
+            next.students.enableSearchIndex();
+        
+        if(current.courses.isSearchIndexEnabled())
+            next.courses.enableSearchIndex();
+        
+        if(current.students.isSearchFormCacheEnabled())
+            next.students.enableSearchFormCache();
+        
+        if(current.courses.isSearchFormCacheEnabled())
+            next.courses.enableSearchFormCache();
+        
+        return next;
+    }
+    
+    /**
+     * Registers a listener to run after every {@link #reloadData(String, String) reload}
+     * and every time {@link #applyChanges(String)} applies new events.
+     * Listeners run on the thread that reloaded; views should pass the work on
+     * to the Event Dispatch Thread.
+     * 
+     * @param listener the listener to add
+     */
+    public void addReloadListener(Runnable listener) {
+        this.reloadListeners.add(listener);
+    }
+    
+    /**
+     * Removes a listener added with {@link #addReloadListener(Runnable)}.
+     * 
+     * @param listener the listener to remove
+     */
+    public void removeReloadListener(Runnable listener) {
+        this.reloadListeners.remove(listener);
+    }
+    
+    /**
+     * Loads student and course data from a file with the specified filename,
+     * parsing the student records on all available cores. The resulting lists
+     * are the same, in content and order, as those built by {@link #loadData(String)}.
+     * 
+     * @param filename the path to the data file
+     * @throws FileNotFoundException if the specified file does not exist
+     * @see ParallelDataLoader
+     */
+    public void loadDataParallel(String filename) throws FileNotFoundException {
+        DataSet d = this.data;
+        
+        new ParallelDataLoader().load(filename, d.students, d.courses);
+    }
+    
+    /**
+     * Saves all student and course data to a binary snapshot file,
+     * which {@link #loadSnapshot(String)} can load far faster than
+     * the text file can be parsed. The snapshot also records how much of
+     * the change log has been applied, which makes it a checkpoint.
+     * 
+     * @param filename the path of the snapshot file to write
+     * @throws IOException if the file cannot be written
+     * @see StudentSnapshot
+     */
+    public void saveSnapshot(String filename) throws IOException {
+        saveSnapshot(this.data, filename);
+    }
+    
+    /**
+     * Saves a data set to a binary snapshot file.
+     * 
+     * @param d the data set to save
+     * @param filename the path of the snapshot file to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void saveSnapshot(DataSet d, String filename) throws IOException {
+        StudentSnapshot.save(filename, d.students, d.courses, d.changeLogOffset);
+    }
+    
+    /**
+     * Loads student and course data from a binary snapshot file
+     * written by {@link #saveSnapshot(String)}, along with the length of the
+     * change log applied to it, so that {@link #applyChanges(String)}
+     * continues from where the snapshot was taken.
+     * 
+     * <p>The snapshot is read into new lists of the same kinds as the current ones,
+     * which then replace the current data. If the snapshot cannot be read, the
+     * current data stays in place unchanged, so the caller can fall back to
+     * {@link #loadData(String)}.</p>
+     * 
+     * @param filename the path of the snapshot file to read
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     * @see StudentSnapshot
+     */
+    public void loadSnapshot(String filename) throws IOException {
+        DataSet next = emptyLike(this.data);
+        
+        next.changeLogOffset = StudentSnapshot.load(filename, next.students, next.courses);
+        
+        synchronized(this) {
+            this.data = next;
+        }
+    }
+    
+    /**
+     * Applies the events added to a change log since the last call. The first call
+     * applies the whole log, unless the data came from a snapshot taken after part of
+     * the log was applied. A log file that does not exist holds no events.
+     * 
+     * <p>Like {@link #reloadData(String, String)}, the events are applied to a copy
+     * of the current lists, which then replaces them in a single step, so readers such
+     * as the table models on the Event Dispatch Thread see the data either before or
+     * after the events but never in between. Afterwards every reload listener is run
+     * on the calling thread. Copying takes time linear in the size of the data, so new
+     * events are best applied in batches; {@link DataFileWatcher} applies them once
+     * the log has stopped growing for a moment. Nothing is copied if no event was added.</p>
+     * 
+     * @param filename the path of the change log
+     * @return the number of events applied
+     * @throws IOException if the log cannot be read, or is shorter than the part already applied
+     * @throws InputMismatchException if an event is malformed; the events before it stay applied
+     * @throws UnsupportedOperationException if an event changes a student of a
+     *         {@link ConcurrentStudentList}; the events before it stay applied
+     * @see ChangeLog
+     */
+    public int applyChanges(String filename) throws IOException {
+        return applyChanges(filename, null, 0);
+    }
+    
+    /**
+     * Applies the events added to a change log since the last call, like
+     * {@link #applyChanges(String)}, and checkpoints the data to a snapshot
+     * every time the given number of events has been applied, so that a restart
+     * only needs to load the snapshot and apply the rest of the log.
+     * 
+     * @param filename the path of the change log
+     * @param snapshot the path of the snapshot to write checkpoints to, or null for none
+     * @param checkpointInterval the number of events between checkpoints, at least 1 if a snapshot is given
+     * @return the number of events applied
+     * @throws IllegalArgumentException if a snapshot is given and the interval is not positive
+     * @throws IOException if the log cannot be read, is shorter than the part already
+     *         applied, or a checkpoint cannot be written
+     * @throws InputMismatchException if an event is malformed; the events before it stay applied
+     * @throws UnsupportedOperationException if an event changes a student of a
+     *         {@link ConcurrentStudentList}; the events before it stay applied
+     */
+    public synchronized int applyChanges(String filename, String snapshot, int checkpointInterval) throws IOException {
+        if(snapshot != null && checkpointInterval <= 0)
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        
+        DataSet current = this.data;
+        
+        // nothing to copy unless the log has grown
+        if(new File(filename).length() <= current.changeLogOffset)
+            return 0;
+        
+        DataSet next = copyOf(current);
+        
+        try {
+            return applyChanges(next, filename, snapshot, checkpointInterval);
+        }
+        finally {
+            // the events before a failing one stay applied
+            if(next.changeLogOffset != current.changeLogOffset) {
+                this.data = next;
+                
+                for(Runnable listener : this.reloadListeners)
+                    listener.run();
+            }
+        }
+    }
+    
+    /**
+     * Creates a data set holding the same students and courses as the given one,
+     * in new lists that can be changed without affecting the given ones.
+     * 
+     * @param current the data set to copy
+     * @return the copy
+     */
+    private static DataSet copyOf(DataSet current) {
+        DataSet next = emptyLike(current);
+        
+        for(int i = 0; i < current.courses.size(); i++)
+            next.courses.add( current.courses.get(i) );
+        
+        for(int i = 0; i < current.students.size(); i++)
+            next.students.add( current.students.get(i) );
+        
+        next.changeLogOffset = current.changeLogOffset;
+        
+        return next;
+    }
+    
+    /**
+     * Applies the events added to a change log since the last call to a data set.
+     * 
+     * @param d the data set to change
+     * @param filename the path of the change log
+     * @param snapshot the path of the snapshot to write checkpoints to, or null for none
+     * @param checkpointInterval the number of events between checkpoints
+     * @return the number of events applied
+     * @throws IOException if the log cannot be read, is shorter than the part already
+     *         applied, or a checkpoint cannot be written
+     * @throws InputMismatchException if an event is malformed; the events before it stay applied
+     * @throws UnsupportedOperationException if an event changes a student of a
+     *         {@link ConcurrentStudentList}; the events before it stay applied
+     */
+    private static int applyChanges(DataSet d, String filename, String snapshot, int checkpointInterval) throws IOException {
+        File log = new File(filename);
+        
+        if(!log.isFile())
+            return 0;
+        
+        try( FileChannel channel = FileChannel.open(log.toPath(), StandardOpenOption.READ) ) {
+            if(channel.size() < d.changeLogOffset)
+                throw new IOException(filename + " is shorter than the part already applied");
+            
+            // stop before a line that is still being written
+            long end = ChangeLog.completeLength(channel, d.changeLogOffset);
+            int applied = 0;
+            
+            try( StudentDataReader input = new StudentDataReader(channel, d.changeLogOffset, end, 1) ) {
+                while(input.getPosition() < end) {
+                    long position = input.getPosition();
+                    boolean event;
+                    
+                    try {
+                        event = ChangeLog.apply(input.nextLine(), d.students, d.courses);
+                    }
+                    catch(NoSuchElementException | IllegalArgumentException e) {
+                        throw new InputMismatchException(String.format("%s at byte %d: %s", filename, position, e.getMessage()));
+                    }
+                    catch(UnsupportedOperationException e) {
+                        throw new UnsupportedOperationException(String.format("%s at byte %d: %s", filename, position, e.getMessage()), e);
+                    }
+                    
+                    d.changeLogOffset = input.getPosition();
+                    
+                    // blank lines are skipped
+                    if(!event) continue;
+                    
+                    applied++;
+                    
+                    if(snapshot != null && applied % checkpointInterval == 0)
+                        saveSnapshot(d, snapshot);
+                }
+            }
+            
+            return applied;
+        }
+    }
+    
+    /**
+     * Returns the length of the change log applied to the lists so far.
+     * 
+     * @return the number of bytes of the change log applied
+     */
+    public long getChangeLogOffset() {
+        return this.data.changeLogOffset;
+    }
+    
+}
@@ -0,0 +1,271 @@
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The {@code ControllerMetrics} class measures the operations of a {@link Controller}:
+ * the latency distribution and call count of every operation, the rows each
+ * operation scanned, and the number of bytes of data parsed per second.
+ *
+ * <p>Metrics are enabled with {@link Controller#enableMetrics()}. While they are
+ * disabled the controller only checks a field for null on each call, so they
+ * cost effectively nothing. The measurements can be read directly, pushed to
+ * {@link MetricsListener}s as they are taken, or published over JMX with
+ * {@link #registerMBeans(String)}. Everything is thread-safe.</p>
+ */
+public class ControllerMetrics implements ControllerMetricsMBean {
+
+    /**
+     * The controller operations that are measured.
+     */
+    public enum Operation {
+        /** {@link Controller#loadData(String)}, scanning one row per student read */
+        LOAD_DATA("loadData"),
+        /** {@link Controller#getStudentListData()} and {@link Controller#getStudentListData(String)} */
+        GET_STUDENT_LIST_DATA("getStudentListData"),
+        /** {@link Controller#getCourseListData()} and {@link Controller#getCourseListData(Student)} */
+        GET_COURSE_LIST_DATA("getCourseListData"),
+        /** {@link Controller#getStudent(String)} */
+        GET_STUDENT("getStudent"),
+        /** {@link Controller#getCourse(String)} */
+        GET_COURSE("getCourse");
+
+        /** The name of the controller method */
+        private final String methodName;
+
+        /**
+         * Constructs an operation.
+         *
+         * @param methodName the name of the controller method
+         */
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+
+        /**
+         * Returns the name of the controller method, which also names its MBean.
+         *
+         * @return the method name
+         */
+        public String getMethodName() {
+            return this.methodName;
+        }
+    }
+
+    /** The JMX domain the MBeans are registered in */
+    public static final String DOMAIN = "StudentInformationSystem";
+
+
+    /** The statistics of every operation */
+    private final EnumMap<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    /** The number of bytes of data files parsed */
+    private final LongAdder bytesParsed = new LongAdder();
+
+    /** The time spent parsing data files, in nanoseconds */
+    private final LongAdder parseNanos = new LongAdder();
+
+    /** The listeners told about every measurement */
+    private final CopyOnWriteArrayList<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+
+    /** The names the MBeans were registered under, or null if they are not registered */
+    private ObjectName[] registered;
+
+
+    /**
+     * Constructs metrics with nothing recorded yet.
+     */
+    public ControllerMetrics() {
+        for(Operation op : Operation.values())
+            this.stats.put(op, new OperationStats());
+    }
+
+    /**
+     * Records one call of an operation and tells the listeners about it.
+     *
+     * @param op the operation
+     * @param nanos the time the call took, in nanoseconds
+     * @param rows the number of rows the call scanned
+     */
+    public void record(Operation op, long nanos, long rows) {
+        this.stats.get(op).record(nanos, rows);
+
+        for(MetricsListener listener : this.listeners)
+            listener.operationCompleted(op, nanos, rows);
+    }
+
+    /**
+     * Records the parsing of a data file and tells the listeners about it.
+     *
+     * @param bytes the number of bytes parsed
+     * @param nanos the time parsing took, in nanoseconds
+     */
+    public void recordParse(long bytes, long nanos) {
+        this.bytesParsed.add(bytes);
+        this.parseNanos.add(nanos);
+
+        for(MetricsListener listener : this.listeners)
+            listener.dataParsed(bytes, nanos);
+    }
+
+    /**
+     * Returns the statistics of an operation.
+     *
+     * @param op the operation
+     * @return its statistics
+     */
+    public OperationStats getStats(Operation op) {
+        return this.stats.get(op);
+    }
+
+    /**
+     * Adds a listener told about every measurement from now on.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(MetricsListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener(MetricsListener)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(MetricsListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Returns the number of bytes of data files parsed.
+     *
+     * @return the bytes parsed
+     */
+    @Override
+    public long getBytesParsed() {
+        return this.bytesParsed.sum();
+    }
+
+    /**
+     * Returns the time spent parsing data files.
+     *
+     * @return the parsing time in seconds
+     */
+    @Override
+    public double getParseSeconds() {
+        return this.parseNanos.sum() / 1e9;
+    }
+
+    /**
+     * Returns the mean parsing throughput.
+     *
+     * @return the bytes parsed per second, or 0 if nothing was parsed
+     */
+    @Override
+    public double getBytesPerSecond() {
+        double seconds = getParseSeconds();
+
+        return seconds == 0 ? 0 : getBytesParsed() / seconds;
+    }
+
+    /**
+     * Forgets everything recorded so far, including the statistics of the operations.
+     */
+    @Override
+    public void reset() {
+        for(OperationStats s : this.stats.values())
+            s.reset();
+
+        this.bytesParsed.reset();
+        this.parseNanos.reset();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server: the parsing
+     * throughput as {@code StudentInformationSystem:type=Controller,name=<name>}
+     * and every operation as {@code ...,name=<name>,operation=<method name>}.
+     *
+     * @param name the name distinguishing this controller from others
+     * @throws JMException if the names are malformed or already registered
+     * @throws IllegalStateException if the metrics are already registered
+     */
+    public synchronized void registerMBeans(String name) throws JMException {
+        if(this.registered != null)
+            throw new IllegalStateException("The metrics are already registered");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String prefix = DOMAIN + ":type=Controller,name=" + ObjectName.quote(name);
+        ObjectName[] names = new ObjectName[Operation.values().length + 1];
+
+        names[0] = new ObjectName(prefix);
+
+        for(Operation op : Operation.values())
+            names[op.ordinal() + 1] = new ObjectName(prefix + ",operation=" + op.getMethodName());
+
+        try {
+            server.registerMBean(this, names[0]);
+
+            for(Operation op : Operation.values())
+                server.registerMBean(this.stats.get(op), names[op.ordinal() + 1]);
+        }
+        catch(JMException e) {
+            // do not leave some of them behind
+            unregister(server, names);
+            throw e;
+        }
+
+        this.registered = names;
+    }
+
+    /**
+     * Unregisters the MBeans registered by {@link #registerMBeans(String)}, if any.
+     */
+    public synchronized void unregisterMBeans() {
+        if(this.registered == null)
+            return;
+
+        unregister(ManagementFactory.getPlatformMBeanServer(), this.registered);
+        this.registered = null;
+    }
+
+    /**
+     * Unregisters those of the given names that are registered.
+     *
+     * @param server the MBean server
+     * @param names the names to unregister
+     */
+    private static void unregister(MBeanServer server, ObjectName[] names) {
+        for(ObjectName name : names) {
+            try {
+                if(server.isRegistered(name))
+                    server.unregisterMBean(name);
+            }
+            catch(JMException e) {
+                // unregistered by someone else in the meantime
+            }
+        }
+    }
+
+    /**
+     * Returns a summary of every operation and of the parsing throughput,
+     * one line each, with latencies in microseconds.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for(Operation op : Operation.values())
+            sb.append(String.format("%-18s %s%n", op.getMethodName(), this.stats.get(op)));
+
+        sb.append(String.format("%-18s %d bytes, %.0f bytes/s%n", "parsing", getBytesParsed(), getBytesPerSecond()));
+
+        return sb.toString();
+    }
+
+}
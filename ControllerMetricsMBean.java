@@ -0,0 +1,34 @@
+/**
+ * The management interface of {@link ControllerMetrics}, which JMX clients
+ * see as the parsing throughput of a controller. The statistics of the
+ * individual operations are registered as separate {@link OperationStatsMBean}s.
+ */
+public interface ControllerMetricsMBean {
+
+    /**
+     * Returns the number of bytes of data files parsed.
+     *
+     * @return the bytes parsed
+     */
+    long getBytesParsed();
+
+    /**
+     * Returns the time spent parsing data files.
+     *
+     * @return the parsing time in seconds
+     */
+    double getParseSeconds();
+
+    /**
+     * Returns the mean parsing throughput.
+     *
+     * @return the bytes parsed per second, or 0 if nothing was parsed
+     */
+    double getBytesPerSecond();
+
+    /**
+     * Forgets everything recorded so far, including the statistics of the operations.
+     */
+    void reset();
+
+}
@@ -1,139 +1,263 @@
-
-/**
- * The {@code Course} class represents a course offered in an academic institution.
- * Each course has a unique course code, a title, and a number of credit hours.
- *
- * <p>Fields:
- * <ul>
- *   <li>{@code code} - the course code (e.g., "COP3330")</li>
- *   <li>{@code title} - the course title (e.g., "Object-Oriented Programming")</li>
- *   <li>{@code credit} - the number of credit hours the course is worth</li>
- * </ul>
- *
- * <p>This class implements the {@code Searchable} interface, allowing it to be used
- * in search and comparison operations within collections.
- */
-public class Course implements Searchable {
-    
-    /** The unique course code. */
-    private String code;
-    
-    /** The title of the course. */
-    private String title;
-    
-    /** The number of credit hours for the course. */
-    private int credit;
-    
-    
-    /**
-     * Constructs a new Course object with the specified course code, title, and credit hours.
-     *
-     * @param code the course code
-     * @param title the title of the course
-     * @param credit the number of credit hours
-     */
-    public Course(String code, String title, int credit) {
-        this.code = code;
-        this.title = title;
-        this.credit = credit;
-    }
-    
-    /**
-     * Copy constructor. Constructs a new Course object by copying another Course object.
-     *
-     * @param ob the Course object to copy
-     */
-    public Course(Course ob) {
-        this(ob.code, ob.title, ob.credit);
-    }
-    
-    /**
-     * Returns a string representation of the Course object.
-     *
-     * @return a formatted string showing credit hours, course code, and title
-     */
-    public String toString() {
-        return String.format("%d - %s: %s", this.credit, this.code, this.title);
-    }
-    
-    /**
-     * Sets the course code.
-     *
-     * @param code the new course code
-     */
-    public void setCode(String code) {
-        this.code = code;
-    }
-    
-    /**
-     * Returns the course code.
-     *
-     * @return the course code
-     */
-    public String getCode() {
-        return this.code;
-    }
-    
-    /**
-     * Sets the title of the course.
-     *
-     * @param title the new title
-     */
-    public void setTitle(String title) {
-        this.title = title;
-    }
-    
-     /**
-     * Returns the title of the course.
-     *
-     * @return the course title
-     */
-    public String getTitle() {
-        return this.title;
-    }
-    
-    /**
-     * Sets the number of credit hours for the course.
-     *
-     * @param credit the new number of credit hours
-     */
-    public void setCredit(int credit) {
-        this.credit = credit;
-    }
-    
-    /**
-     * Returns the number of credit hours for the course.
-     *
-     * @return the credit hours
-     */
-    public int getCredit() {
-        return this.credit;
-    }
-    
-    /**
-     * Determines if the course matches the given search key.
-     * A match occurs if the key is found in either the course code or the title (case-insensitive).
-     *
-     * @param key the search key to compare against the code and title
-     * @return true if the key matches either the code or the title, false otherwise
-     */
-    @Override
-    public boolean isMatch(String key) {
-        key = key.toLowerCase();
-        return this.getCode().toLowerCase().contains(key) || this.getTitle().toLowerCase().contains(key);
-    }
-    
-    /**
-     * Compares this course with another object for equality.
-     * Two courses are considered equal if their code, title, and credit hours are all equal.
-     *
-     * @param obj the object to compare with
-     * @return true if the courses are equal, false otherwise
-     */
-    @Override
-    public boolean isEqual(Object obj) {
-        Course c = (Course)obj;
-        return this.getCode().equals( c.getCode() ) && this.getTitle().equals( c.getTitle() ) && this.getCredit() == c.getCredit();
-    }
-    
-}
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code Course} class represents a course offered in an academic institution.
+ * Each course has a unique course code, a title, and a number of credit hours.
+ *
+ * <p>Fields:
+ * <ul>
+ *   <li>{@code code} - the course code (e.g., "COP3330")</li>
+ *   <li>{@code title} - the course title (e.g., "Object-Oriented Programming")</li>
+ *   <li>{@code credit} - the number of credit hours the course is worth</li>
+ * </ul>
+ *
+ * <p>This class implements the {@code Searchable} interface, allowing it to be used
+ * in search and comparison operations within collections.
+ */
+public class Course implements Searchable {
+    
+    /** The unique course code. */
+    private String code;
+    
+    /** The title of the course. */
+    private String title;
+    
+    /** The number of credit hours for the course. */
+    private int credit;
+    
+    /** The {@link #getCreditRevision() credit revision} at which the credit hours of this course last changed. */
+    private volatile long creditChanged;
+    
+    /** Counts the changes made to the credit hours of any course, so cached totals can detect them. */
+    private static final AtomicLong CREDIT_REVISION = new AtomicLong();
+    
+    /** Counts the changes made to the code of any course, so indexes by code can detect them. */
+    private static final AtomicLong CODE_REVISION = new AtomicLong();
+    
+    
+    /**
+     * Constructs a new Course object with the specified course code, title, and credit hours.
+     *
+     * @param code the course code
+     * @param title the title of the course
+     * @param credit the number of credit hours
+     */
+    public Course(String code, String title, int credit) {
+        this.code = code;
+        this.title = title;
+        this.credit = credit;
+    }
+    
+    /**
+     * Copy constructor. Constructs a new Course object by copying another Course object.
+     *
+     * @param ob the Course object to copy
+     */
+    public Course(Course ob) {
+        this(ob.code, ob.title, ob.credit);
+    }
+    
+    /**
+     * Returns a string representation of the Course object.
+     *
+     * @return a formatted string showing credit hours, course code, and title
+     */
+    public String toString() {
+        return String.format("%d - %s: %s", this.credit, this.code, this.title);
+    }
+    
+    /**
+     * Sets the course code.
+     *
+     * @param code the new course code
+     */
+    public void setCode(String code) {
+        if(Objects.equals(this.code, code)) return;
+        
+        this.code = code;
+        
+        // let indexes by code know they may be stale
+        CODE_REVISION.incrementAndGet();
+    }
+    
+    /**
+     * Returns the course code.
+     *
+     * @return the course code
+     */
+    public String getCode() {
+        return this.code;
+    }
+    
+    /**
+     * Sets the title of the course.
+     *
+     * @param title the new title
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+     /**
+     * Returns the title of the course.
+     *
+     * @return the course title
+     */
+    public String getTitle() {
+        return this.title;
+    }
+    
+    /**
+     * Sets the number of credit hours for the course.
+     *
+     * @param credit the new number of credit hours
+     */
+    public void setCredit(int credit) {
+        if(this.credit == credit) return;
+        
+        this.credit = credit;
+        
+        // let cached credit totals know they may be stale
+        this.creditChanged = CREDIT_REVISION.incrementAndGet();
+    }
+    
+    /**
+     * Returns the number of credit hours for the course.
+     *
+     * @return the credit hours
+     */
+    public int getCredit() {
+        return this.credit;
+    }
+    
+    /**
+     * Returns a counter that increases whenever the credit hours of any course change.
+     * A total computed from course credits is still valid as long as this value is unchanged,
+     * or as long as none of its courses has {@linkplain #getCreditChanged() changed} since.
+     *
+     * @return the current credit revision
+     */
+    public static long getCreditRevision() {
+        return CREDIT_REVISION.get();
+    }
+    
+    /**
+     * Returns a counter that increases whenever the code of any course changes.
+     * An index of courses by code is still valid as long as this value is unchanged.
+     *
+     * @return the current code revision
+     */
+    public static long getCodeRevision() {
+        return CODE_REVISION.get();
+    }
+    
+    /**
+     * Returns the {@link #getCreditRevision() credit revision} at which the credit hours
+     * of this course last changed. A total computed at an earlier revision no longer holds
+     * for this course if this value is larger than that revision.
+     *
+     * @return the revision of the last credit change, or 0 if the credit hours never changed
+     */
+    public long getCreditChanged() {
+        return this.creditChanged;
+    }
+    
+    /**
+     * Determines if the course matches the given search key.
+     * A match occurs if the key is found in either the course code or the title (case-insensitive).
+     *
+     * @param key the search key to compare against the code and title
+     * @return true if the key matches either the code or the title, false otherwise
+     */
+    @Override
+    public boolean isMatch(String key) {
+        key = key.toLowerCase();
+        return this.getCode().toLowerCase().contains(key) || this.getTitle().toLowerCase().contains(key);
+    }
+    
+    /**
+     * Compares this course with another object for equality.
+     * Two courses are considered equal if their code, title, and credit hours are all equal.
+     *
+     * @param obj the object to compare with
+     * @return true if the courses are equal, false otherwise
+     */
+    @Override
+    public boolean isEqual(Object obj) {
+        Course c = (Course)obj;
+        return this.getCode().equals( c.getCode() ) && this.getTitle().equals( c.getTitle() ) && this.getCredit() == c.getCredit();
+    }
+    
+    /**
+     * Returns the catalog identity of this course, used by lists to detect duplicates.
+     * Two courses have equal keys exactly when {@link #isEqual(Object)} holds for them,
+     * so a list stores each catalog course only once.
+     *
+     * <p>The key holds a copy of the code, title and credit hours, so a key taken
+     * earlier keeps its hash code when the course is modified later. Lists remember
+     * the key of every element they store and replace or remove it by that key, so
+     * they stay consistent when a stored course is modified. Looking the course up
+     * by key still finds it under its old values, until it is stored again.
+     *
+     * @return the catalog key of this course
+     */
+    @Override
+    public Object getKey() {
+        return new CatalogKey(this.code, this.title, this.credit);
+    }
+    
+    /**
+     * A hashable copy of the values that {@link Course#isEqual(Object)} compares.
+     */
+    private static final class CatalogKey {
+        
+        /** The course code. */
+        private final String code;
+        
+        /** The course title. */
+        private final String title;
+        
+        /** The number of credit hours. */
+        private final int credit;
+        
+        /**
+         * Constructs a key for the given course values.
+         *
+         * @param code the course code
+         * @param title the title of the course
+         * @param credit the number of credit hours
+         */
+        CatalogKey(String code, String title, int credit) {
+            this.code = code;
+            this.title = title;
+            this.credit = credit;
+        }
+        
+        /**
+         * Compares the keys by code, title and credit hours.
+         *
+         * @param obj the object to compare with
+         * @return true if both keys stand for the same catalog course, false otherwise
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof CatalogKey))
+                return false;
+            
+            CatalogKey k = (CatalogKey) obj;
+            return this.code.equals(k.code) && this.title.equals(k.title) && this.credit == k.credit;
+        }
+        
+        /**
+         * Returns a hash code consistent with {@link #equals(Object)}.
+         *
+         * @return the hash code of the code, title and credit hours
+         */
+        @Override
+        public int hashCode() {
+            return (this.code.hashCode() * 31 + this.title.hashCode()) * 31 + this.credit;
+        }
+    }
+    
+}
@@ -1,97 +1,158 @@
-import javax.swing.JFrame;
-import javax.swing.JTable;
-import javax.swing.JScrollPane;
-
-/**
- * The {@code CourseListUI} class represents a user interface window
- * that displays a list of courses in a table format. It can optionally
- * show the courses associated with a specific student.
- * 
- * <p>This class uses a {@link Controller} object to retrieve course and
- * student data, and displays the data in a scrollable JTable within a JFrame.</p>
- * 
- * <p>The window is centered relative to a given parent JFrame and
- * disposes itself on close.</p>
- */
-
-public class CourseListUI {
-    
-    /** The controller used to fetch student and course data */
-    private Controller controller;
-    
-    /** The main JFrame window for this UI */
-    private JFrame frame;
-    
-    /** The JTable that displays course data */
-    private JTable table;
-    
-    
-    /**
-     * Constructs a CourseListUI window displaying all courses.
-     * The window is centered relative to the specified parent frame.
-     * 
-     * @param controller the controller instance to access data
-     * @param parent the parent JFrame relative to which this window is centered
-     */
-    public CourseListUI(Controller controller, JFrame parent) {
-        this(controller, parent, null);
-    }
-    
-    /**
-     * Constructs a CourseListUI window displaying courses associated with
-     * the specified student, or all courses if the student name is null.
-     * The window is centered relative to the specified parent frame.
-     * 
-     * @param controller the controller instance to access data
-     * @param parent the parent JFrame relative to which this window is centered
-     * @param studentName the name of the student whose courses to display; if null, all courses are displayed
-     */
-    public CourseListUI(Controller controller, JFrame parent, String studentName) {
-        // set the controller for this view
-        this.controller = controller;
-        
-        Student student = null;
-        String frameTitle = "List of Courses";
-        
-        if(studentName != null) {
-            // obtain the student object given their name
-            student = this.controller.getStudent(studentName);
-            frameTitle = "Student Details: " + student.getName();
-        }
-        
-        // create a frame for this view        
-        this.frame = new JFrame(frameTitle);
-        
-        // dispose this window only on exit
-        this.frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        this.frame.setSize(650, 200);
-        
-        // set column names
-        String[] columnNames = {"Code", "Title", "Credit Hour"};
-        
-        // add the data to this table
-        String[][] data;
-        
-        // load the data based on whether this is for a student or not
-        if(student != null) {
-            data = this.controller.getCourseListData( student );
-        }
-        else {
-            data = this.controller.getCourseListData();
-        }
-        
-        // create the table
-        this.table = new JTable(data, columnNames);
-        
-        // make it scrollable
-        JScrollPane sp = new JScrollPane(this.table);
-        this.frame.add(sp);
-        
-        // center on the screen relative to parent
-        this.frame.setLocationRelativeTo(parent);
-        
-        // show the frame
-        this.frame.setVisible(true);
-    }
-
-}
+import javax.swing.JFrame;
+import javax.swing.JTable;
+import javax.swing.JScrollPane;
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JOptionPane;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+
+/**
+ * The {@code CourseListUI} class represents a user interface window
+ * that displays a list of courses in a table format. It can optionally
+ * show the courses associated with a specific student.
+ * 
+ * <p>This class uses a {@link Controller} object to retrieve course and
+ * student data, and displays the data in a scrollable JTable within a JFrame.</p>
+ * 
+ * <p>The window is centered relative to a given parent JFrame and
+ * disposes itself on close. The students enrolled in the selected course
+ * can be viewed in a separate window.</p>
+ */
+
+public class CourseListUI {
+    
+    /** The controller used to fetch student and course data */
+    private Controller controller;
+    
+    /** The main JFrame window for this UI */
+    private JFrame frame;
+    
+    /** The JTable that displays course data */
+    private JTable table;
+    
+    /** The courses shown in the table, in row order */
+    private CourseList courses;
+    
+    
+    /**
+     * Constructs a CourseListUI window displaying all courses.
+     * The window is centered relative to the specified parent frame.
+     * 
+     * @param controller the controller instance to access data
+     * @param parent the parent JFrame relative to which this window is centered
+     */
+    public CourseListUI(Controller controller, JFrame parent) {
+        this(controller, parent, (Student) null);
+    }
+    
+    /**
+     * Constructs a CourseListUI window displaying courses associated with
+     * the specified student, or all courses if the student name is null.
+     * The window is centered relative to the specified parent frame.
+     * 
+     * @param controller the controller instance to access data
+     * @param parent the parent JFrame relative to which this window is centered
+     * @param studentName the name of the student whose courses to display; if null, all courses are displayed
+     */
+    public CourseListUI(Controller controller, JFrame parent, String studentName) {
+        // obtain the student object given their name
+        this(controller, parent, studentName != null ? controller.getStudent(studentName) : null);
+    }
+    
+    /**
+     * Constructs a CourseListUI window displaying courses associated with
+     * the specified student, or all courses if the student is null.
+     * The window is centered relative to the specified parent frame.
+     * 
+     * @param controller the controller instance to access data
+     * @param parent the parent JFrame relative to which this window is centered
+     * @param student the student whose courses to display; if null, all courses are displayed
+     */
+    public CourseListUI(Controller controller, JFrame parent, Student student) {
+        // set the controller for this view
+        this.controller = controller;
+        
+        String frameTitle = "List of Courses";
+        
+        if(student != null) {
+            frameTitle = "Student Details: " + student.getName();
+        }
+        
+        // create a frame for this view        
+        this.frame = new JFrame(frameTitle);
+        
+        // dispose this window only on exit
+        this.frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        this.frame.setSize(650, 250);
+        
+        // set column names
+        String[] columnNames = {"Code", "Title", "Credit Hour"};
+        
+        // add the data to this table
+        String[][] data;
+        
+        // load the data based on whether this is for a student or not
+        if(student != null) {
+            data = this.controller.getCourseListData( student );
+            this.courses = student.getCourseList();
+        }
+        else {
+            data = this.controller.getCourseListData();
+            this.courses = this.controller.getCourseList();
+        }
+        
+        // create the table
+        this.table = new JTable(data, columnNames);
+        
+        // make it scrollable
+        JScrollPane sp = new JScrollPane(this.table);
+        this.frame.add(sp);
+        
+        // button to list the students taking the selected course
+        JButton btnRoster = new JButton("View Course Roster");
+        btnRoster.addActionListener(this::viewCourseRoster);
+        
+        JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        bottomPanel.add(btnRoster);
+        this.frame.add(bottomPanel, BorderLayout.SOUTH);
+        
+        // center on the screen relative to parent
+        this.frame.setLocationRelativeTo(parent);
+        
+        // show the frame
+        this.frame.setVisible(true);
+    }
+    
+    /**
+     * Opens a window listing the students enrolled in the course
+     * selected in the table.
+     * 
+     * @param e the action event triggered by the user
+     */
+    private void viewCourseRoster(ActionEvent e) {
+        // get selected row
+        int selectedRow = this.table.getSelectedRow();
+        
+        // ignore if no row is selected
+        if(selectedRow == -1) {
+            JOptionPane.showMessageDialog(this.frame, "Select a course first.");
+            return;
+        }
+        
+        Course course = this.courses.get( this.table.convertRowIndexToModel(selectedRow) );
+        
+        // the roster comes from the course-to-students index
+        StudentList roster = this.controller.getCourseRoster( course );
+        
+        JFrame rosterFrame = new JFrame("Course Roster: " + course.getCode() + " " + course.getTitle()
+                + " (" + roster.size() + " students)");
+        rosterFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        rosterFrame.setSize(650, 300);
+        rosterFrame.add(new JScrollPane(new JTable(new StudentTableModel(roster))));
+        rosterFrame.setLocationRelativeTo(this.frame);
+        rosterFrame.setVisible(true);
+    }
+
+}
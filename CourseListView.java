@@ -0,0 +1,216 @@
+import java.util.List;
+
+/**
+ * A read-only {@link CourseList} backed directly by an existing list of courses,
+ * such as the courses a {@link Student} is enrolled in.
+ *
+ * <p>No elements are copied and no duplicates are removed, so creating a view
+ * takes constant time and the view always reflects the current contents of
+ * the backing list. Lookups scan the backing list, which is fine for the
+ * handful of courses a single student takes. Attempts to add to the view
+ * throw an {@link UnsupportedOperationException}.</p>
+ */
+class CourseListView extends CourseList {
+
+    /** The list of courses this view reads from */
+    private List<Course> backing;
+
+
+    /**
+     * Constructs a view of the given list of courses.
+     *
+     * @param backing the list of courses to expose
+     */
+    public CourseListView(List<Course> backing) {
+        super(0);
+        this.backing = backing;
+    }
+
+    /**
+     * Always throws, since a view cannot be modified.
+     *
+     * @param obj the course that would have been added
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void add(Course obj) {
+        throw new UnsupportedOperationException("A course list view is read-only");
+    }
+
+    /**
+     * Always throws, since a view cannot be modified.
+     *
+     * @param index the index of the course that would have been replaced
+     * @param obj the course that would have been stored
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Course set(int index, Course obj) {
+        throw new UnsupportedOperationException("A course list view is read-only");
+    }
+
+    /**
+     * Always throws, since a view cannot be modified.
+     *
+     * @param index the index of the course that would have been removed
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Course remove(int index) {
+        throw new UnsupportedOperationException("A course list view is read-only");
+    }
+
+    /**
+     * Always throws, since a view cannot be modified.
+     *
+     * @param obj the course that would have been removed
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean remove(Object obj) {
+        throw new UnsupportedOperationException("A course list view is read-only");
+    }
+
+    /**
+     * Always throws, since a view holds no indexes of its own.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableSearchIndex() {
+        throw new UnsupportedOperationException("A course list view cannot be indexed");
+    }
+
+    /**
+     * Always throws, since a view holds no indexes of its own.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void enableSearchFormCache() {
+        throw new UnsupportedOperationException("A course list view cannot cache search forms");
+    }
+
+    /**
+     * Retrieves the course at the specified index of the backing list.
+     *
+     * @param index the index of the course
+     * @return the course at the specified position
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public Course get(int index) {
+        return this.backing.get(index);
+    }
+
+    /**
+     * Returns the current number of courses in the backing list.
+     *
+     * @return the size of the backing list
+     */
+    @Override
+    public int size() {
+        return this.backing.size();
+    }
+
+    /**
+     * Returns a new list with the courses whose title contains the given key, ignoring case.
+     *
+     * @param key the search key
+     * @return a CourseList containing all matching courses
+     */
+    @Override
+    public CourseList query(String key) {
+        key = key.toLowerCase();
+
+        CourseList result = new CourseList();
+
+        for(Course c : this.backing) {
+            if(c.getTitle().toLowerCase().contains(key))
+                result.add(c);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the first course whose code equals the given key, ignoring case.
+     *
+     * @param key the course code
+     * @return the matching course, or null if no match is found
+     */
+    @Override
+    public Course findMatch(String key) {
+        for(Course c : this.backing) {
+            if(c.getCode().equalsIgnoreCase(key))
+                return c;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns a new list with every course whose code equals the given key, ignoring case.
+     *
+     * @param key the course code
+     * @return a CourseList containing all matching courses
+     */
+    @Override
+    public CourseList findAllMatches(String key) {
+        CourseList result = new CourseList();
+
+        for(Course c : this.backing) {
+            if(c.getCode().equalsIgnoreCase(key))
+                result.add(c);
+        }
+
+        return result;
+    }
+
+    /**
+     * Determines whether a course equal to the given object, by code, title
+     * and credit hours, is in the backing list.
+     *
+     * @param obj the object to check for
+     * @return true if an equal course is in the backing list; false otherwise
+     */
+    @Override
+    public boolean contains(Object obj) {
+        return indexOf(obj) >= 0;
+    }
+
+    /**
+     * Returns the position of the first course in the backing list equal to the
+     * given object, by code, title and credit hours. Scans the backing list, since
+     * a view keeps no key index.
+     *
+     * @param obj the object to look for
+     * @return the position of the equal course, or -1 if there is none
+     */
+    @Override
+    public int indexOf(Object obj) {
+        if(!(obj instanceof Course)) return -1;
+
+        for(int i = 0; i < this.backing.size(); i++) {
+            if(this.backing.get(i).isEqual(obj))
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Always throws, since a view does not intern courses.
+     *
+     * @param c the course that would have been interned
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Course intern(Course c) {
+        throw new UnsupportedOperationException("A course list view is read-only");
+    }
+
+}
@@ -0,0 +1,196 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code DataFileWatcher} class reloads the data file into a
+ * {@link Controller} whenever the file changes, and applies the events added
+ * to the change log while the application runs, without restarting it.
+ *
+ * <p>A daemon thread watches the directories of the two files with a {@link WatchService}.
+ * Since a file is usually written in several steps, the watcher waits until the
+ * files have not changed for a short quiet period. If the data file changed, it then
+ * calls {@link Controller#reloadData(String, String)} on its own thread, which parses the
+ * new version into new lists, applies the change log and swaps them in at once. If only
+ * the change log grew, it calls {@link Controller#applyChanges(String)}, which applies
+ * the new events to a copy of the lists and swaps that in. Views learn about the
+ * new data through the controller's reload listeners. If the new data cannot be
+ * loaded, for example because it is still incomplete, the error is reported and
+ * the current data stays in place until a file changes again.</p>
+ */
+public class DataFileWatcher implements Closeable {
+
+    /** The time the file must stay unchanged before it is reloaded, in milliseconds */
+    private static final long QUIET_PERIOD = 500;
+
+
+    /** The controller to reload */
+    private Controller controller;
+
+    /** The data file being watched */
+    private Path file;
+
+    /** The change log applied after each reload and whenever it grows, or null for none */
+    private Path changeLog;
+
+    /** Whether the data file changed since it was last reloaded */
+    private boolean dataChanged;
+
+    /** Whether the change log changed since its events were last applied */
+    private boolean logChanged;
+
+    /** The service watching the directory of the file */
+    private WatchService watchService;
+
+    /** The thread waiting for changes */
+    private Thread thread;
+
+
+    /**
+     * Constructs a watcher reloading the given file into the given controller.
+     * Call {@link #start()} to begin watching.
+     *
+     * @param controller the controller to reload
+     * @param filename the path of the data file
+     * @param changeLog the path of the change log applied after each reload and whenever it grows, or null for none
+     */
+    public DataFileWatcher(Controller controller, String filename, String changeLog) {
+        this.controller = controller;
+        this.file = Paths.get(filename).toAbsolutePath();
+        this.changeLog = changeLog == null ? null : Paths.get(changeLog).toAbsolutePath();
+    }
+
+    /**
+     * Starts watching the file on a daemon thread.
+     *
+     * @throws IOException if the directory of the file cannot be watched
+     * @throws IllegalStateException if the watcher was already started
+     */
+    public void start() throws IOException {
+        if(this.thread != null)
+            throw new IllegalStateException("The watcher is already started");
+
+        this.watchService = FileSystems.getDefault().newWatchService();
+
+        // files are often replaced by renaming a new one over them
+        this.file.getParent().register(this.watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        if(this.changeLog != null && !this.changeLog.getParent().equals(this.file.getParent()))
+            this.changeLog.getParent().register(this.watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        this.thread = new Thread(this::watch, "data-file-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Stops watching the file. A reload in progress is completed.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if(this.watchService != null)
+            this.watchService.close();
+    }
+
+    /**
+     * Waits for changes of the files and reloads the data file or applies the new
+     * events once they have settled, until the watch service is closed.
+     */
+    private void watch() {
+        try {
+            while(true) {
+                if(!changed(this.watchService.take()))
+                    continue;
+
+                // wait for the writers to finish
+                WatchKey key;
+                while((key = this.watchService.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS)) != null)
+                    changed(key);
+
+                // a reload applies the change log as well
+                if(this.dataChanged)
+                    reload();
+                else if(this.logChanged)
+                    applyChanges();
+
+                this.dataChanged = false;
+                this.logChanged = false;
+            }
+        }
+        catch(ClosedWatchServiceException | InterruptedException e) {
+            // stopped
+        }
+    }
+
+    /**
+     * Consumes the events of a watch key, noting which of the watched files changed, and re-arms it.
+     *
+     * @param key the signalled key
+     * @return true if one of the events concerns a watched file; false otherwise
+     */
+    private boolean changed(WatchKey key) {
+        boolean changed = false;
+        Path directory = (Path) key.watchable();
+
+        for(WatchEvent<?> event : key.pollEvents()) {
+            // an overflow may have hidden a change of the data file
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                this.dataChanged = true;
+                changed = true;
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+
+            if(path.equals(this.file)) {
+                this.dataChanged = true;
+                changed = true;
+            }
+            else if(path.equals(this.changeLog)) {
+                this.logChanged = true;
+                changed = true;
+            }
+        }
+
+        key.reset();
+
+        return changed;
+    }
+
+    /**
+     * Reloads the file, reporting failures without stopping the watcher.
+     */
+    private void reload() {
+        try {
+            this.controller.reloadData(this.file.toString(), this.changeLog == null ? null : this.changeLog.toString());
+        }
+        catch(IOException | RuntimeException e) {
+            System.err.println("Could not reload " + this.file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the events added to the change log, reporting failures without stopping the watcher.
+     */
+    private void applyChanges() {
+        try {
+            this.controller.applyChanges(this.changeLog.toString());
+        }
+        catch(IOException | RuntimeException e) {
+            System.err.println("Could not apply " + this.changeLog + ": " + e.getMessage());
+        }
+    }
+
+}
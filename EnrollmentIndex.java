@@ -0,0 +1,287 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code EnrollmentIndex} class is an inverted index from courses to the
+ * positions of the students enrolled in them, so that the roster of a course
+ * is found without looking at the courses of every student.
+ *
+ * <p>Courses are identified by their {@link Course#getKey() catalog key}, since
+ * students may hold copies of a catalog course, and every distinct course is given
+ * a small int id. The roster of each course is a compact, sorted array of student
+ * positions. The course objects seen are remembered as well, so a catalog course
+ * whose code, title or credit hours change after it was indexed is still found
+ * through the object the students share. The ids are also grouped by course code,
+ * ignoring case, so the rosters of the courses sharing a code are found without
+ * looking at every course. Once the code of any course has changed, the grouping is
+ * rebuilt from the course objects seen, which then hold the current codes.</p>
+ *
+ * <p>As with {@link NGramIndex}, positions must be added in increasing order, and
+ * students replaced out of order are {@link #insert(int, List) inserted} instead.
+ * A replaced student stays on the rosters of the courses it no longer takes, so the
+ * positions returned are candidates that the caller must verify.</p>
+ */
+public class EnrollmentIndex {
+
+    /** Maps the catalog key of every course to its id */
+    private HashMap<Object, Integer> courseIds;
+
+    /** Maps every course object seen to its id */
+    private IdentityHashMap<Course, Integer> instanceIds;
+
+    /** The positions of the students enrolled in every course, in increasing order, by course id */
+    private int[][] rosters;
+
+    /** The number of valid positions in every roster, by course id */
+    private int[] rosterSizes;
+
+    /** Maps the case-folded code of every course to the ids of the courses with that code, in increasing order */
+    private volatile HashMap<String, int[]> codeIds;
+
+    /** The {@link Course#getCodeRevision() code revision} at which the codes were grouped */
+    private volatile long codeRevision;
+
+
+    /**
+     * Constructs an empty index.
+     */
+    public EnrollmentIndex() {
+        this.courseIds = new HashMap<>();
+        this.instanceIds = new IdentityHashMap<>();
+        this.rosters = new int[16][];
+        this.rosterSizes = new int[16];
+        this.codeIds = new HashMap<>();
+        this.codeRevision = Course.getCodeRevision();
+    }
+
+    /**
+     * Adds the courses of the student stored at the given position.
+     * Positions must be added in increasing order.
+     *
+     * @param position the position of the student in its list
+     * @param courses the courses the student is enrolled in
+     */
+    public void add(int position, List<Course> courses) {
+        for(Course c : courses) {
+            int id = courseId(c);
+            int size = this.rosterSizes[id];
+
+            // a course taken twice is only recorded once
+            if(size > 0 && this.rosters[id][size - 1] == position)
+                continue;
+
+            if(size == this.rosters[id].length)
+                this.rosters[id] = Arrays.copyOf(this.rosters[id], size * 2);
+
+            this.rosters[id][size] = position;
+            this.rosterSizes[id]++;
+        }
+    }
+
+    /**
+     * Adds the courses of a student stored at a position that may lie before
+     * positions already added, such as a student replaced in place.
+     *
+     * @param position the position of the student in its list
+     * @param courses the courses the student is enrolled in
+     */
+    public void insert(int position, List<Course> courses) {
+        for(Course c : courses) {
+            int id = courseId(c);
+            int size = this.rosterSizes[id];
+            int found = Arrays.binarySearch(this.rosters[id], 0, size, position);
+
+            if(found >= 0)
+                continue;
+
+            found = -found - 1;
+
+            if(size == this.rosters[id].length)
+                this.rosters[id] = Arrays.copyOf(this.rosters[id], size * 2);
+
+            System.arraycopy(this.rosters[id], found, this.rosters[id], found + 1, size - found);
+            this.rosters[id][found] = position;
+            this.rosterSizes[id]++;
+        }
+    }
+
+    /**
+     * Moves every position to a new one after the list has been compacted.
+     * Positions mapped to {@code -1} are dropped. The mapping must preserve
+     * the order of the positions it keeps.
+     *
+     * @param newPositions the new position of every old position, or -1 if it was removed
+     */
+    public void remap(int[] newPositions) {
+        for(int id = 0; id < this.courseIds.size(); id++) {
+            int[] roster = this.rosters[id];
+            int kept = 0;
+
+            for(int i = 0; i < this.rosterSizes[id]; i++) {
+                int moved = newPositions[roster[i]];
+
+                if(moved >= 0)
+                    roster[kept++] = moved;
+            }
+
+            this.rosterSizes[id] = kept;
+        }
+    }
+
+    /**
+     * Returns the positions of the students that may be enrolled in the given
+     * course, in increasing order. Every student that is enrolled is included.
+     *
+     * @param c the course
+     * @return the candidate positions, empty if no student was ever enrolled in the course
+     */
+    public int[] candidates(Course c) {
+        Integer id = this.instanceIds.get(c);
+
+        if(id == null)
+            id = this.courseIds.get(c.getKey());
+
+        if(id == null)
+            return new int[0];
+
+        return Arrays.copyOf(this.rosters[id], this.rosterSizes[id]);
+    }
+
+    /**
+     * Returns the positions of the students that may be enrolled in a course with
+     * the given code, ignoring case, in increasing order. Several catalog courses
+     * may share a code; students enrolled in any of them are included.
+     *
+     * @param code the course code
+     * @return the candidate positions, empty if no student was ever enrolled in such a course
+     */
+    public int[] candidates(String code) {
+        int[] ids = codeIds().get(BaseList.foldCase(code));
+
+        if(ids == null)
+            return new int[0];
+
+        if(ids.length == 1)
+            return Arrays.copyOf(this.rosters[ids[0]], this.rosterSizes[ids[0]]);
+
+        int[] result = new int[0];
+
+        for(int id : ids) {
+            int size = result.length;
+            result = Arrays.copyOf(result, size + this.rosterSizes[id]);
+            System.arraycopy(this.rosters[id], 0, result, size, this.rosterSizes[id]);
+        }
+
+        // the rosters of courses sharing a code may overlap
+        Arrays.sort(result);
+
+        int count = 0;
+
+        for(int p : result) {
+            if(count == 0 || result[count - 1] != p)
+                result[count++] = p;
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Returns the id of a course, assigning the next one if the course is new.
+     *
+     * @param c the course
+     * @return the id of the course
+     */
+    private int courseId(Course c) {
+        Integer id = this.instanceIds.get(c);
+
+        if(id != null)
+            return id;
+
+        Object key = c.getKey();
+        id = this.courseIds.get(key);
+
+        if(id != null) {
+            this.instanceIds.put(c, id);
+            return id;
+        }
+
+        int next = this.courseIds.size();
+
+        if(next == this.rosters.length) {
+            this.rosters = Arrays.copyOf(this.rosters, next * 2);
+            this.rosterSizes = Arrays.copyOf(this.rosterSizes, next * 2);
+        }
+
+        this.rosters[next] = new int[4];
+        this.codeIds.merge(BaseList.foldCase(c.getCode()), new int[] { next }, EnrollmentIndex::concat);
+        this.courseIds.put(key, next);
+        this.instanceIds.put(c, next);
+
+        return next;
+    }
+
+    /**
+     * Returns the course ids grouped by code, grouping them again from the course
+     * objects seen if the code of any course has changed since they were grouped.
+     * A course whose copies now have different codes is grouped under all of them.
+     *
+     * @return the map from case-folded codes to course ids
+     */
+    private HashMap<String, int[]> codeIds() {
+        long revision = Course.getCodeRevision();
+
+        if(revision == this.codeRevision)
+            return this.codeIds;
+
+        HashMap<String, int[]> regrouped = new HashMap<>();
+
+        for(Map.Entry<Course, Integer> entry : this.instanceIds.entrySet()) {
+            int id = entry.getValue();
+
+            regrouped.merge(BaseList.foldCase(entry.getKey().getCode()), new int[] { id },
+                    (ids, added) -> Arrays.binarySearch(ids, id) >= 0 ? ids : insert(ids, id));
+        }
+
+        // publish the map before the revision it is valid for
+        this.codeIds = regrouped;
+        this.codeRevision = revision;
+
+        return regrouped;
+    }
+
+    /**
+     * Returns a copy of a sorted array of course ids with one more id inserted in order.
+     *
+     * @param ids the ids, in increasing order
+     * @param id the id to insert, not in the array yet
+     * @return a new array holding both
+     */
+    private static int[] insert(int[] ids, int id) {
+        int found = -Arrays.binarySearch(ids, id) - 1;
+        int[] result = new int[ids.length + 1];
+
+        System.arraycopy(ids, 0, result, 0, found);
+        result[found] = id;
+        System.arraycopy(ids, found, result, found + 1, ids.length - found);
+
+        return result;
+    }
+
+    /**
+     * Concatenates two arrays of course ids.
+     *
+     * @param first the ids coming first
+     * @param second the ids coming after them
+     * @return a new array holding both
+     */
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+
+        return result;
+    }
+
+}
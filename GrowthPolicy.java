@@ -0,0 +1,53 @@
+/**
+ * The {@code GrowthPolicy} interface decides how much a list's internal
+ * storage grows when it runs out of room.
+ *
+ * <p>Growing by a constant factor keeps appends amortized constant time; a
+ * smaller factor wastes less memory on large lists at the cost of copying more
+ * often. The list always grows by at least one element, whatever the policy returns.</p>
+ */
+@FunctionalInterface
+public interface GrowthPolicy {
+
+    /** Doubles the capacity, the default of every list */
+    GrowthPolicy DOUBLING = capacity -> capacity * 2;
+
+
+    /**
+     * Returns a policy multiplying the capacity by the given factor.
+     *
+     * @param factor the growth factor, greater than 1
+     * @return the growth policy
+     * @throws IllegalArgumentException if the factor is not greater than 1
+     */
+    static GrowthPolicy factor(double factor) {
+        if(!(factor > 1))
+            throw new IllegalArgumentException("Growth factor must be greater than 1: " + factor);
+
+        return capacity -> (int) Math.min(Integer.MAX_VALUE - 8, Math.ceil(capacity * factor));
+    }
+
+    /**
+     * Returns a policy adding a fixed number of elements to the capacity.
+     * Appends then take linear time on average, so this suits lists of known, bounded size.
+     *
+     * @param step the number of elements to add, greater than 0
+     * @return the growth policy
+     * @throws IllegalArgumentException if the step is not positive
+     */
+    static GrowthPolicy increment(int step) {
+        if(step <= 0)
+            throw new IllegalArgumentException("Growth step must be positive: " + step);
+
+        return capacity -> capacity + step;
+    }
+
+    /**
+     * Returns the new capacity of a list that is full at the given capacity.
+     *
+     * @param capacity the current capacity
+     * @return the new capacity; values not larger than the current one are raised to it plus one
+     */
+    int grow(int capacity);
+
+}
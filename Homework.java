@@ -1,111 +1,284 @@
-
-class Utility {
-    
-    // TODO: Complete the Utility class
-    // Dislpay
-
-    public static String[][] studentListToArray(StudentList list) {
-        String[][] result = new String[list.size()][4];//make space for fields
-        for (int i = 0; i < list.size(); i++) {//go through studens to fill in for display
-            Student s = (Student) list.get(i);//gets student info and starts filling in
-            result[i][0] = s.getName();
-            result[i][1] = s.getStatus();
-            result[i][2] = Integer.toString(s.getTotalCredit());
-            result[i][3] = String.format("%.2f", s.getTuitionDue());
-        }
-        return result;//display
-    }
-    public static String[][] courseListToArray(CourseList list) {//courselist to array
-        String[][] result = new String[list.size()][3];//make space for fields
-        for (int i = 0; i < list.size(); i++) { //for loop through courses
-            Course course = (Course) list.get(i);//go course by course filling in info
-            result[i][0] = course.getCode();
-            result[i][1] = course.getTitle();
-            result[i][2] = String.valueOf(course.getCredit());
-        }return result;
-    }
-
-}
-
-
-class StudentList extends BaseList  {
-    
-    // TODO: Complete the StudentList class
-
-
-        @Override//control, for method baselist
-        public StudentList query(String key) { //goes through studes using key and prints out the new list
-            StudentList result = new StudentList();
-            for (int i = 0; i < this.size; i++) {
-                Student studnt = (Student) internalList[i];
-                if (studnt.getName().toLowerCase().contains(key.toLowerCase())) {
-                    result.add(studnt);
-                }
-            }//show newlist with students who matched up
-            return result;
-        }
-
-                 @Override 
-        public boolean contains(Object obj) {//searching for obj
-            if (!(obj instanceof Student)) return false;//if it is not a student return false
-            for (int i = 0; i < size; i++) {
-                if (((Student) internalList[i]).equals(obj)) {
-
-                    return true;//if student
-                }
-            }
-            return false;// no student found at all
-        }
-
-        @Override public Student findMatch(String key) {//returns a student if they match the key
-            for (int i = 0; i < size; i++) {
-                Student studnt = (Student) internalList[i];
-                if (studnt.getName().equalsIgnoreCase(key)) {
-                    return studnt;
-                }
-            }
-            return null;//doesnt match
-        }
-    }
-
-
-
-
-
-class CourseList extends BaseList {
-    
-    // TODO: Complete the CourseList class
-
-    @Override//control
-        public CourseList query(String key) { //doiing the same as studentlist but for courses
-            CourseList result = new CourseList();
-            for (int i = 0; i < this.size; i++) {
-                Course co = (Course) internalList[i];
-                if (co.getTitle().toLowerCase().contains(key.toLowerCase())) {
-                    result.add(co);
-                }
-            }
-            return result;// return new list of course
-        }
-
-        @Override
-        public boolean contains(Object obj) { //searching for course obj
-        if (!(obj instanceof Course)) return false;// return false if not a course
-            for (int i = 0; i < size; i++) {
-                if (((Course) internalList[i]).equals(obj)) {
-                    return true;//ture if course is found
-                }
-            }
-            return false;//nothing found or didnt work
-        }
-
-        @Override//control
-     public Course findMatch(String key) { //gets course that matches key
-            for (int i = 0; i < size; i++) {
-                Course co = (Course) internalList[i];
-                if (co.getCode().equalsIgnoreCase(key)) {
-                    return co;//course is found
-                }
-            }
-            return null; //courses has no match
-    }}
+
+class Utility {
+    
+    // TODO: Complete the Utility class
+    // Dislpay
+
+    public static String[][] studentListToArray(StudentList list) {
+        String[][] result = new String[list.size()][4];//make space for fields
+        for (int i = 0; i < list.size(); i++) {//go through studens to fill in for display
+            Student s = list.get(i);//gets student info and starts filling in
+            result[i][0] = s.getName();
+            result[i][1] = s.getStatus();
+            result[i][2] = Integer.toString(s.getTotalCredit());
+            result[i][3] = String.format("%.2f", s.getTuitionDue());
+        }
+        return result;//display
+    }
+    public static String[][] courseListToArray(CourseList list) {//courselist to array
+        String[][] result = new String[list.size()][3];//make space for fields
+        for (int i = 0; i < list.size(); i++) { //for loop through courses
+            Course course = list.get(i);//go course by course filling in info
+            result[i][0] = course.getCode();
+            result[i][1] = course.getTitle();
+            result[i][2] = String.valueOf(course.getCredit());
+        }return result;
+    }
+
+}
+
+
+class StudentList extends BaseList<Student>  {
+    
+    // TODO: Complete the StudentList class
+
+        protected volatile EnrollmentIndex enrollmentIndex;//course to students, null until the first roster, published once built
+
+        protected volatile java.util.EnumMap<SortedStudentIndex.Key, SortedStudentIndex> sortedIndexes;//built on the first sorted query, by key, copied on every change so readers never see it half updated
+
+        public StudentList() {//default capacity
+            super();
+        }
+
+        public StudentList(int capacity) {//pick the starting capacity
+            super(capacity);
+        }
+
+        public StudentList emptyList(CourseList courses) {//new empty list of the same kind, courses go in that catalog
+            return new StudentList();
+        }
+
+        @Override//control, for method baselist
+        public StudentList query(String key) { //goes through studes using key and prints out the new list
+            StudentList result = new StudentList();
+            for (int i : matchPositions(key)) {//uses the search index when it is enabled
+                result.append(get(i));//no duplicates in here so skip the check
+            }//show newlist with students who matched up
+            return result;
+        }
+
+        public StudentList select(Query q, int limit) {//students satisfying q in list order, at most limit of them
+            StudentList result = new StudentList();
+            for (int i : Query.select(q, this, limit)) {//the planner picks the indexes
+                result.append(get(i));
+            }
+            return result;
+        }
+
+        public StudentList select(Query q) {//every student satisfying q
+            return select(q, Integer.MAX_VALUE);
+        }
+
+        public StudentList query(String key, int from, int to) {//same as query but only looks at positions from..to-1
+            StudentList result = new StudentList();
+            for (int i : matchPositions(key, from, to)) {
+                result.append(get(i));
+            }
+            return result;
+        }
+
+        @Override
+        protected String searchText(Student obj) {//students are searched by name
+            return obj.getName();
+        }
+
+                 @Override 
+        public boolean contains(Object obj) {//searching for obj
+            if (!(obj instanceof Student)) return false;//if it is not a student return false
+            return containsKey((Student) obj);//hash lookup instead of scanning every student
+        }
+
+        @Override public Student findMatch(String key) {//returns a student if they match the key
+            PositionList found = lookupPositions(key);//hash lookup by name ignoring case
+            if (!found.isEmpty()) {
+                return get(found.get(0));//first one added with that name
+            }
+            return null;//doesnt match
+        }
+
+        public int indexOfName(String key) {//position of the first student with that name, -1 if none
+            PositionList found = lookupPositions(key);//hash lookup by name ignoring case
+            return found.isEmpty() ? -1 : found.get(0);
+        }
+
+        public StudentList findAllMatches(String key) {//returns every student with that name
+            StudentList result = new StudentList();
+            PositionList found = lookupPositions(key);//a view, not a copy
+            for (int i = 0; i < found.size(); i++) {
+                result.append(get(found.get(i)));
+            }
+            return result;
+        }
+
+        public SortedStudentIndex sortedBy(SortedStudentIndex.Key key) {//students sorted by name, credits or tuition
+            java.util.EnumMap<SortedStudentIndex.Key, SortedStudentIndex> indexes = sortedIndexes;
+            SortedStudentIndex index = indexes == null ? null : indexes.get(key);
+            if (index == null || !index.isCurrent()) {//sort again only after something changed
+                index = new SortedStudentIndex(this, key);
+                indexes = indexes == null ? new java.util.EnumMap<>(SortedStudentIndex.Key.class) : new java.util.EnumMap<>(indexes);
+                indexes.put(key, index);
+                sortedIndexes = indexes;
+            }
+            return index;
+        }
+
+        protected SortedStudentIndex cachedSortedIndex(SortedStudentIndex.Key key) {//the index if it is built and current, null otherwise, never sorts
+            java.util.EnumMap<SortedStudentIndex.Key, SortedStudentIndex> indexes = sortedIndexes;
+            SortedStudentIndex index = indexes == null ? null : indexes.get(key);
+            return index != null && index.isCurrent() ? index : null;
+        }
+
+        public StudentList roster(Course c) {//returns every student enrolled in the course, in list order
+            StudentList result = new StudentList();
+            for (int i : rosterPositions(c)) {//only looks at the students on the roster
+                result.append(get(i));
+            }
+            return result;
+        }
+
+        protected int[] rosterPositions(Course c) {//indexes of the students enrolled in c, never modifies the list
+            EnrollmentIndex index = enrollmentIndex;
+            if (index == null) {//build the index on the first roster, over the slots of the remaining students
+                index = new EnrollmentIndex();
+                for (int i = 0; i < positionCount(); i++) {
+                    if (!isRemoved(i)) {
+                        index.add(i, getAt(i).getCourses());
+                    }
+                }
+                enrollmentIndex = index;
+                RowCounter.add(size());
+            }
+            int[] found = toIndexes(index.candidates(c));//drops removed students
+            int count = 0;
+            for (int p : found) {//a replaced student may have dropped the course since
+                if (isEnrolled(get(p), c)) {
+                    found[count++] = p;
+                }
+            }
+            RowCounter.add(found.length);
+            return java.util.Arrays.copyOf(found, count);
+        }
+
+        protected static boolean isEnrolled(Student stud, Course c) {//same course as in Course.isEqual
+            for (Course taken : stud.getCourses()) {
+                if (taken.isEqual(c)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected void indexAppended(Student obj, int pos) {//keep the roster index up to date as well
+            super.indexAppended(obj, pos);
+            if (enrollmentIndex != null) {
+                enrollmentIndex.add(pos, obj.getCourses());
+            }
+        }
+
+        @Override
+        protected void indexReplaced(Student old, Student obj, int index) {//the old courses stay behind, rosterPositions skips them
+            super.indexReplaced(old, obj, index);
+            if (enrollmentIndex != null) {
+                enrollmentIndex.insert(index, obj.getCourses());
+            }
+        }
+
+        @Override
+        protected void indexCompacted(int[] newPositions) {//move the roster positions too
+            super.indexCompacted(newPositions);
+            if (enrollmentIndex != null) {
+                enrollmentIndex.remap(newPositions);
+            }
+        }
+
+        @Override
+        protected String lookupKey(Student obj) {//students are looked up by name
+            return obj.getName();
+        }
+    }
+
+
+
+
+
+class CourseList extends BaseList<Course> {
+    
+    // TODO: Complete the CourseList class
+
+    public CourseList() {//default capacity
+        super();
+    }
+
+    public CourseList(int capacity) {//pick the starting capacity
+        super(capacity);
+    }
+
+    public CourseList emptyList() {//new empty list of the same kind
+        return new CourseList();
+    }
+
+    @Override//control
+        public CourseList query(String key) { //doiing the same as studentlist but for courses
+            CourseList result = new CourseList();
+            for (int i : matchPositions(key)) {//uses the search index when it is enabled
+                result.append(get(i));//no duplicates in here so skip the check
+            }
+            return result;// return new list of course
+        }
+
+        public CourseList select(Query q, int limit) {//courses satisfying q in list order, at most limit of them
+            CourseList result = new CourseList();
+            for (int i : Query.select(q, this, limit)) {
+                result.append(get(i));
+            }
+            return result;
+        }
+
+        public CourseList select(Query q) {//every course satisfying q
+            return select(q, Integer.MAX_VALUE);
+        }
+
+        @Override
+        protected String searchText(Course obj) {//courses are searched by title
+            return obj.getTitle();
+        }
+
+        @Override
+        public boolean contains(Object obj) { //searching for course obj
+        if (!(obj instanceof Course)) return false;// return false if not a course
+            return containsKey((Course) obj);//hash lookup instead of scanning every course
+        }
+
+        public Course intern(Course c) {//returns the stored course equal to c, storing c if it is new
+            Integer pos = keyIndex().get(c.getKey());
+            if (pos != null) {
+                return elementAt(pos);//already in the catalog so share that one
+            }
+            add(c);
+            return c;
+        }
+
+        @Override//control
+     public Course findMatch(String key) { //gets course that matches key
+            PositionList found = lookupPositions(key);//hash lookup by code ignoring case
+            if (!found.isEmpty()) {
+                return get(found.get(0));//course is found
+            }
+            return null; //courses has no match
+    }
+
+        public CourseList findAllMatches(String key) {//returns every course with that code
+            CourseList result = new CourseList();
+            PositionList found = lookupPositions(key);//a view, not a copy
+            for (int i = 0; i < found.size(); i++) {
+                result.append(get(found.get(i)));
+            }
+            return result;
+        }
+
+        @Override
+        protected String lookupKey(Course obj) {//courses are looked up by code
+            return obj.getCode();
+        }
+}
@@ -0,0 +1,106 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code IncrementalStudentSearch} class speeds up search-as-you-type
+ * filtering of a {@link StudentList} by reusing earlier results.
+ *
+ * <p>A student whose name contains a key also contains every substring of
+ * that key, so the matches of a key are a subset of the matches of any
+ * substring of it. When a query is extended by another keystroke, only the
+ * previous result needs to be searched instead of the whole list. A small
+ * least-recently-used cache of recent results also answers repeated queries,
+ * such as those produced by backspacing, without searching at all.</p>
+ *
+ * <p>Keys are compared ignoring case, like {@link StudentList#query(String)}.
+ * This class is not thread-safe; the cached lists must not be modified.</p>
+ */
+public class IncrementalStudentSearch {
+
+    /** The number of recent results kept */
+    private static final int CACHE_SIZE = 32;
+
+
+    /** The full list of students being searched */
+    private StudentList students;
+
+    /** Recent results by lowercased key, least recently used first */
+    private LinkedHashMap<String, StudentList> cache;
+
+
+    /**
+     * Constructs a search over the given list of students.
+     *
+     * @param students the list to search
+     */
+    public IncrementalStudentSearch(StudentList students) {
+        this.students = students;
+
+        // evict the least recently used result once the cache is full
+        this.cache = new LinkedHashMap<String, StudentList>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StudentList> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Returns the students matching the given key, searching only the
+     * smallest earlier result that is known to contain all of them.
+     *
+     * @param key the search key
+     * @return a StudentList of the matching students
+     */
+    public StudentList search(String key) {
+        StudentList result = getCached(key);
+
+        if(result == null) {
+            result = baseFor(key).query(key);
+            remember(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the cached result for the given key, if there is one.
+     *
+     * @param key the search key
+     * @return the cached matches, or null if the key was not searched recently
+     */
+    public StudentList getCached(String key) {
+        return this.cache.get(key.toLowerCase());
+    }
+
+    /**
+     * Returns the smallest list that is known to contain every match of the given key:
+     * the smallest cached result of a substring of the key, or the full list if there is none.
+     *
+     * @param key the search key
+     * @return the list to search for the key
+     */
+    public StudentList baseFor(String key) {
+        key = key.toLowerCase();
+
+        StudentList base = this.students;
+
+        for(Map.Entry<String, StudentList> entry : this.cache.entrySet()) {
+            if(key.contains(entry.getKey()) && entry.getValue().size() < base.size())
+                base = entry.getValue();
+        }
+
+        return base;
+    }
+
+    /**
+     * Caches the result of searching for the given key.
+     *
+     * @param key the search key
+     * @param result the complete list of matches, which must not be modified afterwards
+     */
+    public void remember(String key, StudentList result) {
+        this.cache.put(key.toLowerCase(), result);
+    }
+
+}
@@ -0,0 +1,153 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code LatencyHistogram} class records a distribution of durations in
+ * constant memory, in the style of an HDR histogram.
+ *
+ * <p>Values below {@code 2 * SUB_BUCKETS} nanoseconds are counted exactly. Larger
+ * values fall into buckets that split every power of two into {@code SUB_BUCKETS}
+ * equal parts, so any recorded value is known to within about 3%, whatever its
+ * magnitude. Recording is lock-free and takes constant time, and any number of
+ * threads may record at once.</p>
+ */
+public class LatencyHistogram {
+
+    /** The number of buckets each power of two is split into */
+    private static final int SUB_BUCKETS = 32;
+
+    /** The base-2 logarithm of {@code SUB_BUCKETS} */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /** The number of buckets needed to cover every non-negative long */
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+
+    /** The number of values recorded in every bucket */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /** The number of values recorded */
+    private final LongAdder count = new LongAdder();
+
+    /** The sum of the values recorded */
+    private final LongAdder sum = new LongAdder();
+
+    /** The largest value recorded */
+    private final AtomicLong max = new AtomicLong();
+
+
+    /**
+     * Records a duration. Negative values are recorded as 0.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        nanos = Math.max(nanos, 0);
+
+        this.counts.incrementAndGet(bucket(nanos));
+        this.count.increment();
+        this.sum.add(nanos);
+        this.max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Returns the mean of the values recorded.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = this.count.sum();
+
+        return n == 0 ? 0 : (double) this.sum.sum() / n;
+    }
+
+    /**
+     * Returns the largest value recorded.
+     *
+     * @return the maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Returns the value below or at which the given fraction of the recorded values lie,
+     * rounded up to the end of its bucket but never above the maximum.
+     *
+     * @param fraction the fraction of values, between 0 and 1, such as 0.99
+     * @return the percentile in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentile(double fraction) {
+        long n = this.count.sum();
+
+        if(n == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * n));
+        long seen = 0;
+
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+
+            if(seen >= rank)
+                return Math.min(highestValue(i), getMax());
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Forgets every recorded value. Values recorded while resetting may be partly kept.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKETS; i++)
+            this.counts.set(i, 0);
+
+        this.count.reset();
+        this.sum.reset();
+        this.max.set(0);
+    }
+
+    /**
+     * Returns the bucket of a value.
+     *
+     * @param value a non-negative value
+     * @return the index of its bucket
+     */
+    private static int bucket(long value) {
+        if(value < 2 * SUB_BUCKETS)
+            return (int) value;
+
+        // keep the highest SUB_BUCKET_BITS + 1 bits of the value
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value falling into a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the largest value of the bucket
+     */
+    private static long highestValue(int bucket) {
+        if(bucket < 2 * SUB_BUCKETS)
+            return bucket;
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+}
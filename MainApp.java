@@ -1,34 +1,94 @@
-import javax.swing.SwingUtilities;
-import java.io.FileNotFoundException;
-
-/**
- * The {@code MainApp} class serves as the entry point for the
- * Student Information System application. It loads student and course
- * data from a file and launches the graphical user interface.
- */
-public class MainApp {
-    
-    /** The name of the input data file containing student and course information */
-    private static final String FILE_NAME = "input_updated.txt";
-
-    /**
-     * The main method that initializes the Controller, loads data,
-     * and starts the UI on the Event Dispatch Thread.
-     * 
-     * @param args command-line arguments (not used)
-     * @throws FileNotFoundException if the data file specified by FILE_NAME is not found
-     */
-    public static void main(String[] args) throws FileNotFoundException {
-        Controller controller = new Controller();
-        
-        // load the file
-        controller.loadData(FILE_NAME);
-        
-        SwingUtilities.invokeLater(new Runnable() {
-            public void run() {
-                new StudentListUI(controller);
-            }
-        });
-    }
-
-}
+import javax.swing.SwingUtilities;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * The {@code MainApp} class serves as the entry point for the
+ * Student Information System application. It loads student and course
+ * data from a file and launches the graphical user interface.
+ */
+public class MainApp {
+    
+    /** The name of the input data file containing student and course information */
+    private static final String FILE_NAME = "input_updated.txt";
+    
+    /** The name of the binary snapshot of the input data file, used for fast startup */
+    private static final String SNAPSHOT_NAME = "input_updated.snap";
+    
+    /** The name of the log of changes made to the input data since it was written */
+    private static final String CHANGE_LOG_NAME = "input_updated.log";
+
+    /**
+     * The main method that initializes the Controller, loads data,
+     * and starts the UI on the Event Dispatch Thread.
+     * 
+     * <p>The data is loaded from the snapshot named by SNAPSHOT_NAME when it is
+     * newer than the data file. Otherwise, or if the snapshot cannot be read,
+     * the data file is parsed. The changes
+     * logged in CHANGE_LOG_NAME since are then applied, and a new snapshot is
+     * written for the next start if anything changed. The data file is then
+     * watched and reloaded whenever it changes, and the events added to the
+     * change log while the application runs are applied as they arrive.</p>
+     * 
+     * @param args command-line arguments (not used)
+     * @throws FileNotFoundException if the data file specified by FILE_NAME is not found
+     * @throws IOException if the change log exists but cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        Controller controller = new Controller();
+        
+        // index the names and titles for filtering
+        controller.enableSearchIndex();
+        
+        File data = new File(FILE_NAME);
+        File snapshot = new File(SNAPSHOT_NAME);
+        
+        boolean fromSnapshot = snapshot.isFile() && snapshot.lastModified() >= data.lastModified();
+        
+        if(fromSnapshot) {
+            // cold-start from the snapshot
+            try {
+                controller.loadSnapshot(SNAPSHOT_NAME);
+            }
+            catch(IOException e) {
+                // the data file is intact, so start from it and replace the snapshot
+                System.err.println("Could not load snapshot, loading " + FILE_NAME + " instead: " + e.getMessage());
+                fromSnapshot = false;
+            }
+        }
+        
+        if(!fromSnapshot) {
+            // load the file
+            controller.loadData(FILE_NAME);
+        }
+        
+        // catch up with the changes made since
+        int changes = controller.applyChanges(CHANGE_LOG_NAME);
+        
+        if(!fromSnapshot || changes > 0) {
+            // speed up the next start, but do not fail this one
+            try {
+                controller.saveSnapshot(SNAPSHOT_NAME);
+            }
+            catch(IOException e) {
+                System.err.println("Could not save snapshot: " + e.getMessage());
+            }
+        }
+        
+        // pick up new versions of the data file and new events while running
+        try {
+            new DataFileWatcher(controller, FILE_NAME, CHANGE_LOG_NAME).start();
+        }
+        catch(IOException e) {
+            System.err.println("Could not watch " + FILE_NAME + ": " + e.getMessage());
+        }
+        
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+                new StudentListUI(controller);
+            }
+        });
+    }
+
+}
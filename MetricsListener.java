@@ -0,0 +1,29 @@
+/**
+ * The {@code MetricsListener} interface is told about every operation
+ * recorded by a {@link ControllerMetrics}, for example to forward the
+ * measurements to a monitoring system.
+ *
+ * <p>Listeners are called on the thread that ran the operation, right after it
+ * completes, so they should return quickly and must be thread-safe.</p>
+ */
+public interface MetricsListener {
+
+    /**
+     * Called after a controller operation completes.
+     *
+     * @param operation the operation
+     * @param nanos the time the operation took, in nanoseconds
+     * @param rows the number of rows the operation scanned
+     */
+    void operationCompleted(ControllerMetrics.Operation operation, long nanos, long rows);
+
+    /**
+     * Called after a data file has been parsed. Does nothing by default.
+     *
+     * @param bytes the number of bytes parsed
+     * @param nanos the time parsing took, in nanoseconds
+     */
+    default void dataParsed(long bytes, long nanos) {
+    }
+
+}
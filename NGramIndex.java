@@ -0,0 +1,234 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The {@code NGramIndex} class is an inverted index from the trigrams
+ * (runs of three consecutive characters) of a set of texts to the positions
+ * of the texts containing them.
+ *
+ * <p>Any text containing a search key also contains every trigram of that key,
+ * so intersecting the posting lists of the key's trigrams yields a small set of
+ * candidate positions. Candidates may still be false positives and must be
+ * verified by the caller. Keys shorter than three characters cannot be answered
+ * by the index.</p>
+ *
+ * <p>Texts are expected to be lowercased by the caller, and positions must be
+ * added in increasing order so that the posting lists stay sorted. Texts replaced
+ * out of order are {@link #insert(int, String) inserted} instead, and the positions
+ * can be {@link #remap(int[]) remapped} when the indexed list is compacted.</p>
+ */
+public class NGramIndex {
+
+    /** The length of the indexed character runs */
+    public static final int N = 3;
+
+
+    /** Maps each packed trigram to the positions of the texts containing it */
+    private HashMap<Long, Postings> postings;
+
+
+    /**
+     * Constructs an empty index.
+     */
+    public NGramIndex() {
+        this.postings = new HashMap<>();
+    }
+
+    /**
+     * Adds a text stored at the given position. Positions must be added in increasing order.
+     *
+     * @param position the position of the text in its list
+     * @param text the lowercased text to index
+     */
+    public void add(int position, String text) {
+        for(int i = 0; i + N <= text.length(); i++) {
+            Postings list = this.postings.computeIfAbsent(pack(text, i), k -> new Postings());
+
+            // a trigram occurring twice in the same text is only recorded once
+            if(list.size == 0 || list.ids[list.size - 1] != position)
+                list.add(position);
+        }
+    }
+
+    /**
+     * Adds a text stored at a position that may lie before positions already added,
+     * such as the new text of an element replaced in place. The trigrams of the text
+     * it replaces are left behind; they only produce candidates that fail verification.
+     *
+     * @param position the position of the text in its list
+     * @param text the lowercased text to index
+     */
+    public void insert(int position, String text) {
+        for(int i = 0; i + N <= text.length(); i++)
+            this.postings.computeIfAbsent(pack(text, i), k -> new Postings()).insert(position);
+    }
+
+    /**
+     * Moves every position to a new one after the list has been compacted.
+     * Positions mapped to {@code -1} are dropped. The mapping must preserve
+     * the order of the positions it keeps.
+     *
+     * @param newPositions the new position of every old position, or -1 if it was removed
+     */
+    public void remap(int[] newPositions) {
+        this.postings.values().removeIf(list -> {
+            int kept = 0;
+
+            for(int i = 0; i < list.size; i++) {
+                int moved = newPositions[list.ids[i]];
+
+                if(moved >= 0)
+                    list.ids[kept++] = moved;
+            }
+
+            list.size = kept;
+
+            return kept == 0;
+        });
+    }
+
+    /**
+     * Returns the positions of the texts that may contain the given key, in increasing order.
+     * Every text that does contain the key is included.
+     *
+     * @param key the lowercased search key
+     * @return the candidate positions, or null if the key is too short to use the index
+     */
+    public int[] candidates(String key) {
+        return candidates(key, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the positions within the given range of the texts that may contain
+     * the given key, in increasing order. Every text in the range that does contain
+     * the key is included.
+     *
+     * @param key the lowercased search key
+     * @param from the first position to consider
+     * @param to the position just past the last one to consider
+     * @return the candidate positions, or null if the key is too short to use the index
+     */
+    public int[] candidates(String key, int from, int to) {
+        if(key.length() < N)
+            return null;
+
+        // collect the posting list of every trigram of the key
+        Postings[] lists = new Postings[key.length() - N + 1];
+
+        for(int i = 0; i < lists.length; i++) {
+            lists[i] = this.postings.get(pack(key, i));
+
+            // some trigram never occurs, so no text can match
+            if(lists[i] == null)
+                return new int[0];
+        }
+
+        // intersect starting with the shortest list to keep intermediate results small
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int start = lowerBound(lists[0], from);
+        int[] result = Arrays.copyOfRange(lists[0].ids, start, lowerBound(lists[0], to));
+        int count = result.length;
+
+        for(int i = 1; i < lists.length && count > 0; i++)
+            count = intersect(result, count, lists[i]);
+
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Returns the index of the first position in a posting list that is not less than the given one.
+     *
+     * @param list the posting list to search
+     * @param position the position to look for
+     * @return the index of the first position at least {@code position}
+     */
+    private static int lowerBound(Postings list, int position) {
+        int found = Arrays.binarySearch(list.ids, 0, list.size, position);
+
+        return found >= 0 ? found : -found - 1;
+    }
+
+    /**
+     * Keeps only the ids in {@code ids[0..count)} that also occur in the given posting list.
+     *
+     * @param ids the sorted ids to filter, overwritten in place
+     * @param count the number of valid ids
+     * @param list the posting list to intersect with
+     * @return the number of ids kept
+     */
+    private static int intersect(int[] ids, int count, Postings list) {
+        int kept = 0;
+        int from = count > 0 ? lowerBound(list, ids[0]) : 0;
+
+        for(int i = 0; i < count; i++) {
+            // binary search the rest of the longer list
+            int found = Arrays.binarySearch(list.ids, from, list.size, ids[i]);
+
+            if(found >= 0) {
+                ids[kept++] = ids[i];
+                from = found + 1;
+            }
+            else {
+                from = -found - 1;
+            }
+        }
+
+        return kept;
+    }
+
+    /**
+     * Packs the three characters of a text starting at the given index into a single key.
+     *
+     * @param text the text holding the trigram
+     * @param i the index of the first character
+     * @return the packed trigram
+     */
+    private static long pack(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+
+    /**
+     * A growable, sorted list of positions.
+     */
+    private static class Postings {
+
+        /** The positions, in increasing order */
+        int[] ids = new int[4];
+
+        /** The number of valid positions */
+        int size;
+
+        /**
+         * Appends a position.
+         *
+         * @param id the position to append
+         */
+        void add(int id) {
+            if(this.size == this.ids.length)
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+
+            this.ids[this.size++] = id;
+        }
+
+        /**
+         * Inserts a position in order, unless it is already present.
+         *
+         * @param id the position to insert
+         */
+        void insert(int id) {
+            int found = lowerBound(this, id);
+
+            if(found < this.size && this.ids[found] == id)
+                return;
+
+            if(this.size == this.ids.length)
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+
+            System.arraycopy(this.ids, found, this.ids, found + 1, this.size - found);
+            this.ids[found] = id;
+            this.size++;
+        }
+    }
+
+}
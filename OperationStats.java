@@ -0,0 +1,145 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code OperationStats} class collects the latencies and the rows
+ * scanned of the calls of one controller operation.
+ *
+ * <p>It is thread-safe, and registered as a standard MBean by
+ * {@link ControllerMetrics#registerMBeans(String)}.</p>
+ */
+public class OperationStats implements OperationStatsMBean {
+
+    /** The number of nanoseconds in a microsecond */
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+
+    /** The latencies of the calls */
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /** The rows scanned by all calls */
+    private final LongAdder rowsScanned = new LongAdder();
+
+
+    /**
+     * Records one call.
+     *
+     * @param nanos the time the call took, in nanoseconds
+     * @param rows the number of rows the call scanned
+     */
+    public void record(long nanos, long rows) {
+        this.latencies.record(nanos);
+        this.rowsScanned.add(rows);
+    }
+
+    /**
+     * Returns the histogram of the latencies of the calls, in nanoseconds.
+     *
+     * @return the latency histogram
+     */
+    public LatencyHistogram getLatencies() {
+        return this.latencies;
+    }
+
+    /**
+     * Returns the number of calls recorded.
+     *
+     * @return the call count
+     */
+    @Override
+    public long getCount() {
+        return this.latencies.getCount();
+    }
+
+    /**
+     * Returns the mean latency of the calls.
+     *
+     * @return the mean in microseconds
+     */
+    @Override
+    public double getMeanMicros() {
+        return this.latencies.getMean() / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Returns the median latency of the calls.
+     *
+     * @return the 50th percentile in microseconds
+     */
+    @Override
+    public double getP50Micros() {
+        return this.latencies.getPercentile(0.50) / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Returns the latency 90% of the calls stay within.
+     *
+     * @return the 90th percentile in microseconds
+     */
+    @Override
+    public double getP90Micros() {
+        return this.latencies.getPercentile(0.90) / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Returns the latency 99% of the calls stay within.
+     *
+     * @return the 99th percentile in microseconds
+     */
+    @Override
+    public double getP99Micros() {
+        return this.latencies.getPercentile(0.99) / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Returns the longest latency of the calls.
+     *
+     * @return the maximum in microseconds
+     */
+    @Override
+    public double getMaxMicros() {
+        return this.latencies.getMax() / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Returns the number of rows scanned by all calls.
+     *
+     * @return the rows scanned
+     */
+    @Override
+    public long getRowsScanned() {
+        return this.rowsScanned.sum();
+    }
+
+    /**
+     * Returns the mean number of rows scanned per call.
+     *
+     * @return the rows scanned per call
+     */
+    @Override
+    public double getRowsPerCall() {
+        long count = getCount();
+
+        return count == 0 ? 0 : (double) getRowsScanned() / count;
+    }
+
+    /**
+     * Forgets the calls recorded so far. Calls recorded while resetting may be partly kept.
+     */
+    @Override
+    public void reset() {
+        this.latencies.reset();
+        this.rowsScanned.reset();
+    }
+
+    /**
+     * Returns a one-line summary of the calls, in microseconds.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1f p50=%.1f p90=%.1f p99=%.1f max=%.1f rows/call=%.1f",
+                getCount(), getMeanMicros(), getP50Micros(), getP90Micros(), getP99Micros(), getMaxMicros(), getRowsPerCall());
+    }
+
+}
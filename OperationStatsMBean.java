@@ -0,0 +1,68 @@
+/**
+ * The management interface of {@link OperationStats}, which JMX clients
+ * such as JConsole see as the attributes of one controller operation.
+ */
+public interface OperationStatsMBean {
+
+    /**
+     * Returns the number of calls recorded.
+     *
+     * @return the call count
+     */
+    long getCount();
+
+    /**
+     * Returns the mean latency of the calls.
+     *
+     * @return the mean in microseconds
+     */
+    double getMeanMicros();
+
+    /**
+     * Returns the median latency of the calls.
+     *
+     * @return the 50th percentile in microseconds
+     */
+    double getP50Micros();
+
+    /**
+     * Returns the latency 90% of the calls stay within.
+     *
+     * @return the 90th percentile in microseconds
+     */
+    double getP90Micros();
+
+    /**
+     * Returns the latency 99% of the calls stay within.
+     *
+     * @return the 99th percentile in microseconds
+     */
+    double getP99Micros();
+
+    /**
+     * Returns the longest latency of the calls.
+     *
+     * @return the maximum in microseconds
+     */
+    double getMaxMicros();
+
+    /**
+     * Returns the number of rows scanned by all calls.
+     *
+     * @return the rows scanned
+     */
+    long getRowsScanned();
+
+    /**
+     * Returns the mean number of rows scanned per call.
+     *
+     * @return the rows scanned per call
+     */
+    double getRowsPerCall();
+
+    /**
+     * Forgets the calls recorded so far.
+     */
+    void reset();
+
+}
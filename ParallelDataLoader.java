@@ -0,0 +1,194 @@
+import java.io.FileNotFoundException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The {@code ParallelDataLoader} class loads the student data file on several
+ * threads at once.
+ *
+ * <p>Loading happens in three steps:</p>
+ * <ol>
+ *   <li>The file is scanned once with {@link StudentDataReader#skipStudent()} to find
+ *       where every student record begins, without creating any objects.</li>
+ *   <li>The records are split into chunks that are parsed independently on a
+ *       {@link ForkJoinPool}, each into its own {@link StudentList}.</li>
+ *   <li>The chunks are merged in file order, interning every course into the shared
+ *       {@link CourseList}. The resulting lists are therefore identical, in content and
+ *       order, to those produced by {@link Controller#loadData(String)}.</li>
+ * </ol>
+ *
+ * <p>Every chunk interns its repeated strings into a {@link StringPool} of its own.
+ * Courses end up shared through the catalog, and thesis topics are interned into one
+ * more pool while merging, so no value is kept more than once.</p>
+ */
+public class ParallelDataLoader {
+
+    /** The number of chunks created per worker thread, to even out uneven chunks */
+    private static final int CHUNKS_PER_THREAD = 8;
+
+
+    /** The pool the chunks are parsed on */
+    private ForkJoinPool pool;
+
+
+    /**
+     * Constructs a loader that parses on the common {@link ForkJoinPool}.
+     */
+    public ParallelDataLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a loader that parses on the given pool.
+     *
+     * @param pool the pool to run the chunk parsers on
+     */
+    public ParallelDataLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Loads the file with the specified filename into the given lists.
+     *
+     * @param filename the path to the data file
+     * @param students the list receiving the students, in file order
+     * @param courses the list receiving the courses, in order of first appearance
+     * @throws FileNotFoundException if the specified file does not exist
+     * @throws java.util.InputMismatchException if the file is malformed
+     */
+    public void load(String filename, StudentList students, CourseList courses) throws FileNotFoundException {
+        try( StudentDataReader scanner = new StudentDataReader(filename) ) {
+            List<Chunk> chunks = findChunks(scanner);
+
+            // parse the chunks in parallel, all sharing the scanner's channel
+            List<ForkJoinTask<StudentList>> tasks = new ArrayList<>();
+            StringPool topics = new StringPool();
+
+            for(Chunk chunk : chunks)
+                tasks.add( this.pool.submit(() -> parse(scanner.getChannel(), chunk)) );
+
+            try {
+                // merge in file order while later chunks are still being parsed
+                for(ForkJoinTask<StudentList> task : tasks)
+                    merge(task.join(), students, courses, topics);
+            }
+            finally {
+                for(ForkJoinTask<StudentList> task : tasks)
+                    task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Scans the whole file and splits its student records into chunks.
+     *
+     * @param scanner a reader positioned at the beginning of the file
+     * @return the chunks in file order
+     */
+    private List<Chunk> findChunks(StudentDataReader scanner) {
+        int T = scanner.nextInt();
+        scanner.skipLine();
+
+        int perChunk = Math.max(1, T / (this.pool.getParallelism() * CHUNKS_PER_THREAD));
+
+        List<Chunk> chunks = new ArrayList<>();
+        Chunk current = null;
+
+        for(int i = 0; i < T; i++) {
+            // start a new chunk at this record
+            if(i % perChunk == 0) {
+                if(current != null)
+                    current.end = scanner.getPosition();
+
+                current = new Chunk(scanner.getPosition(), scanner.getLine(), Math.min(perChunk, T - i));
+                chunks.add(current);
+            }
+
+            scanner.skipStudent();
+        }
+
+        if(current != null)
+            current.end = scanner.getPosition();
+
+        return chunks;
+    }
+
+    /**
+     * Parses the records of one chunk. Courses are interned into a list local to
+     * the chunk, so equal courses within the chunk already share one object.
+     *
+     * @param channel the channel of the data file
+     * @param chunk the chunk to parse
+     * @return the students of the chunk, in file order
+     */
+    private static StudentList parse(FileChannel channel, Chunk chunk) {
+        StudentList students = new StudentList();
+        CourseList courses = new CourseList();
+
+        StudentDataReader input = new StudentDataReader(channel, chunk.start, chunk.end, chunk.line);
+
+        for(int i = 0; i < chunk.count; i++)
+            students.add( input.readStudent(courses) );
+
+        return students;
+    }
+
+    /**
+     * Adds the students of a parsed chunk to the shared lists, replacing each of
+     * their courses by the catalog's instance and their thesis topic by the pooled one.
+     *
+     * @param chunk the students of one chunk
+     * @param students the list receiving the students
+     * @param courses the catalog the courses are interned into
+     * @param topics the pool the thesis topics of all chunks are interned into
+     */
+    private static void merge(StudentList chunk, StudentList students, CourseList courses, StringPool topics) {
+        for(int i = 0; i < chunk.size(); i++) {
+            Student stud = chunk.get(i);
+
+            if(stud instanceof GraduateStudent) {
+                GraduateStudent gs = (GraduateStudent) stud;
+                gs.setThesisTopic( topics.intern(gs.getThesisTopic()) );
+            }
+
+            stud.internCourses(courses);
+
+            students.add( stud );
+        }
+    }
+
+    /**
+     * A run of consecutive student records in the data file.
+     */
+    private static class Chunk {
+
+        /** The file position where the first record begins */
+        final long start;
+
+        /** The line number of the first record */
+        final int line;
+
+        /** The number of records in the chunk */
+        final int count;
+
+        /** The file position just past the last record */
+        long end;
+
+        /**
+         * Constructs a chunk beginning at the given position.
+         *
+         * @param start the file position where the first record begins
+         * @param line the line number of the first record
+         * @param count the number of records in the chunk
+         */
+        Chunk(long start, int line, int count) {
+            this.start = start;
+            this.line = line;
+            this.count = count;
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+import java.util.Arrays;
+
+/**
+ * The {@code PositionList} class is an immutable, sorted list of element positions,
+ * such as the positions of the elements sharing a lookup key.
+ *
+ * <p>Lists are grown by {@link #append(int) appending} a position larger than all
+ * the others, which returns a new list sharing the array of the old one. The array
+ * grows by doubling, so a list of k positions built one position at a time costs
+ * O(k) in total. The old list only reads the slots below its own size, which are
+ * never written again, so it keeps its contents; a list handed out to a reader is a
+ * read-only view that does not need to be copied. Only the newest list built from an
+ * array may be appended to.</p>
+ *
+ * <p>Since the fields are final, a list published through a concurrent map can be
+ * read by other threads without further synchronization.</p>
+ */
+public final class PositionList {
+
+    /** The list without positions */
+    static final PositionList EMPTY = new PositionList(new int[0], 0);
+
+
+    /** The array holding the positions; only the first {@code size} belong to this list */
+    private final int[] positions;
+
+    /** The number of positions in this list */
+    private final int size;
+
+
+    /**
+     * Constructs a list over the first positions of an array.
+     *
+     * @param positions the array holding the positions, in increasing order
+     * @param size the number of positions
+     */
+    private PositionList(int[] positions, int size) {
+        this.positions = positions;
+        this.size = size;
+    }
+
+    /**
+     * Returns a list holding a single position.
+     *
+     * @param pos the position
+     * @return a new list of one position
+     */
+    static PositionList of(int pos) {
+        return new PositionList(new int[] { pos }, 1);
+    }
+
+    /**
+     * Returns a list over an array of positions, which the list takes over.
+     *
+     * @param positions the positions, in increasing order
+     * @return a new list of the positions
+     */
+    static PositionList of(int[] positions) {
+        return new PositionList(positions, positions.length);
+    }
+
+    /**
+     * Returns the number of positions in the list.
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Determines whether the list has no positions.
+     *
+     * @return true if the list is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the position at the given index of the list.
+     *
+     * @param index the index, from 0 to {@code size() - 1}
+     * @return the position at that index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public int get(int index) {
+        if(index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.size);
+
+        return this.positions[index];
+    }
+
+    /**
+     * Copies the positions into a new array, for callers that modify them.
+     *
+     * @return the positions, in increasing order
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.positions, this.size);
+    }
+
+    /**
+     * Returns the list with a position appended. The position must be larger than
+     * every position in the list, and no other list may have been appended to this one.
+     *
+     * @param pos the position to append
+     * @return a list holding the positions of this one followed by {@code pos}
+     */
+    PositionList append(int pos) {
+        int[] array = this.positions;
+
+        if(this.size == array.length)
+            array = Arrays.copyOf(array, Math.max(this.size * 2, 1));
+
+        array[this.size] = pos;
+
+        return new PositionList(array, this.size + 1);
+    }
+
+    /**
+     * Returns the list with a position inserted in order, copying the positions.
+     *
+     * @param pos the position to insert
+     * @return a new list holding the positions of this one and {@code pos}
+     */
+    PositionList insert(int pos) {
+        int found = Arrays.binarySearch(this.positions, 0, this.size, pos);
+
+        if(found >= 0)
+            return this;
+
+        found = -found - 1;
+
+        int[] array = new int[this.size + 1];
+        System.arraycopy(this.positions, 0, array, 0, found);
+        array[found] = pos;
+        System.arraycopy(this.positions, found, array, found + 1, this.size - found);
+
+        return new PositionList(array, array.length);
+    }
+
+    /**
+     * Returns the list without the given position, copying the remaining positions.
+     *
+     * @param pos the position to leave out
+     * @return a new list holding the other positions, or null if none remain
+     */
+    PositionList without(int pos) {
+        int found = Arrays.binarySearch(this.positions, 0, this.size, pos);
+
+        if(found < 0)
+            return this;
+
+        if(this.size == 1)
+            return null;
+
+        int[] array = new int[this.size - 1];
+        System.arraycopy(this.positions, 0, array, 0, found);
+        System.arraycopy(this.positions, found + 1, array, found, this.size - found - 1);
+
+        return new PositionList(array, array.length);
+    }
+
+    /**
+     * Returns the list with every position moved to its place after compaction,
+     * dropping removed ones.
+     *
+     * @param newPositions the new position of every old position, or -1 if it was removed
+     * @return a new list holding the moved positions, or null if none remain
+     */
+    PositionList remap(int[] newPositions) {
+        int[] array = new int[this.size];
+        int count = 0;
+
+        for(int i = 0; i < this.size; i++) {
+            int moved = newPositions[this.positions[i]];
+
+            if(moved >= 0)
+                array[count++] = moved;
+        }
+
+        return count == 0 ? null : new PositionList(array, count);
+    }
+
+    /**
+     * Returns a view of the positions below a limit, sharing the array of this list.
+     *
+     * @param limit the first position to leave out
+     * @return the list of the positions smaller than {@code limit}
+     */
+    PositionList below(int limit) {
+        int count = this.size;
+
+        while(count > 0 && this.positions[count - 1] >= limit)
+            count--;
+
+        return count == this.size ? this : new PositionList(this.positions, count);
+    }
+
+}
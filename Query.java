@@ -0,0 +1,500 @@
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code Query} class describes a condition on the elements of a {@link BaseList}
+ * that can combine typed tests on students and courses with {@link #and(Query)},
+ * {@link #or(Query)} and {@link #not(Query)}, for example:
+ *
+ * <pre>
+ * Query q = Query.status("Undergraduate").and(Query.yearLevel(4))
+ *         .and(Query.creditsBetween(0, 11).or(Query.enrolledIn("COP3330")));
+ * StudentList found = students.select(q, 100);
+ * </pre>
+ *
+ * <p>Queries are run by {@link StudentList#select(Query, int)} and
+ * {@link CourseList#select(Query, int)}. A planner first asks the query for
+ * candidate positions from the indexes the list has already built, without
+ * building any: the trigram search index for name and title substrings,
+ * the lookup index for exact names and codes, the enrollment index for course
+ * codes, and a cached {@link SortedStudentIndex} for credit ranges. The candidates
+ * of the terms of an AND are intersected and those of an OR are united. If the
+ * indexes narrow the query down, only the candidates are tested; otherwise the
+ * whole list is tested with a parallel stream. Either way the elements are returned
+ * in list order, and testing stops as soon as the limit is reached.</p>
+ *
+ * <p>Tests on students never match courses and vice versa. Substring tests
+ * ignore case. Queries are immutable and can be reused.</p>
+ */
+public abstract class Query {
+
+    /** The smallest list that is scanned in parallel */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+
+    /**
+     * Tells whether an element satisfies the query.
+     *
+     * @param obj an element of the list
+     * @return true if it satisfies the query; false otherwise
+     */
+    public abstract boolean test(Object obj);
+
+    /**
+     * Returns the indexes, in increasing order, of a superset of the elements
+     * of a list satisfying the query, using only indexes the list has already built.
+     * Must not modify the list.
+     *
+     * @param list the list the query runs on
+     * @return the candidate indexes, or null if the indexes cannot narrow the query down
+     */
+    abstract int[] candidates(BaseList<?> list);
+
+    /**
+     * Returns a query satisfied by the elements satisfying both this query and the other.
+     * The other query is only tested if this one is satisfied.
+     *
+     * @param other the other query
+     * @return the conjunction
+     */
+    public Query and(Query other) {
+        Query self = this;
+
+        return new Query() {
+            @Override
+            public boolean test(Object obj) {
+                return self.test(obj) && other.test(obj);
+            }
+
+            @Override
+            int[] candidates(BaseList<?> list) {
+                int[] a = self.candidates(list);
+                int[] b = other.candidates(list);
+
+                if(a == null) return b;
+                if(b == null) return a;
+
+                return intersect(a, b);
+            }
+
+            @Override
+            public String toString() {
+                return "(" + self + " AND " + other + ")";
+            }
+        };
+    }
+
+    /**
+     * Returns a query satisfied by the elements satisfying this query, the other or both.
+     * The other query is only tested if this one is not satisfied.
+     *
+     * @param other the other query
+     * @return the disjunction
+     */
+    public Query or(Query other) {
+        Query self = this;
+
+        return new Query() {
+            @Override
+            public boolean test(Object obj) {
+                return self.test(obj) || other.test(obj);
+            }
+
+            @Override
+            int[] candidates(BaseList<?> list) {
+                int[] a = self.candidates(list);
+
+                // a term without candidates may match anything
+                if(a == null) return null;
+
+                int[] b = other.candidates(list);
+
+                return b == null ? null : union(a, b);
+            }
+
+            @Override
+            public String toString() {
+                return "(" + self + " OR " + other + ")";
+            }
+        };
+    }
+
+    /**
+     * Returns a query satisfied by the elements not satisfying the given one.
+     * Negations cannot use indexes.
+     *
+     * @param query the query to negate
+     * @return the negation
+     */
+    public static Query not(Query query) {
+        return new Query() {
+            @Override
+            public boolean test(Object obj) {
+                return !query.test(obj);
+            }
+
+            @Override
+            int[] candidates(BaseList<?> list) {
+                return null;
+            }
+
+            @Override
+            public String toString() {
+                return "NOT " + query;
+            }
+        };
+    }
+
+    /**
+     * Returns a query satisfied by students whose name contains the given text, ignoring case.
+     * Uses the search index of a student list if it is enabled.
+     *
+     * @param text the text to look for
+     * @return the query
+     */
+    public static Query nameContains(String text) {
+        String key = text.toLowerCase();
+
+        return leaf("name~" + text,
+                obj -> obj instanceof Student && ((Student) obj).getName().toLowerCase().contains(key),
+                list -> list instanceof StudentList ? searchCandidates(list, key) : null);
+    }
+
+    /**
+     * Returns a query satisfied by students with the given name, ignoring case.
+     * Uses the lookup index of a student list if it has been built.
+     *
+     * @param name the name
+     * @return the query
+     */
+    public static Query nameIs(String name) {
+        return leaf("name=" + name,
+                obj -> obj instanceof Student && ((Student) obj).getName().equalsIgnoreCase(name),
+                list -> list instanceof StudentList ? lookupCandidates(list, name) : null);
+    }
+
+    /**
+     * Returns a query satisfied by students of the given {@link Student#getStatus() status},
+     * such as "Graduate" or "Undergraduate", ignoring case.
+     *
+     * @param status the status
+     * @return the query
+     */
+    public static Query status(String status) {
+        return leaf("status=" + status,
+                obj -> obj instanceof Student && ((Student) obj).getStatus().equalsIgnoreCase(status),
+                list -> null);
+    }
+
+    /**
+     * Returns a query satisfied by undergraduates in the given year level.
+     *
+     * @param yearLevel the year level
+     * @return the query
+     */
+    public static Query yearLevel(int yearLevel) {
+        return leaf("yearLevel=" + yearLevel,
+                obj -> obj instanceof UndergraduateStudent && ((UndergraduateStudent) obj).getYearLevel() == yearLevel,
+                list -> null);
+    }
+
+    /**
+     * Returns a query satisfied by graduate students whose thesis topic contains
+     * the given text, ignoring case.
+     *
+     * @param text the text to look for
+     * @return the query
+     */
+    public static Query thesisTopicContains(String text) {
+        String key = text.toLowerCase();
+
+        return leaf("thesisTopic~" + text,
+                obj -> {
+                    if(!(obj instanceof GraduateStudent)) return false;
+
+                    String topic = ((GraduateStudent) obj).getThesisTopic();
+                    return topic != null && topic.toLowerCase().contains(key);
+                },
+                list -> null);
+    }
+
+    /**
+     * Returns a query satisfied by students whose total credit hours lie between
+     * the given bounds, inclusive. Uses the {@link StudentList#sortedBy sorted index}
+     * by credit hours if one is cached and current.
+     *
+     * @param min the smallest number of credit hours
+     * @param max the largest number of credit hours
+     * @return the query
+     */
+    public static Query creditsBetween(int min, int max) {
+        return leaf("credits[" + min + "," + max + "]",
+                obj -> {
+                    if(!(obj instanceof Student)) return false;
+
+                    int credit = ((Student) obj).getTotalCredit();
+                    return credit >= min && credit <= max;
+                },
+                list -> {
+                    if(!(list instanceof StudentList)) return null;
+
+                    SortedStudentIndex index = ((StudentList) list).cachedSortedIndex(SortedStudentIndex.Key.CREDITS);
+                    return index == null ? null : index.positions(min, (long) max + 1);
+                });
+    }
+
+    /**
+     * Returns a query satisfied by students enrolled in a course with the given code,
+     * ignoring case. Uses the enrollment index of a student list if it has been built.
+     *
+     * @param code the course code
+     * @return the query
+     */
+    public static Query enrolledIn(String code) {
+        return leaf("enrolledIn=" + code,
+                obj -> {
+                    if(!(obj instanceof Student)) return false;
+
+                    for(Course c : ((Student) obj).getCourses()) {
+                        if(c.getCode().equalsIgnoreCase(code))
+                            return true;
+                    }
+                    return false;
+                },
+                list -> {
+                    if(!(list instanceof StudentList)) return null;
+
+                    StudentList students = (StudentList) list;
+                    EnrollmentIndex index = students.enrollmentIndex;
+                    return index == null ? null : students.toIndexes(index.candidates(code));
+                });
+    }
+
+    /**
+     * Returns a query satisfied by courses with the given code, ignoring case.
+     * Uses the lookup index of a course list if it has been built.
+     *
+     * @param code the course code
+     * @return the query
+     */
+    public static Query codeIs(String code) {
+        return leaf("code=" + code,
+                obj -> obj instanceof Course && ((Course) obj).getCode().equalsIgnoreCase(code),
+                list -> list instanceof CourseList ? lookupCandidates(list, code) : null);
+    }
+
+    /**
+     * Returns a query satisfied by courses whose code contains the given text, ignoring case.
+     *
+     * @param text the text to look for
+     * @return the query
+     */
+    public static Query codeContains(String text) {
+        String key = text.toLowerCase();
+
+        return leaf("code~" + text,
+                obj -> obj instanceof Course && ((Course) obj).getCode().toLowerCase().contains(key),
+                list -> null);
+    }
+
+    /**
+     * Returns a query satisfied by courses whose title contains the given text, ignoring case.
+     * Uses the search index of a course list if it is enabled.
+     *
+     * @param text the text to look for
+     * @return the query
+     */
+    public static Query titleContains(String text) {
+        String key = text.toLowerCase();
+
+        return leaf("title~" + text,
+                obj -> obj instanceof Course && ((Course) obj).getTitle().toLowerCase().contains(key),
+                list -> list instanceof CourseList ? searchCandidates(list, key) : null);
+    }
+
+    /**
+     * Returns a query satisfied by the elements whose {@link Searchable#isMatch(String)}
+     * accepts the given key; for courses this matches the code as well as the title.
+     *
+     * @param key the search key
+     * @return the query
+     */
+    public static Query matches(String key) {
+        return leaf("matches " + key,
+                obj -> obj instanceof Searchable && ((Searchable) obj).isMatch(key),
+                list -> null);
+    }
+
+    /**
+     * Returns the positions, in increasing order, of the elements of a list that satisfy
+     * a query, stopping once the limit is reached.
+     *
+     * @param query the query
+     * @param list the list to search
+     * @param limit the largest number of positions to return
+     * @return the positions of the first elements satisfying the query
+     */
+    static int[] select(Query query, BaseList<?> list, int limit) {
+        int[] candidates = query.candidates(list);
+
+        if(candidates != null) {
+            int count = 0;
+            int examined = 0;
+
+            while(examined < candidates.length && count < limit) {
+                int pos = candidates[examined++];
+
+                if(query.test(list.get(pos)))
+                    candidates[count++] = pos;
+            }
+
+            RowCounter.add(examined);
+
+            return Arrays.copyOf(candidates, count);
+        }
+
+        int size = list.size();
+        IntStream positions = IntStream.range(0, size);
+
+        // the stream keeps list order, so the limit keeps the first matches
+        if(size >= PARALLEL_THRESHOLD)
+            positions = positions.parallel();
+
+        int[] found = positions.filter(i -> query.test(list.get(i))).limit(limit).toArray();
+
+        // a limited scan may have stopped early
+        RowCounter.add(found.length < limit || found.length == 0 ? size : found[found.length - 1] + 1);
+
+        return found;
+    }
+
+    /**
+     * Describes how a query would run on a list: which indexes narrow it down,
+     * and how many elements would be tested.
+     *
+     * @param query the query
+     * @param list the list
+     * @return a one-line description of the plan
+     */
+    public static String explain(Query query, BaseList<?> list) {
+        int[] candidates = query.candidates(list);
+
+        if(candidates != null)
+            return query + ": test " + candidates.length + " index candidates";
+
+        return query + ": " + (list.size() >= PARALLEL_THRESHOLD ? "parallel" : "sequential") + " scan of " + list.size() + " elements";
+    }
+
+    /**
+     * Creates a query from a test and a planning function.
+     *
+     * @param description the text returned by {@code toString}
+     * @param test the test of an element
+     * @param plan returns the candidate positions in a list, or null
+     * @return the query
+     */
+    private static Query leaf(String description, Predicate<Object> test, Function<BaseList<?>, int[]> plan) {
+        return new Query() {
+            @Override
+            public boolean test(Object obj) {
+                return test.test(obj);
+            }
+
+            @Override
+            int[] candidates(BaseList<?> list) {
+                return plan.apply(list);
+            }
+
+            @Override
+            public String toString() {
+                return description;
+            }
+        };
+    }
+
+    /**
+     * Returns the positions of the elements whose search text contains a key,
+     * if the list has its search index enabled and the key is long enough to use it.
+     *
+     * @param list the list
+     * @param key the lowercased key
+     * @return the positions, or null if the index cannot be used
+     */
+    private static int[] searchCandidates(BaseList<?> list, String key) {
+        if(!list.isSearchIndexEnabled() || key.length() < NGramIndex.N)
+            return null;
+
+        return list.matchPositions(key);
+    }
+
+    /**
+     * Returns the positions of the elements whose lookup key equals a key,
+     * ignoring case, if the list has built its lookup index.
+     *
+     * @param list the list
+     * @param key the lookup key
+     * @return the positions, or null if the index is not built
+     */
+    private static int[] lookupCandidates(BaseList<?> list, String key) {
+        if(list.lookupIndex == null)
+            return null;
+
+        return list.lookupPositions(key).toArray();
+    }
+
+    /**
+     * Returns the positions present in both sorted arrays.
+     *
+     * @param a the first positions, in increasing order
+     * @param b the second positions, in increasing order
+     * @return the common positions, in increasing order
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+
+        for(int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if(a[i] < b[j]) i++;
+            else if(a[i] > b[j]) j++;
+            else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Returns the positions present in either sorted array.
+     *
+     * @param a the first positions, in increasing order
+     * @param b the second positions, in increasing order
+     * @return all positions without duplicates, in increasing order
+     */
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+
+        while(i < a.length || j < b.length) {
+            int next;
+
+            if(j == b.length || (i < a.length && a[i] < b[j])) next = a[i++];
+            else if(i == a.length || b[j] < a[i]) next = b[j++];
+            else {
+                next = a[i++];
+                j++;
+            }
+
+            result[count++] = next;
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+}
@@ -0,0 +1,88 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code RowCounter} class counts the rows the lookups and searches of one
+ * thread examine, so that {@link Controller} can hand the rows scanned by a single
+ * call to {@link ControllerMetrics}.
+ *
+ * <p>A scan counts its rows in a local variable and passes the total to
+ * {@link #add(long)} once it is done. The rows only go to the counter the calling
+ * thread {@linkplain #start() started}, so calls running at the same time never
+ * count each other's rows. While no thread is counting, {@code add} only reads a
+ * field, so scans cost nothing extra when metrics are disabled.</p>
+ */
+final class RowCounter {
+
+    /** The counter of every thread that is counting */
+    private static final ThreadLocal<RowCounter> CURRENT = new ThreadLocal<>();
+
+    /** The number of threads counting; the thread-local is only read while it is not zero */
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+
+
+    /** The counter this one replaced, restored when it stops */
+    private final RowCounter outer;
+
+    /** The rows counted so far */
+    private long rows;
+
+
+    /**
+     * Constructs a counter.
+     *
+     * @param outer the counter of the thread before this one was started, or null
+     */
+    private RowCounter(RowCounter outer) {
+        this.outer = outer;
+    }
+
+    /**
+     * Starts counting the rows scanned by the calling thread.
+     *
+     * @return the counter, to be {@linkplain #stop() stopped} by the same thread
+     */
+    static RowCounter start() {
+        RowCounter counter = new RowCounter(CURRENT.get());
+
+        CURRENT.set(counter);
+        ACTIVE.incrementAndGet();
+
+        return counter;
+    }
+
+    /**
+     * Stops counting and restores the counter the thread had before,
+     * which the rows counted by this one are added to.
+     *
+     * @return the number of rows scanned since the counter was started
+     */
+    long stop() {
+        ACTIVE.decrementAndGet();
+
+        if(this.outer == null) {
+            CURRENT.remove();
+        }
+        else {
+            this.outer.rows += this.rows;
+            CURRENT.set(this.outer);
+        }
+
+        return this.rows;
+    }
+
+    /**
+     * Adds the rows of a finished scan to the counter of the calling thread, if it has one.
+     *
+     * @param rows the number of rows the scan examined
+     */
+    static void add(long rows) {
+        if(ACTIVE.get() == 0)
+            return;
+
+        RowCounter counter = CURRENT.get();
+
+        if(counter != null)
+            counter.rows += rows;
+    }
+
+}
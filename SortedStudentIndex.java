@@ -0,0 +1,611 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+
+/**
+ * The {@code SortedStudentIndex} class holds the students of a {@link StudentList}
+ * sorted by name, total credit hours or tuition due, and answers top-K, range
+ * and paged queries from that order without formatting or sorting anything else.
+ *
+ * <p>Every student is represented by a single long that packs the rank of its key
+ * above its position in the list, so the order is a plain {@code long[]} sorted
+ * with {@link Arrays#parallelSort(long[])}, and students with equal keys keep their
+ * list order. Names are compared ignoring case. The keys are read in parallel
+ * when the index is built.</p>
+ *
+ * <p>An index reflects the list at the time it was built. Obtain indexes from
+ * {@link StudentList#sortedBy(Key)}, which caches them and builds a new one
+ * once the list has been modified or, for credit hours and tuition, once the
+ * credit hours of a course taken by one of the students have changed. The
+ * queries of an index that is no longer {@linkplain #isCurrent() current} throw
+ * {@link ConcurrentModificationException} instead of returning stale students.</p>
+ *
+ * <p>Pages are fetched with a {@link Cursor} that remembers the key and position of
+ * the last student returned. A cursor may be passed to an index rebuilt after the
+ * list changed: paging then continues with the first key after the cursor's, or, among
+ * the students sharing the cursor's key, after the cursor's position in the list. Since
+ * positions move when students are removed or added before them, students sharing that
+ * one key may then be skipped or returned twice; students with other keys are not.</p>
+ */
+public class SortedStudentIndex {
+
+    /**
+     * The keys students can be sorted by.
+     */
+    public enum Key {
+        /** {@link Student#getName()}, ignoring case; bounds are Strings */
+        NAME,
+        /** {@link Student#getTotalCredit()}; bounds are Numbers */
+        CREDITS,
+        /** {@link Student#getTuitionDue()}; bounds are Numbers */
+        TUITION
+    }
+
+    /**
+     * Marks the place after the last student of a page. Students with equal keys
+     * are told apart by their position in the list, which is only stable as long
+     * as the list is not modified.
+     */
+    public static final class Cursor {
+
+        /** The key of the last student returned */
+        private final Object key;
+
+        /** The position of the last student returned */
+        private final int position;
+
+        /**
+         * Constructs a cursor.
+         *
+         * @param key the key of the last student returned
+         * @param position the position of the last student returned
+         */
+        private Cursor(Object key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+    }
+
+    /**
+     * One page of students in key order.
+     */
+    public static final class Page {
+
+        /** The students of the page */
+        private final StudentList students;
+
+        /** The cursor of the next page, or null if this is the last one */
+        private final Cursor next;
+
+        /**
+         * Constructs a page.
+         *
+         * @param students the students of the page
+         * @param next the cursor of the next page, or null if this is the last one
+         */
+        private Page(StudentList students, Cursor next) {
+            this.students = students;
+            this.next = next;
+        }
+
+        /**
+         * Returns the students of the page, in key order.
+         *
+         * @return the students
+         */
+        public StudentList getStudents() {
+            return this.students;
+        }
+
+        /**
+         * Returns the cursor to pass to fetch the next page.
+         *
+         * @return the cursor, or null if this is the last page
+         */
+        public Cursor getNext() {
+            return this.next;
+        }
+    }
+
+
+    /** The list whose students are sorted */
+    private final StudentList list;
+
+    /** The key the students are sorted by */
+    private final Key key;
+
+    /** The modification count of the list when the index was built */
+    private final int modCount;
+
+    /** The {@link Course#getCreditRevision() credit revision} when the index was built */
+    private final long creditRevision;
+
+    /** The distinct courses taken by the students when sorted by credits or tuition, otherwise null */
+    private final Course[] courses;
+
+    /** The latest credit revision at which none of the courses had changed since the index was built */
+    private volatile long checkedRevision;
+
+    /** The rank of the key of every student above its position, in increasing order */
+    private final long[] entries;
+
+    /** The distinct names in increasing order, by rank, when sorted by name */
+    private String[] names;
+
+    /** The distinct tuition amounts in increasing order, by rank, when sorted by tuition */
+    private double[] tuitions;
+
+
+    /**
+     * Sorts the students of a list.
+     *
+     * @param list the list whose students to sort
+     * @param key the key to sort by
+     */
+    SortedStudentIndex(StudentList list, Key key) {
+        this.list = list;
+        this.key = key;
+        this.modCount = list.getModCount();
+        this.creditRevision = Course.getCreditRevision();
+        this.checkedRevision = this.creditRevision;
+
+        int n = list.size();
+        long[] entries = new long[n];
+
+        // only credit hours and tuition depend on the courses
+        Student[] students = null;
+
+        if(key != Key.NAME) {
+            students = new Student[n];
+            Arrays.parallelSetAll(students, list::get);
+        }
+
+        this.courses = students == null ? null : coursesOf(students);
+
+        switch(key) {
+            case NAME: {
+                String[] values = new String[n];
+                Arrays.parallelSetAll(values, i -> list.get(i).getName());
+
+                this.names = distinct(values);
+                Arrays.parallelSetAll(entries, i -> pack(Arrays.binarySearch(this.names, values[i], String.CASE_INSENSITIVE_ORDER), i));
+                break;
+            }
+            case CREDITS: {
+                Student[] sorted = students;
+                Arrays.parallelSetAll(entries, i -> pack(sorted[i].getTotalCredit(), i));
+                break;
+            }
+            case TUITION: {
+                Student[] sorted = students;
+                double[] values = new double[n];
+                Arrays.parallelSetAll(values, i -> sorted[i].getTuitionDue());
+
+                this.tuitions = distinct(values);
+                Arrays.parallelSetAll(entries, i -> pack(Arrays.binarySearch(this.tuitions, values[i]), i));
+                break;
+            }
+        }
+
+        Arrays.parallelSort(entries);
+        this.entries = entries;
+    }
+
+    /**
+     * Tells whether the index still reflects its list, that is whether the list has not
+     * been modified since it was built and, when sorted by credit hours or tuition, the
+     * credit hours of none of the courses taken by its students have changed. After a
+     * course changes, the courses of the index are checked once; changes to courses that
+     * none of its students take leave the index current.
+     *
+     * @return true if the index is up to date; false otherwise
+     */
+    public boolean isCurrent() {
+        if(this.list.getModCount() != this.modCount)
+            return false;
+
+        if(this.courses == null)
+            return true;
+
+        long revision = Course.getCreditRevision();
+
+        if(revision == this.checkedRevision)
+            return true;
+
+        for(Course c : this.courses) {
+            if(c.getCreditChanged() > this.creditRevision)
+                return false;
+        }
+
+        this.checkedRevision = revision;
+
+        return true;
+    }
+
+    /**
+     * Fails if the index no longer reflects its list.
+     *
+     * @throws ConcurrentModificationException if the index is no longer current
+     */
+    private void checkCurrent() {
+        if(!isCurrent())
+            throw new ConcurrentModificationException("The students changed since the index was built");
+    }
+
+    /**
+     * Returns the key the students are sorted by.
+     *
+     * @return the sort key
+     */
+    public Key getKey() {
+        return this.key;
+    }
+
+    /**
+     * Returns the number of students in the index.
+     *
+     * @return the number of students
+     */
+    public int size() {
+        return this.entries.length;
+    }
+
+    /**
+     * Returns the students with the largest keys, largest first.
+     * Students with equal keys are returned in reverse list order.
+     *
+     * @param k the number of students to return
+     * @return at most {@code k} students
+     * @throws ConcurrentModificationException if the index is no longer current
+     */
+    public StudentList top(int k) {
+        checkCurrent();
+
+        StudentList result = new StudentList();
+
+        for(int i = this.entries.length - 1; i >= Math.max(this.entries.length - k, 0); i--)
+            result.append( this.list.get(position(this.entries[i])) );
+
+        return result;
+    }
+
+    /**
+     * Returns the students with the smallest keys, smallest first.
+     *
+     * @param k the number of students to return
+     * @return at most {@code k} students
+     * @throws ConcurrentModificationException if the index is no longer current
+     */
+    public StudentList bottom(int k) {
+        checkCurrent();
+
+        return slice(0, Math.min(k, this.entries.length));
+    }
+
+    /**
+     * Returns the students whose key lies in the given range, in key order.
+     * For example {@code range(null, 12)} on {@link Key#CREDITS} returns the
+     * students with fewer than 12 credit hours, and {@code range("A", "G")} on
+     * {@link Key#NAME} those whose names start with A to F.
+     *
+     * @param from the smallest key to include, or null for no lower bound
+     * @param to the smallest key to exclude, or null for no upper bound
+     * @return the students in the range
+     * @throws ClassCastException if a bound does not suit the key
+     * @throws ConcurrentModificationException if the index is no longer current
+     */
+    public StudentList range(Object from, Object to) {
+        checkCurrent();
+
+        return slice(start(from), end(to));
+    }
+
+    /**
+     * Returns the number of students whose key lies in the given range,
+     * without fetching them.
+     *
+     * @param from the smallest key to include, or null for no lower bound
+     * @param to the smallest key to exclude, or null for no upper bound
+     * @return the number of students in the range
+     * @throws ClassCastException if a bound does not suit the key
+     * @throws ConcurrentModificationException if the index is no longer current
+     */
+    public int count(Object from, Object to) {
+        checkCurrent();
+
+        return Math.max(end(to) - start(from), 0);
+    }
+
+    /**
+     * Returns the positions in the list of the students whose key lies in the
+     * given range, in increasing order of position rather than of key.
+     *
+     * @param from the smallest key to include, or null for no lower bound
+     * @param to the smallest key to exclude, or null for no upper bound
+     * @return the positions of the students in the range
+     * @throws ClassCastException if a bound does not suit the key
+     * @throws ConcurrentModificationException if the index is no longer current
+     */
+    int[] positions(Object from, Object to) {
+        checkCurrent();
+
+        int start = start(from);
+        int[] result = new int[Math.max(end(to) - start, 0)];
+
+        for(int i = 0; i < result.length; i++)
+            result[i] = position(this.entries[start + i]);
+
+        Arrays.sort(result);
+
+        return result;
+    }
+
+    /**
+     * Returns one page of the students whose key lies in the given range, in key order.
+     * Pass a null cursor for the first page and the cursor of the previous page
+     * for the following ones.
+     *
+     * @param from the smallest key to include, or null for no lower bound
+     * @param to the smallest key to exclude, or null for no upper bound
+     * @param after the cursor of the previous page, or null for the first page
+     * @param pageSize the largest number of students on the page
+     * @return the page
+     * @throws IllegalArgumentException if the page size is not positive
+     * @throws ClassCastException if a bound or the cursor does not suit the key
+     * @throws ConcurrentModificationException if the index is no longer current
+     */
+    public Page page(Object from, Object to, Cursor after, int pageSize) {
+        if(pageSize <= 0)
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+
+        checkCurrent();
+
+        int start = start(from);
+        int end = end(to);
+
+        if(after != null)
+            start = Math.max(start, after(after));
+
+        int stop = (int) Math.min((long) start + pageSize, end);
+        StudentList students = slice(start, stop);
+
+        Cursor next = null;
+
+        if(stop < end && stop > start) {
+            long last = this.entries[stop - 1];
+            next = new Cursor(keyOfRank(rank(last)), position(last));
+        }
+
+        return new Page(students, next);
+    }
+
+    /**
+     * Returns the students between two places of the sorted order.
+     *
+     * @param start the first place
+     * @param end the place just past the last one
+     * @return the students, in key order
+     */
+    private StudentList slice(int start, int end) {
+        StudentList result = new StudentList();
+
+        for(int i = start; i < end; i++)
+            result.append( this.list.get(position(this.entries[i])) );
+
+        return result;
+    }
+
+    /**
+     * Returns the first place whose key is at least the given one.
+     *
+     * @param from the key, or null for the first place
+     * @return the place
+     */
+    private int start(Object from) {
+        return from == null ? 0 : firstAtLeast(pack(rankAtLeast(from), 0));
+    }
+
+    /**
+     * Returns the first place whose key is at least the given one.
+     *
+     * @param to the key, or null for the place past the end
+     * @return the place
+     */
+    private int end(Object to) {
+        return to == null ? this.entries.length : firstAtLeast(pack(rankAtLeast(to), 0));
+    }
+
+    /**
+     * Returns the first place after the student a cursor stands for.
+     *
+     * @param cursor the cursor
+     * @return the place
+     */
+    private int after(Cursor cursor) {
+        int rank = rankAtLeast(cursor.key);
+
+        // the same key: continue after the position, otherwise at the next key
+        if(rank < ranks() && compareToRank(cursor.key, rank) == 0)
+            return firstAtLeast(pack(rank, cursor.position) + 1);
+
+        return firstAtLeast(pack(rank, 0));
+    }
+
+    /**
+     * Returns the number of ranks, which is the number of distinct keys for names
+     * and tuition; credit hours are their own ranks, so every rank may occur.
+     *
+     * @return the exclusive upper bound of the ranks
+     */
+    private int ranks() {
+        switch(this.key) {
+            case NAME:
+                return this.names.length;
+            case TUITION:
+                return this.tuitions.length;
+            default:
+                return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns the smallest rank whose key is at least the given one.
+     *
+     * @param value the key
+     * @return the rank
+     */
+    private int rankAtLeast(Object value) {
+        switch(this.key) {
+            case NAME: {
+                int found = Arrays.binarySearch(this.names, (String) value, String.CASE_INSENSITIVE_ORDER);
+                return found >= 0 ? found : -found - 1;
+            }
+            case CREDITS: {
+                double credits = Math.ceil(((Number) value).doubleValue());
+                return (int) Math.max(Math.min(credits, Integer.MAX_VALUE), Integer.MIN_VALUE);
+            }
+            default: {
+                int found = Arrays.binarySearch(this.tuitions, ((Number) value).doubleValue());
+                return found >= 0 ? found : -found - 1;
+            }
+        }
+    }
+
+    /**
+     * Compares a key with the key of a rank.
+     *
+     * @param value the key
+     * @param rank the rank, which must exist
+     * @return a negative number, zero or a positive number as the key is less than, equal to or greater
+     */
+    private int compareToRank(Object value, int rank) {
+        switch(this.key) {
+            case NAME:
+                return String.CASE_INSENSITIVE_ORDER.compare((String) value, this.names[rank]);
+            case CREDITS:
+                return Double.compare(((Number) value).doubleValue(), rank);
+            default:
+                return Double.compare(((Number) value).doubleValue(), this.tuitions[rank]);
+        }
+    }
+
+    /**
+     * Returns the key of a rank.
+     *
+     * @param rank the rank
+     * @return the key: a String, Integer or Double according to the sort key
+     */
+    private Object keyOfRank(int rank) {
+        switch(this.key) {
+            case NAME:
+                return this.names[rank];
+            case CREDITS:
+                return rank;
+            default:
+                return this.tuitions[rank];
+        }
+    }
+
+    /**
+     * Returns the first place whose entry is at least the given one.
+     *
+     * @param entry the packed entry
+     * @return the place, between 0 and the size
+     */
+    private int firstAtLeast(long entry) {
+        int found = Arrays.binarySearch(this.entries, entry);
+
+        return found >= 0 ? found : -found - 1;
+    }
+
+    /**
+     * Packs a rank and a position into an entry that sorts by rank, then position.
+     *
+     * @param rank the rank of the key
+     * @param position the position of the student
+     * @return the entry
+     */
+    private static long pack(int rank, int position) {
+        return ((long) rank << 32) | position;
+    }
+
+    /**
+     * Returns the rank of an entry.
+     *
+     * @param entry the entry
+     * @return the rank
+     */
+    private static int rank(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    /**
+     * Returns the position of an entry.
+     *
+     * @param entry the entry
+     * @return the position of the student
+     */
+    private static int position(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Returns the distinct course objects taken by the given students.
+     *
+     * @param students the students
+     * @return every course object taken by at least one of them, once
+     */
+    private static Course[] coursesOf(Student[] students) {
+        IdentityHashMap<Course, Boolean> seen = new IdentityHashMap<>();
+
+        for(Student stud : students) {
+            for(Course c : stud.getCourses())
+                seen.put(c, Boolean.TRUE);
+        }
+
+        return seen.keySet().toArray(new Course[0]);
+    }
+
+    /**
+     * Returns the distinct names, ignoring case, in increasing order.
+     *
+     * @param values the names
+     * @return the sorted distinct names
+     */
+    private static String[] distinct(String[] values) {
+        Comparator<String> order = String.CASE_INSENSITIVE_ORDER;
+        String[] sorted = values.clone();
+        Arrays.parallelSort(sorted, order);
+
+        int count = 0;
+
+        for(String s : sorted) {
+            if(count == 0 || order.compare(sorted[count - 1], s) != 0)
+                sorted[count++] = s;
+        }
+
+        return Arrays.copyOf(sorted, count);
+    }
+
+    /**
+     * Returns the distinct amounts in increasing order.
+     *
+     * @param values the amounts
+     * @return the sorted distinct amounts
+     */
+    private static double[] distinct(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.parallelSort(sorted);
+
+        int count = 0;
+
+        for(double d : sorted) {
+            if(count == 0 || Double.compare(sorted[count - 1], d) != 0)
+                sorted[count++] = d;
+        }
+
+        return Arrays.copyOf(sorted, count);
+    }
+
+}
@@ -0,0 +1,181 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code StringPool} class is a dictionary of distinct strings, so that
+ * values repeated throughout the data, such as course codes, course titles and
+ * thesis topics, are stored once and shared by every object holding them.
+ *
+ * <p>Strings can be looked up directly by their UTF-8 bytes. A value that is
+ * already in the pool is found without decoding it into a new String, so a
+ * parser only creates a String the first time it meets a value. Strings are
+ * compared by content and share the hash code of {@link String#hashCode()}.</p>
+ *
+ * <p>The pool keeps every string it was given until it is discarded, so it
+ * should only be used for values that repeat. It is not thread-safe; give
+ * every thread its own pool.</p>
+ */
+public class StringPool {
+
+    /** The initial number of slots in the table */
+    private static final int INITIAL_CAPACITY = 256;
+
+
+    /** The strings of the pool in an open-addressing table, with null for free slots */
+    private String[] table;
+
+    /** The hash code of the string in every slot */
+    private int[] hashes;
+
+    /** The number of strings in the pool */
+    private int size;
+
+
+    /**
+     * Constructs an empty pool.
+     */
+    public StringPool() {
+        this.table = new String[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the pooled string equal to the given one, adding the given string if it is new.
+     *
+     * @param str the string to intern, possibly null
+     * @return the pooled string equal to {@code str}, or null if it is null
+     */
+    public String intern(String str) {
+        if(str == null)
+            return null;
+
+        int hash = str.hashCode();
+        int slot = slot(hash);
+
+        for(String s = this.table[slot]; s != null; s = this.table[slot]) {
+            if(this.hashes[slot] == hash && s.equals(str))
+                return s;
+
+            slot = (slot + 1) & (this.table.length - 1);
+        }
+
+        return insert(slot, hash, str);
+    }
+
+    /**
+     * Returns the pooled string equal to the UTF-8 decoding of a range of bytes,
+     * decoding and adding it if it is new. ASCII values already in the pool are
+     * found without creating any objects.
+     *
+     * @param bytes the array holding the bytes
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the pooled string with that encoding
+     */
+    public String intern(byte[] bytes, int offset, int length) {
+        int hash = 0;
+
+        // an ASCII byte is the char it encodes, which gives the hash of the decoded string
+        for(int i = offset; i < offset + length; i++) {
+            if(bytes[i] < 0)
+                return intern(new String(bytes, offset, length, StandardCharsets.UTF_8));
+
+            hash = 31 * hash + bytes[i];
+        }
+
+        int slot = slot(hash);
+
+        for(String s = this.table[slot]; s != null; s = this.table[slot]) {
+            if(this.hashes[slot] == hash && isEncoding(s, bytes, offset, length))
+                return s;
+
+            slot = (slot + 1) & (this.table.length - 1);
+        }
+
+        return insert(slot, hash, new String(bytes, offset, length, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Returns the number of distinct strings in the pool.
+     *
+     * @return the size of the pool
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Stores a new string in a free slot, growing the table if it gets more than half full.
+     *
+     * @param slot the free slot where the probe for the string ended
+     * @param hash the hash code of the string
+     * @param str the string to store
+     * @return the stored string
+     */
+    private String insert(int slot, int hash, String str) {
+        this.table[slot] = str;
+        this.hashes[slot] = hash;
+        this.size++;
+
+        if(this.size * 2 > this.table.length)
+            grow();
+
+        return str;
+    }
+
+    /**
+     * Doubles the table and moves every string to its slot in the new one.
+     */
+    private void grow() {
+        String[] oldTable = this.table;
+        int[] oldHashes = this.hashes;
+
+        this.table = new String[oldTable.length * 2];
+        this.hashes = new int[oldTable.length * 2];
+
+        for(int i = 0; i < oldTable.length; i++) {
+            if(oldTable[i] == null)
+                continue;
+
+            int slot = slot(oldHashes[i]);
+
+            while(this.table[slot] != null)
+                slot = (slot + 1) & (this.table.length - 1);
+
+            this.table[slot] = oldTable[i];
+            this.hashes[slot] = oldHashes[i];
+        }
+    }
+
+    /**
+     * Returns the slot where the probe for a hash code starts.
+     *
+     * @param hash the hash code
+     * @return the first slot to look at
+     */
+    private int slot(int hash) {
+        // spread the high bits, which differ most between similar strings
+        return (hash ^ (hash >>> 16)) & (this.table.length - 1);
+    }
+
+    /**
+     * Determines whether a range of ASCII bytes encodes the given string.
+     *
+     * @param s the string
+     * @param bytes the array holding the bytes
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return true if the string consists of exactly the chars of the bytes
+     */
+    private static boolean isEncoding(String s, byte[] bytes, int offset, int length) {
+        if(s.length() != length)
+            return false;
+
+        for(int i = 0; i < length; i++) {
+            if(s.charAt(i) != bytes[offset + i])
+                return false;
+        }
+
+        return true;
+    }
+
+}
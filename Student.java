@@ -1,218 +1,364 @@
-import java.util.ArrayList;
-
-/**
- * The {@code Student} class represents a student with a name and a list of enrolled courses.
- * It is an abstract class that provides a foundation for different types of students (e.g., undergraduate, graduate).
- * Implements the {@code Searchable} interface to allow keyword-based matching and equality checks.
- */
-public abstract class Student implements Searchable {
-    
-    /** The name of the student. */
-    protected String name;
-    
-    /** A list of courses the student is enrolled in. */
-    private ArrayList<Course> courses;
-    
-    
-    /**
-     * Constructs a Student object with a default name "unknown".
-     */
-    public Student() {
-        this("unknown");
-    }
-    
-    /**
-     * Constructs a new Student object with the specified name.
-     * Initializes an empty course list.
-     *
-     * @param name the name of the student
-     */
-    public Student(String name) {
-        this.name = name;
-        this.courses = new ArrayList<>();
-    }
-    
-    /**
-     * Copy constructor. Creates a deep copy of the given Student object.
-     * Copies the name and duplicates all courses.
-     *
-     * @param ob the Student object to copy
-     */
-    public Student(Student ob) {
-        this(ob.name);
-        
-        for(Course tmp : ob.courses) {
-            this.courses.add( new Course(tmp) );
-        }
-    }
-    
-    /**
-     * Returns the name of the student as a string.
-     *
-     * @return the student's name
-     */
-    public String toString() {
-        return this.name;
-    }
-    
-    /**
-     * Adds a course to the student's course list.
-     * A deep copy of the course is added to avoid aliasing.
-     *
-     * @param c the course to add
-     */
-    public void addCourse(Course c) {
-        // accept a course object and add 
-        // that to the list (courses)
-        Course tmp = new Course(c);
-        this.courses.add( tmp );
-    }
-    
-    /**
-     * Prints the student's name followed by their list of enrolled courses.
-     * Each course is listed with its index in the course list.
-     */
-    public void introduce() {
-        System.out.println("Student Name: " + this.name);
-        
-        for(int i = 0; i < this.courses.size(); i++) {
-            Course tmp = this.courses.get(i);
-            System.out.printf("[%d] %s\n", i, tmp);
-        }
-        
-        //System.out.println();
-    }
-    
-    /**
-     * Returns a deep copy of the student, including their course list.
-     *
-     * @return a new Student object that is a copy of this student
-     */
-     /*
-    public Student duplicate() {
-        // create a student with same name
-        Student newStud = new Student(this);
-        
-        //newStud.courses = this.courses;
-        return newStud;
-    }
-    */
-    
-    /**
-     * Returns the name of the student.
-     *
-     * @return the name of the student
-     */
-    public String getName() {
-        return this.name;
-    }
-
-    /**
-     * Sets the name of the student.
-     *
-     * @param name the new name to assign to the student
-     */
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    /**
-     * Returns the list of courses the student is enrolled in.
-     *
-     * @return the list of courses
-     */
-    public ArrayList<Course> getCourses() {
-        return this.courses;
-    }
-    
-    /**
-     * Calculates and returns the total number of credits
-     * the student is currently enrolled in.
-     *
-     * @return the total credit hours
-     */
-    public int getTotalCredit() {
-        int total = 0;
-        
-        for(Course c : this.courses) {
-            total = total + c.getCredit();
-        }
-        
-        return total;
-    }
-    
-    /**
-     * Calculates the total tuition due based on the total credits
-     * and the rate returned by {@code getRate()}.
-     * Demonstrates the Template Method design pattern.
-     *
-     * @return the total tuition due
-     */
-    public double getTuitionDue() {
-        // demonstration of Template Method Pattern
-        return this.getTotalCredit() * getRate();
-    }
-    
-    /**
-     * Returns the tuition rate per credit hour.
-     * Must be implemented by subclasses.
-     *
-     * @return the rate per credit
-     */
-    public abstract double getRate();
-    
-    /**
-     * Returns additional student information.
-     * Must be implemented by subclasses.
-     *
-     * @return a string with student-specific information
-     */
-    public abstract String getInfo();
-    
-    /**
-     * Returns the status of the student (e.g., undergraduate or graduate).
-     * Must be implemented by subclasses.
-     *
-     * @return the student's status
-     */
-    public abstract String getStatus();
-    
-    /**
-     * Determines if the student's name contains the given search key (case-insensitive).
-     *
-     * @param key the string to search for
-     * @return true if the student's name contains the key, false otherwise
-     */
-    @Override
-    public boolean isMatch(String key) {
-        key = key.toLowerCase();
-        return this.getName().toLowerCase().contains(key);
-    }
-    
-    /**
-     * Checks if this student is equal to another object by comparing names.
-     *
-     * @param obj the object to compare with
-     * @return true if the names are equal, false otherwise
-     */
-    @Override
-    public boolean isEqual(Object obj) {
-        return this.getName().equals( ((Student)obj).getName() );
-    }
-    
-    /**
-     * Returns a CourseList object containing all the student's enrolled courses.
-     * A new CourseList is constructed and populated with the student's courses.
-     *
-     * @return a CourseList of the student's courses
-     */
-    public CourseList getCourseList() {
-        CourseList list = new CourseList();
-        
-        for(Course c : courses)
-            list.add(c);
-            
-        return list;
-    }
-    
-}
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code Student} class represents a student with a name and a list of enrolled courses.
+ * It is an abstract class that provides a foundation for different types of students (e.g., undergraduate, graduate).
+ * Implements the {@code Searchable} interface to allow keyword-based matching and equality checks.
+ */
+public abstract class Student implements Searchable {
+    
+    /** The name of the student. */
+    protected String name;
+    
+    /** A list of courses the student is enrolled in. */
+    private ArrayList<Course> courses;
+    
+    /** The cached credit total, replaced as a whole so that every thread sees a consistent one. */
+    private volatile CreditTotal creditTotal;
+    
+    /** A read-only view of the course list, created on first use. */
+    private CourseList courseView;
+    
+    /** An unmodifiable view of the course list. */
+    private List<Course> courseList;
+    
+    
+    /**
+     * The sum of the credit hours of the first courses of a student, as computed at a
+     * {@link Course#getCreditRevision() credit revision}.
+     */
+    private static final class CreditTotal {
+        
+        /** The sum of the credit hours. */
+        final int total;
+        
+        /** The number of courses included in the sum. */
+        final int count;
+        
+        /** The credit revision at which the sum was known to be correct. */
+        final long revision;
+        
+        /**
+         * Constructs a credit total.
+         *
+         * @param total the sum of the credit hours
+         * @param count the number of courses included
+         * @param revision the credit revision at which the sum is correct
+         */
+        CreditTotal(int total, int count, long revision) {
+            this.total = total;
+            this.count = count;
+            this.revision = revision;
+        }
+    }
+    
+    
+    /**
+     * Constructs a Student object with a default name "unknown".
+     */
+    public Student() {
+        this("unknown");
+    }
+    
+    /**
+     * Constructs a new Student object with the specified name.
+     * Initializes an empty course list.
+     *
+     * @param name the name of the student
+     */
+    public Student(String name) {
+        this.name = name;
+        this.courses = new ArrayList<>();
+        this.courseList = Collections.unmodifiableList(this.courses);
+        this.creditTotal = new CreditTotal(0, 0, Course.getCreditRevision());
+    }
+    
+    /**
+     * Copy constructor. Creates a deep copy of the given Student object.
+     * Copies the name and duplicates all courses.
+     *
+     * @param ob the Student object to copy
+     */
+    public Student(Student ob) {
+        this(ob.name);
+        
+        for(Course tmp : ob.courses) {
+            this.courses.add( new Course(tmp) );
+        }
+    }
+    
+    /**
+     * Returns the name of the student as a string.
+     *
+     * @return the student's name
+     */
+    public String toString() {
+        return this.name;
+    }
+    
+    /**
+     * Adds a course to the student's course list.
+     * A deep copy of the course is added to avoid aliasing.
+     *
+     * @param c the course to add
+     */
+    public void addCourse(Course c) {
+        // accept a course object and add 
+        // that to the list (courses)
+        Course tmp = new Course(c);
+        this.courses.add( tmp );
+        
+        creditAdded( tmp );
+    }
+    
+    /**
+     * Enrolls the student in the given course without copying it.
+     * The course object is shared, which lets every student taking the same
+     * catalog course refer to the single instance held by a {@link CourseList}.
+     *
+     * @param c the course to enroll in
+     */
+    public void enroll(Course c) {
+        this.courses.add( c );
+        
+        creditAdded( c );
+    }
+    
+    /**
+     * Drops the first course with the given code, ignoring case.
+     * The cached credit total is kept up to date.
+     *
+     * @param code the code of the course to drop
+     * @return the dropped course, or null if the student does not take a course with that code
+     */
+    public Course dropCourse(String code) {
+        for(int i = 0; i < this.courses.size(); i++) {
+            Course c = this.courses.get(i);
+
+            if(c.getCode().equalsIgnoreCase(code)) {
+                // only adjust a total that is up to date
+                CreditTotal cached = this.creditTotal;
+                long revision = Course.getCreditRevision();
+
+                this.courses.remove(i);
+
+                if(cached.count == this.courses.size() + 1 && cached.revision == revision)
+                    this.creditTotal = new CreditTotal(cached.total - c.getCredit(), cached.count - 1, revision);
+
+                return c;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Adds the credit hours of a course that was just appended to the course list
+     * to the cached total, provided the total was up to date before.
+     *
+     * @param c the course that was added
+     */
+    private void creditAdded(Course c) {
+        CreditTotal cached = this.creditTotal;
+        long revision = Course.getCreditRevision();
+        
+        if(cached.count == this.courses.size() - 1 && cached.revision == revision)
+            this.creditTotal = new CreditTotal(cached.total + c.getCredit(), cached.count + 1, revision);
+    }
+    
+    /**
+     * Replaces every course by the equal course stored in the catalog, adding the
+     * courses the catalog does not hold yet, so that the student shares the catalog's
+     * instances. The credit total is not affected, since equal courses have equal credit hours.
+     *
+     * @param catalog the course list holding the shared instances
+     */
+    public void internCourses(CourseList catalog) {
+        for(int i = 0; i < this.courses.size(); i++)
+            this.courses.set(i, catalog.intern( this.courses.get(i) ));
+    }
+    
+    /**
+     * Prints the student's name followed by their list of enrolled courses.
+     * Each course is listed with its index in the course list.
+     */
+    public void introduce() {
+        System.out.println("Student Name: " + this.name);
+        
+        for(int i = 0; i < this.courses.size(); i++) {
+            Course tmp = this.courses.get(i);
+            System.out.printf("[%d] %s\n", i, tmp);
+        }
+        
+        //System.out.println();
+    }
+    
+    /**
+     * Returns a deep copy of the student, including their course list.
+     *
+     * @return a new Student object that is a copy of this student
+     */
+     /*
+    public Student duplicate() {
+        // create a student with same name
+        Student newStud = new Student(this);
+        
+        //newStud.courses = this.courses;
+        return newStud;
+    }
+    */
+    
+    /**
+     * Returns the name of the student.
+     *
+     * @return the name of the student
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Sets the name of the student.
+     *
+     * @param name the new name to assign to the student
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the list of courses the student is enrolled in. The list is a read-only
+     * view; courses are added and dropped through the methods of this class.
+     *
+     * @return an unmodifiable view of the list of courses
+     */
+    public List<Course> getCourses() {
+        return this.courseList;
+    }
+    
+    /**
+     * Returns the total number of credits the student is currently enrolled in.
+     * The total is kept up to date as courses are added and dropped, so this usually
+     * takes constant time. After the credit hours of some course change, the student's
+     * own courses are checked once, and the total is only recalculated if one of them
+     * was the course that changed. The total may be read by several threads at once.
+     *
+     * @return the total credit hours
+     */
+    public int getTotalCredit() {
+        long revision = Course.getCreditRevision();
+        CreditTotal cached = this.creditTotal;
+        
+        if(cached.count == this.courses.size()) {
+            if(cached.revision == revision)
+                return cached.total;
+            
+            if(!creditChangedSince(cached.revision)) {
+                this.creditTotal = new CreditTotal(cached.total, cached.count, revision);
+                return cached.total;
+            }
+        }
+        
+        int total = 0;
+        
+        for(Course c : this.courses) {
+            total = total + c.getCredit();
+        }
+        
+        this.creditTotal = new CreditTotal(total, this.courses.size(), revision);
+        
+        return total;
+    }
+    
+    /**
+     * Determines whether the credit hours of any of the student's courses
+     * changed after the given credit revision.
+     *
+     * @param revision the credit revision
+     * @return true if a course of the student changed since; false otherwise
+     */
+    private boolean creditChangedSince(long revision) {
+        for(Course c : this.courses) {
+            if(c.getCreditChanged() > revision)
+                return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Calculates the total tuition due based on the total credits
+     * and the rate returned by {@code getRate()}.
+     * Demonstrates the Template Method design pattern.
+     *
+     * @return the total tuition due
+     */
+    public double getTuitionDue() {
+        // demonstration of Template Method Pattern
+        return this.getTotalCredit() * getRate();
+    }
+    
+    /**
+     * Returns the tuition rate per credit hour.
+     * Must be implemented by subclasses.
+     *
+     * @return the rate per credit
+     */
+    public abstract double getRate();
+    
+    /**
+     * Returns additional student information.
+     * Must be implemented by subclasses.
+     *
+     * @return a string with student-specific information
+     */
+    public abstract String getInfo();
+    
+    /**
+     * Returns the status of the student (e.g., undergraduate or graduate).
+     * Must be implemented by subclasses.
+     *
+     * @return the student's status
+     */
+    public abstract String getStatus();
+    
+    /**
+     * Determines if the student's name contains the given search key (case-insensitive).
+     *
+     * @param key the string to search for
+     * @return true if the student's name contains the key, false otherwise
+     */
+    @Override
+    public boolean isMatch(String key) {
+        key = key.toLowerCase();
+        return this.getName().toLowerCase().contains(key);
+    }
+    
+    /**
+     * Checks if this student is equal to another object by comparing names.
+     *
+     * @param obj the object to compare with
+     * @return true if the names are equal, false otherwise
+     */
+    @Override
+    public boolean isEqual(Object obj) {
+        return this.getName().equals( ((Student)obj).getName() );
+    }
+    
+    /**
+     * Returns a CourseList object containing all the student's enrolled courses.
+     * The CourseList is a read-only view backed by the student's own course list,
+     * so nothing is copied and later enrollments show up in it.
+     *
+     * @return a read-only CourseList of the student's courses
+     */
+    public CourseList getCourseList() {
+        if(this.courseView == null)
+            this.courseView = new CourseListView(this.courses);
+            
+        return this.courseView;
+    }
+    
+}
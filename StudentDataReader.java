@@ -0,0 +1,617 @@
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code StudentDataReader} class reads the student data file format
+ * used by {@link Controller#loadData(String)} without going through
+ * {@link java.util.Scanner}.
+ *
+ * <p>The file is read in large blocks from a {@link FileChannel} and tokenized
+ * by hand directly on the raw bytes. Integers are parsed in place without
+ * creating intermediate Strings, and Strings are only decoded (as UTF-8) for
+ * the values that are kept, such as names and titles.</p>
+ *
+ * <p>Values that repeat from record to record, namely course codes, course titles
+ * and thesis topics, are looked up in a {@link StringPool} by their bytes, so every
+ * distinct value is decoded once and shared by all the objects holding it. Every
+ * reader has its own pool unless one is {@linkplain #setStringPool(StringPool) set}.</p>
+ *
+ * <p>The tokenizing methods follow the semantics of the {@code Scanner} methods
+ * of the same name. Malformed input raises an {@link InputMismatchException}
+ * and premature end of input a {@link NoSuchElementException}; both messages
+ * report the line and column (counted in bytes) where the problem was found.</p>
+ */
+public class StudentDataReader implements Closeable {
+
+    /** The size of the blocks read from the file */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+
+    /** The channel the data is read from */
+    private FileChannel channel;
+
+    /** Whether closing this reader closes the channel */
+    private boolean ownsChannel;
+
+    /** The file position just past the last byte this reader may read */
+    private long end;
+
+    /** The file position of the next block to read */
+    private long filePosition;
+
+    /** The buffer holding the bytes read so far but not yet consumed */
+    private byte[] buffer;
+
+    /** The index of the next unconsumed byte in the buffer */
+    private int pos;
+
+    /** The number of valid bytes in the buffer */
+    private int limit;
+
+    /** The file position of the first byte in the buffer */
+    private long bufferStart;
+
+    /** The current line number, starting from 1 */
+    private int line;
+
+    /** The file position of the first byte of the current line */
+    private long lineStart;
+
+    /** The pool repeated values are interned into, or null to decode every value */
+    private StringPool strings;
+
+
+    /**
+     * Constructs a reader over the whole file with the specified filename.
+     *
+     * @param filename the path to the data file
+     * @throws FileNotFoundException if the specified file does not exist
+     */
+    public StudentDataReader(String filename) throws FileNotFoundException {
+        this.channel = new FileInputStream(filename).getChannel();
+        this.ownsChannel = true;
+
+        try {
+            this.end = this.channel.size();
+        }
+        catch(IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+
+        this.buffer = new byte[BUFFER_SIZE];
+        this.line = 1;
+        this.strings = new StringPool();
+    }
+
+    /**
+     * Constructs a reader over a range of an already opened file. The range must
+     * begin at the start of a line. Several such readers may share one channel and
+     * be used from different threads, since the channel is only read at explicit
+     * positions. Closing this reader leaves the channel open.
+     *
+     * @param channel the channel to read from
+     * @param start the file position of the first byte to read
+     * @param end the file position just past the last byte to read
+     * @param line the line number of the line starting at {@code start}
+     */
+    StudentDataReader(FileChannel channel, long start, long end, int line) {
+        this.channel = channel;
+        this.ownsChannel = false;
+        this.end = end;
+        this.filePosition = start;
+        this.bufferStart = start;
+        this.lineStart = start;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.line = line;
+        this.strings = new StringPool();
+    }
+
+    /**
+     * Returns the channel this reader reads from.
+     *
+     * @return the underlying file channel
+     */
+    FileChannel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Sets the pool that course codes, course titles and thesis topics are interned into,
+     * for example to share one pool between several readers used by the same thread.
+     *
+     * @param strings the pool to use, or null to create a new String for every value
+     */
+    public void setStringPool(StringPool strings) {
+        this.strings = strings;
+    }
+
+    /**
+     * Returns the pool that course codes, course titles and thesis topics are interned into.
+     *
+     * @return the pool, or null if values are not interned
+     */
+    public StringPool getStringPool() {
+        return this.strings;
+    }
+
+    /**
+     * Returns the file position of the next unconsumed byte.
+     *
+     * @return the current position in the file
+     */
+    public long getPosition() {
+        return this.bufferStart + this.pos;
+    }
+
+    /**
+     * Returns the current line number, starting from 1.
+     *
+     * @return the line of the next unconsumed byte
+     */
+    public int getLine() {
+        return this.line;
+    }
+
+    /**
+     * Returns the current column, counted in bytes and starting from 1.
+     *
+     * @return the column of the next unconsumed byte
+     */
+    public int getColumn() {
+        return (int) (this.bufferStart + this.pos - this.lineStart) + 1;
+    }
+
+    /**
+     * Skips any whitespace and parses the next token as an int.
+     *
+     * @return the parsed int
+     * @throws InputMismatchException if the next token is not a valid int
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public int nextInt() {
+        skipWhitespace();
+
+        if(!ensure(1))
+            throw noSuchElement("an integer");
+
+        int column = getColumn();
+        int k = 0;
+        boolean negative = false;
+
+        // optional sign
+        if(this.buffer[this.pos] == '-' || this.buffer[this.pos] == '+') {
+            negative = this.buffer[this.pos] == '-';
+            k++;
+        }
+
+        // accumulate the value as a negative number so that
+        // Integer.MIN_VALUE can be represented as well
+        int min = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int value = 0;
+        int digits = 0;
+
+        while(ensure(k + 1)) {
+            byte b = this.buffer[this.pos + k];
+
+            if(isWhitespace(b))
+                break;
+
+            int digit = b - '0';
+
+            if(digit < 0 || digit > 9 || value < min / 10 || value * 10 < min + digit)
+                throw mismatch(column, "an integer");
+
+            value = value * 10 - digit;
+            digits++;
+            k++;
+        }
+
+        if(digits == 0)
+            throw mismatch(column, "an integer");
+
+        this.pos += k;
+        return negative ? value : -value;
+    }
+
+    /**
+     * Skips any whitespace and returns the next whitespace-delimited token.
+     *
+     * @return the next token
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public String next() {
+        return readToken(null);
+    }
+
+    /**
+     * Checks whether the next token equals the given ASCII word and consumes it if so.
+     * Unlike {@link #next()}, no String is created for the token.
+     *
+     * @param word the ASCII word to compare against
+     * @return true if the next token was the given word; false if it is a different token
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public boolean nextIs(String word) {
+        skipWhitespace();
+
+        if(!ensure(1))
+            throw noSuchElement("a token");
+
+        int length = 0;
+
+        while(ensure(length + 1) && !isWhitespace(this.buffer[this.pos + length]))
+            length++;
+
+        if(length != word.length())
+            return false;
+
+        for(int i = 0; i < length; i++) {
+            if(this.buffer[this.pos + i] != word.charAt(i))
+                return false;
+        }
+
+        this.pos += length;
+        return true;
+    }
+
+    /**
+     * Returns the rest of the current line and moves to the beginning of the next one.
+     * The line terminator is not included in the result.
+     *
+     * @return the rest of the current line
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public String nextLine() {
+        return readLine(false, null);
+    }
+
+    /**
+     * Returns the rest of the current line with leading and trailing whitespace removed,
+     * and moves to the beginning of the next one. Equivalent to {@code nextLine().trim()}
+     * without creating the untrimmed String.
+     *
+     * @return the trimmed rest of the current line
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public String nextTrimmedLine() {
+        return readLine(true, null);
+    }
+
+    /**
+     * Reads one student record, enrolling the student in courses interned
+     * into the given course list.
+     *
+     * <p>A record consists of the student's name on its own line, a line with
+     * either {@code Graduate} followed by the thesis topic or {@code Undergraduate}
+     * followed by the year level, a line with the number of courses, and one line
+     * per course holding its code, credit hours and title.</p>
+     *
+     * <p>The thesis topic and the code and title of every course are interned
+     * into the {@linkplain #getStringPool() string pool}.</p>
+     *
+     * @param courses the catalog into which the student's courses are interned
+     * @return the student that was read
+     * @throws InputMismatchException if the record is malformed
+     * @throws NoSuchElementException if the input ends in the middle of the record
+     */
+    public Student readStudent(CourseList courses) {
+        String name = nextLine();
+
+        Student stud;
+
+        // check what type of student
+        if( nextIs("Graduate") ) {
+            // create a graduate student object with its thesis topic
+            GraduateStudent gs = new GraduateStudent(name);
+            gs.setThesisTopic( readLine(true, this.strings) );
+
+            stud = gs;
+        }
+        else {
+            // anything else is read as an undergraduate, like the Scanner based loader did
+            next();
+
+            // create an undergraduate student object with its year level
+            UndergraduateStudent ugs = new UndergraduateStudent(name);
+            ugs.setYearLevel( nextInt() );
+
+            stud = ugs;
+        }
+
+        int C = nextInt();
+        nextLine();
+
+        for(int j = 0; j < C; j++) {
+            String code = readToken(this.strings);
+            int credit = nextInt();
+            String title = readLine(true, this.strings);
+
+            // share the catalog's copy of the course
+            stud.enroll( courses.intern( new Course(code, title, credit) ) );
+        }
+
+        return stud;
+    }
+
+    /**
+     * Skips one student record without creating any objects for it.
+     * The record must have the structure described in {@link #readStudent(CourseList)}.
+     *
+     * @throws InputMismatchException if the record is malformed
+     * @throws NoSuchElementException if the input ends in the middle of the record
+     */
+    public void skipStudent() {
+        skipLine();
+
+        if( nextIs("Graduate") ) {
+            skipLine();
+        }
+        else {
+            // skip the type and the year level
+            skipToken();
+            nextInt();
+        }
+
+        int C = nextInt();
+        skipLine();
+
+        for(int j = 0; j < C; j++) {
+            skipToken();
+            nextInt();
+            skipLine();
+        }
+    }
+
+    /**
+     * Skips the rest of the current line, including the line terminator.
+     *
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public void skipLine() {
+        if(!ensure(1))
+            throw noSuchElement("a line");
+
+        while(ensure(1) && this.buffer[this.pos] != '\n' && this.buffer[this.pos] != '\r')
+            this.pos++;
+
+        skipLineTerminator();
+    }
+
+    /**
+     * Closes the underlying file channel unless it was supplied by the caller.
+     */
+    @Override
+    public void close() {
+        if(!this.ownsChannel)
+            return;
+
+        try {
+            this.channel.close();
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Skips whitespace and the following token.
+     *
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    private void skipToken() {
+        skipWhitespace();
+
+        if(!ensure(1))
+            throw noSuchElement("a token");
+
+        while(ensure(1) && !isWhitespace(this.buffer[this.pos]))
+            this.pos++;
+    }
+
+    /**
+     * Skips any whitespace and returns the next whitespace-delimited token,
+     * interned into the given pool.
+     *
+     * @param pool the pool to intern the token into, or null to decode it into a new String
+     * @return the next token
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    private String readToken(StringPool pool) {
+        skipWhitespace();
+
+        if(!ensure(1))
+            throw noSuchElement("a token");
+
+        int length = 0;
+
+        while(ensure(length + 1) && !isWhitespace(this.buffer[this.pos + length]))
+            length++;
+
+        String token = pool != null ? pool.intern(this.buffer, this.pos, length)
+                                    : new String(this.buffer, this.pos, length, StandardCharsets.UTF_8);
+        this.pos += length;
+
+        return token;
+    }
+
+    /**
+     * Reads the rest of the current line, optionally trimmed, and consumes the line terminator.
+     *
+     * @param trim whether to strip leading and trailing whitespace
+     * @param pool the pool to intern the line into, or null to decode it into a new String
+     * @return the decoded rest of the line
+     */
+    private String readLine(boolean trim, StringPool pool) {
+        if(!ensure(1))
+            throw noSuchElement("a line");
+
+        int length = 0;
+
+        while(ensure(length + 1) && this.buffer[this.pos + length] != '\n' && this.buffer[this.pos + length] != '\r')
+            length++;
+
+        int from = this.pos;
+        int to = this.pos + length;
+
+        if(trim) {
+            while(from < to && isBlank(this.buffer[from])) from++;
+            while(to > from && isBlank(this.buffer[to - 1])) to--;
+        }
+
+        String result = pool != null ? pool.intern(this.buffer, from, to - from)
+                                     : new String(this.buffer, from, to - from, StandardCharsets.UTF_8);
+        this.pos += length;
+
+        skipLineTerminator();
+
+        return result;
+    }
+
+    /**
+     * Consumes a single line terminator ({@code \n}, {@code \r\n} or {@code \r}) if one is next.
+     */
+    private void skipLineTerminator() {
+        if(!ensure(1))
+            return;
+
+        byte b = this.buffer[this.pos];
+
+        if(b == '\r') {
+            this.pos++;
+
+            if(ensure(1) && this.buffer[this.pos] == '\n')
+                this.pos++;
+        }
+        else if(b == '\n') {
+            this.pos++;
+        }
+        else {
+            return;
+        }
+
+        newLine();
+    }
+
+    /**
+     * Skips whitespace, including line terminators.
+     */
+    private void skipWhitespace() {
+        while(ensure(1) && isWhitespace(this.buffer[this.pos])) {
+            if(this.buffer[this.pos] == '\n' || this.buffer[this.pos] == '\r')
+                skipLineTerminator();
+            else
+                this.pos++;
+        }
+    }
+
+    /**
+     * Records that a new line starts at the current position.
+     */
+    private void newLine() {
+        this.line++;
+        this.lineStart = this.bufferStart + this.pos;
+    }
+
+    /**
+     * Makes sure at least the given number of unconsumed bytes are in the buffer,
+     * reading more of the file if necessary. Reading may move the unconsumed
+     * bytes to the front of the buffer, so indexes must be relative to {@code pos}.
+     *
+     * @param count the number of bytes needed
+     * @return true if the bytes are available; false if the input ends before that
+     */
+    private boolean ensure(int count) {
+        while(this.limit - this.pos < count) {
+            if(this.filePosition >= this.end)
+                return false;
+
+            // move the unconsumed bytes to the front
+            int remaining = this.limit - this.pos;
+            System.arraycopy(this.buffer, this.pos, this.buffer, 0, remaining);
+            this.bufferStart += this.pos;
+            this.pos = 0;
+            this.limit = remaining;
+
+            // grow the buffer for tokens longer than the buffer
+            if(this.limit == this.buffer.length)
+                this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+
+            int max = (int) Math.min(this.buffer.length - this.limit, this.end - this.filePosition);
+
+            try {
+                int read = this.channel.read(ByteBuffer.wrap(this.buffer, this.limit, max), this.filePosition);
+                if(read < 0)
+                    return false;
+
+                this.filePosition += read;
+                this.limit += read;
+            }
+            catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Creates an exception reporting a token that could not be parsed.
+     *
+     * @param column the column where the token starts
+     * @param expected a description of what was expected
+     * @return the exception to throw
+     */
+    private InputMismatchException mismatch(int column, String expected) {
+        int length = 0;
+
+        while(ensure(length + 1) && !isWhitespace(this.buffer[this.pos + length]))
+            length++;
+
+        String found = new String(this.buffer, this.pos, length, StandardCharsets.UTF_8);
+
+        return new InputMismatchException(
+            String.format("line %d, column %d: expected %s but found \"%s\"", this.line, column, expected, found));
+    }
+
+    /**
+     * Creates an exception reporting that the input ended unexpectedly.
+     *
+     * @param expected a description of what was expected
+     * @return the exception to throw
+     */
+    private NoSuchElementException noSuchElement(String expected) {
+        return new NoSuchElementException(
+            String.format("line %d, column %d: expected %s but reached the end of the input", this.line, getColumn(), expected));
+    }
+
+    /**
+     * Determines whether a byte is a token separator.
+     *
+     * @param b the byte to check
+     * @return true for spaces, tabs, line terminators and form feeds
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+
+    /**
+     * Determines whether a byte is removed by {@link String#trim()}.
+     *
+     * @param b the byte to check
+     * @return true for control characters and spaces
+     */
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+}
@@ -1,244 +1,457 @@
-import javax.swing.JFrame;
-import javax.swing.JTable;
-import javax.swing.JScrollPane;
-import javax.swing.JButton;
-import javax.swing.JPanel;
-import javax.swing.JOptionPane;
-import java.awt.BorderLayout;
-import java.awt.FlowLayout;
-import java.awt.event.ActionEvent;
-
-/**
- * The {@code StudentListUI} class represents a user interface window
- * that displays a list of students in a table format with options to filter,
- * reset, and view related course information.
- * 
- * <p>This class uses a {@link Controller} object to retrieve student and
- * course data. It provides controls to filter students by search query,
- * reset the filter, view courses, and display detailed information about
- * a selected student.</p>
- * 
- * <p>The main window closes the application on exit and centers itself on
- * the screen.</p>
- */
-public class StudentListUI {
-    
-    /** The application title */
-    private static final String WINDOW_TITLE = "Student Information System";
-    
-    
-    /** The controller used to fetch student and course data */
-    private Controller controller;
-    
-    /** The main JFrame window for this UI */
-    private JFrame frame;
-    
-    /** The JTable displaying student data */
-    private JTable table;
-    
-    /** The JScrollPane containing the table */
-    private JScrollPane sp;
-    
-    /** Button to apply a filter to the student list */
-    private JButton btnFilter;
-    
-    /** Button to reset the applied filter */
-    private JButton btnReset;
-    
-    
-    /**
-     * Constructs the StudentListUI window showing all students.
-     * Sets up buttons for filtering, resetting, viewing courses,
-     * and showing student details.
-     * 
-     * The window is centered on the screen.
-     * 
-     * @param controller the controller instance to access data
-     */
-    public StudentListUI(Controller controller) {
-        // set the controller for this view
-        this.controller = controller;
-    
-        // create a frame for this view
-        this.frame = new JFrame(WINDOW_TITLE);
-        
-        // terminate the application on exit
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(950, 200);
-        
-        // populate the table with all data from the file
-        populateTable(controller.getStudentListData());
-        
-        // button to open list of courses
-        JButton btnCourses = new JButton("Show All Courses");
-        btnCourses.addActionListener(this::showCourses);
-        
-        // button to filter entries of the table
-        btnFilter = new JButton("Filter Students");
-        btnFilter.addActionListener(this::filterStudents);
-        
-        // button to reset the filter applied to the table
-        btnReset = new JButton("Reset Filter");
-        btnReset.setEnabled(false);
-        btnReset.addActionListener(this::resetFilter);
-        
-        // button to show list of courses of a student
-        JButton btnRegistration = new JButton("View Student Registration");
-        btnRegistration.addActionListener(this::openCourseListUI);
-        
-        // button to show info of a student
-        JButton btnDetails = new JButton("View Student Details");
-        btnDetails.addActionListener(this::displayStudentInfo);
-        
-        // add all buttons to a panel
-        JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        bottomPanel.add(btnCourses);
-        bottomPanel.add(btnFilter);
-        bottomPanel.add(btnReset);
-        bottomPanel.add(btnRegistration);
-        bottomPanel.add(btnDetails);
-        
-        // add panel to a ScrollPane to prevent from being hidden
-        JScrollPane bsp = new JScrollPane(bottomPanel,
-            JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
-            JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
-            
-        this.frame.add(bsp, BorderLayout.SOUTH);
-        
-        // center the window on the screen
-        this.frame.setLocationRelativeTo(null);
-        
-        // show the frame
-        this.frame.setVisible(true);
-    }
-    
-    /**
-     * Opens a {@link CourseListUI} window showing the courses
-     * registered by the currently selected student in the table.
-     * 
-     * @param e the action event triggered by the user
-     */
-    private void openCourseListUI(ActionEvent e) {
-        // get selected row
-        int selectedRow = this.table.getSelectedRow();
-        
-        // ignore if no row is selected
-        if(selectedRow == -1) {
-            JOptionPane.showMessageDialog(this.frame, "Select a student first.");
-            return;
-        }
-        
-        // get the current row
-        String studentName = table.getValueAt(selectedRow, 0).toString();
-        
-        // open the StudentUI and pass the details of the selected row
-        new CourseListUI(this.controller, this.frame, studentName);
-    }
-    
-    /**
-     * Displays detailed information about the currently selected student
-     * in a message dialog.
-     * 
-     * @param e the action event triggered by the user
-     */
-    private void displayStudentInfo(ActionEvent e) {
-        // get selected row
-        int selectedRow = this.table.getSelectedRow();
-        
-        // ignore if no row is selected
-        if(selectedRow == -1) {
-            JOptionPane.showMessageDialog(this.frame, "Select a student first.");
-            return;
-        }
-        
-        // get the current row
-        String studentName = table.getValueAt(selectedRow, 0).toString();
-        
-        // get student object
-        Student student = this.controller.getStudent(studentName);
-        
-        JOptionPane.showMessageDialog(this.frame, student.getInfo());
-    }
-    
-    /**
-     * Prompts the user for a search query and filters the student list table
-     * accordingly. Disables the filter button and enables the reset button
-     * upon successful filtering.
-     * 
-     * @param e the action event triggered by the user
-     */
-    private void filterStudents(ActionEvent e) {
-        String key = JOptionPane.showInputDialog(this.frame, "Enter Search Query:");
-        
-        if(key != null && !key.isEmpty()) {
-            // remove the old one first
-            this.frame.remove(this.sp);
-            
-            populateTable( this.controller.getStudentListData( key ) );
-            
-            // disable the filter button and enable the reset
-            btnFilter.setEnabled(false);
-            btnReset.setEnabled(true);
-            
-            // update the window title
-            this.frame.setTitle( String.format("%s | Filtered: %s", WINDOW_TITLE, key) );
-        }
-        else {
-            JOptionPane.showMessageDialog(this.frame, "No search query was entered.");
-        }
-    }
-    
-    /**
-     * Resets any applied filter on the student list and reloads
-     * the full student data. Enables the filter button and disables
-     * the reset button.
-     * 
-     * @param e the action event triggered by the user
-     */
-    private void resetFilter(ActionEvent e) {
-        // remove the old one first
-        this.frame.remove(this.sp);
-        
-        populateTable( this.controller.getStudentListData() );
-        
-        // enable the filter button and disable the reset
-        btnFilter.setEnabled(true);
-        btnReset.setEnabled(false);
-        
-        // update the window title
-        this.frame.setTitle( WINDOW_TITLE );
-    }
-    
-    /**
-     * Opens a {@link CourseListUI} window displaying all courses.
-     * 
-     * @param e the action event triggered by the user
-     */
-    private void showCourses(ActionEvent e) {
-        // open the StudentUI and pass the details of the selected row
-        new CourseListUI(this.controller, this.frame);
-    }
-    
-    /**
-     * Populates the JTable with the provided student data
-     * and embeds it within a JScrollPane added to the frame.
-     * 
-     * @param data a 2D array of student data to display in the table
-     */
-    private void populateTable(String[][] data) {
-        // set column names
-        String[] columnNames = {"Name", "Student Type", "Total Credit Hours", "Tuition Due"};
-        
-        // add the data to this table
-        this.table = new JTable(data, columnNames);
-        
-        // make it scrollable
-        this.sp = new JScrollPane(this.table);
-        this.frame.add(this.sp, BorderLayout.CENTER);
-        
-        // refresh the UI
-        this.frame.revalidate();
-        this.frame.repaint();
-    }
-
-}
+import javax.swing.JFrame;
+import javax.swing.JTable;
+import javax.swing.JScrollPane;
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JOptionPane;
+import javax.swing.JLabel;
+import javax.swing.SwingWorker;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The {@code StudentListUI} class represents a user interface window
+ * that displays a list of students in a table format with options to filter,
+ * reset, and view related course information.
+ * 
+ * <p>This class uses a {@link Controller} object to retrieve student and
+ * course data. It provides controls to filter students by search query,
+ * reset the filter, view courses, and display detailed information about
+ * a selected student. A search field above the table filters the students
+ * as the user types. When the controller reloads its data, the table
+ * switches to the new data, keeping the current search.</p>
+ * 
+ * <p>The main window closes the application on exit and centers itself on
+ * the screen.</p>
+ */
+public class StudentListUI {
+    
+    /** The application title */
+    private static final String WINDOW_TITLE = "Student Information System";
+    
+    /** The number of students a background filter searches before showing its results so far */
+    private static final int FILTER_SLICE = 16384;
+    
+    
+    /** The controller used to fetch student and course data */
+    private Controller controller;
+    
+    /** The main JFrame window for this UI */
+    private JFrame frame;
+    
+    /** The JTable displaying student data */
+    private JTable table;
+    
+    /** The model supplying the rows of the table */
+    private StudentTableModel model;
+    
+    /** The JScrollPane containing the table */
+    private JScrollPane sp;
+    
+    /** Button to apply a filter to the student list */
+    private JButton btnFilter;
+    
+    /** Button to reset the applied filter */
+    private JButton btnReset;
+    
+    /** Label showing the number of rows and the progress of a running filter */
+    private JLabel lblStatus;
+    
+    /** The filter currently running in the background, or null if none */
+    private FilterWorker filterWorker;
+    
+    /** Field whose text filters the table as the user types */
+    private JTextField txtSearch;
+    
+    /** Reuses recent results so each keystroke only refines the previous one */
+    private IncrementalStudentSearch search;
+    
+    
+    /**
+     * Constructs the StudentListUI window showing all students.
+     * Sets up buttons for filtering, resetting, viewing courses,
+     * and showing student details.
+     * 
+     * The window is centered on the screen.
+     * 
+     * @param controller the controller instance to access data
+     */
+    public StudentListUI(Controller controller) {
+        // set the controller for this view
+        this.controller = controller;
+    
+        // create a frame for this view
+        this.frame = new JFrame(WINDOW_TITLE);
+        
+        // terminate the application on exit
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setSize(950, 200);
+        
+        // populate the table with all data from the file
+        populateTable(controller.getStudentList());
+        
+        // field to filter the table while typing
+        this.search = new IncrementalStudentSearch(controller.getStudentList());
+        this.txtSearch = new JTextField(30);
+        this.txtSearch.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { applySearch(); }
+            public void removeUpdate(DocumentEvent e) { applySearch(); }
+            public void changedUpdate(DocumentEvent e) { applySearch(); }
+        });
+        
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(new JLabel("Search:"));
+        topPanel.add(this.txtSearch);
+        this.frame.add(topPanel, BorderLayout.NORTH);
+        
+        // button to open list of courses
+        JButton btnCourses = new JButton("Show All Courses");
+        btnCourses.addActionListener(this::showCourses);
+        
+        // button to filter entries of the table
+        btnFilter = new JButton("Filter Students");
+        btnFilter.addActionListener(this::filterStudents);
+        
+        // button to reset the filter applied to the table
+        btnReset = new JButton("Reset Filter");
+        btnReset.setEnabled(false);
+        btnReset.addActionListener(this::resetFilter);
+        
+        // button to show list of courses of a student
+        JButton btnRegistration = new JButton("View Student Registration");
+        btnRegistration.addActionListener(this::openCourseListUI);
+        
+        // button to show info of a student
+        JButton btnDetails = new JButton("View Student Details");
+        btnDetails.addActionListener(this::displayStudentInfo);
+        
+        // add all buttons to a panel
+        JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        bottomPanel.add(btnCourses);
+        bottomPanel.add(btnFilter);
+        bottomPanel.add(btnReset);
+        bottomPanel.add(btnRegistration);
+        bottomPanel.add(btnDetails);
+        
+        // label showing the row count and filter progress
+        this.lblStatus = new JLabel();
+        bottomPanel.add(this.lblStatus);
+        showRowCount();
+        
+        // add panel to a ScrollPane to prevent from being hidden
+        JScrollPane bsp = new JScrollPane(bottomPanel,
+            JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
+            JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+            
+        this.frame.add(bsp, BorderLayout.SOUTH);
+        
+        // show new data when the controller reloads, on the EDT
+        controller.addReloadListener( () -> SwingUtilities.invokeLater(this::dataReloaded) );
+        
+        // center the window on the screen
+        this.frame.setLocationRelativeTo(null);
+        
+        // show the frame
+        this.frame.setVisible(true);
+    }
+    
+    /**
+     * Opens a {@link CourseListUI} window showing the courses
+     * registered by the currently selected student in the table.
+     * 
+     * @param e the action event triggered by the user
+     */
+    private void openCourseListUI(ActionEvent e) {
+        // get selected row
+        int selectedRow = this.table.getSelectedRow();
+        
+        // ignore if no row is selected
+        if(selectedRow == -1) {
+            JOptionPane.showMessageDialog(this.frame, "Select a student first.");
+            return;
+        }
+        
+        // get the student shown in the current row
+        Student student = this.model.getStudentAt( this.table.convertRowIndexToModel(selectedRow) );
+        
+        // open the StudentUI and pass the details of the selected row
+        new CourseListUI(this.controller, this.frame, student);
+    }
+    
+    /**
+     * Displays detailed information about the currently selected student
+     * in a message dialog.
+     * 
+     * @param e the action event triggered by the user
+     */
+    private void displayStudentInfo(ActionEvent e) {
+        // get selected row
+        int selectedRow = this.table.getSelectedRow();
+        
+        // ignore if no row is selected
+        if(selectedRow == -1) {
+            JOptionPane.showMessageDialog(this.frame, "Select a student first.");
+            return;
+        }
+        
+        // get the student shown in the current row
+        Student student = this.model.getStudentAt( this.table.convertRowIndexToModel(selectedRow) );
+        
+        JOptionPane.showMessageDialog(this.frame, student.getInfo());
+    }
+    
+    /**
+     * Prompts the user for a search query and filters the student list table
+     * accordingly. Disables the filter button and enables the reset button
+     * upon successful filtering.
+     * 
+     * <p>The search runs in the background, so the window stays responsive,
+     * and matches are added to the table as they are found.</p>
+     * 
+     * @param e the action event triggered by the user
+     */
+    private void filterStudents(ActionEvent e) {
+        String key = JOptionPane.showInputDialog(this.frame, "Enter Search Query:");
+        
+        if(key != null && !key.isEmpty()) {
+            // show only the matching students, the same as typing the key
+            this.txtSearch.setText(key);
+        }
+        else {
+            JOptionPane.showMessageDialog(this.frame, "No search query was entered.");
+        }
+    }
+    
+    /**
+     * Resets any applied filter on the student list and reloads
+     * the full student data. Enables the filter button and disables
+     * the reset button.
+     * 
+     * @param e the action event triggered by the user
+     */
+    private void resetFilter(ActionEvent e) {
+        // clearing the search field shows all students again
+        this.txtSearch.setText("");
+    }
+    
+    /**
+     * Filters the table by the current text of the search field, or shows all
+     * students if it is empty. Recently searched keys are shown straight from
+     * the cache; otherwise only the smallest earlier result that can contain
+     * the matches is searched, in the background.
+     */
+    private void applySearch() {
+        String key = this.txtSearch.getText();
+        
+        // stop a filter that is still running
+        cancelFilter();
+        
+        if(key.isEmpty()) {
+            // show all students again
+            this.model.setStudents( this.controller.getStudentList() );
+            showRowCount();
+            
+            // enable the filter button and disable the reset
+            btnFilter.setEnabled(true);
+            btnReset.setEnabled(false);
+            
+            // update the window title
+            this.frame.setTitle( WINDOW_TITLE );
+            return;
+        }
+        
+        StudentList cached = this.search.getCached(key);
+        
+        if(cached != null) {
+            this.model.setStudents( cached );
+            showRowCount();
+        }
+        else {
+            // search in the background, refining an earlier result if possible
+            startFilter( key, this.search.baseFor(key) );
+        }
+        
+        // disable the filter button and enable the reset
+        btnFilter.setEnabled(false);
+        btnReset.setEnabled(true);
+        
+        // update the window title
+        this.frame.setTitle( String.format("%s | Filtered: %s", WINDOW_TITLE, key) );
+    }
+    
+    /**
+     * Switches the table to the data the controller has just reloaded.
+     * Earlier results refer to the old data, so the search cache is replaced
+     * and the current search is run again on the new students.
+     */
+    private void dataReloaded() {
+        cancelFilter();
+        
+        this.search = new IncrementalStudentSearch(this.controller.getStudentList());
+        applySearch();
+    }
+    
+    /**
+     * Starts filtering a student list in the background, cancelling
+     * any filter that is still running. The table is emptied and then
+     * filled with the matches as they are found.
+     * 
+     * @param key the search query string to filter students
+     * @param students the list to search, which holds every match of the key
+     */
+    private void startFilter(String key, StudentList students) {
+        cancelFilter();
+        
+        this.model.clear();
+        
+        this.filterWorker = new FilterWorker(students, key);
+        this.filterWorker.execute();
+    }
+    
+    /**
+     * Cancels the filter running in the background, if any.
+     * Results it has not delivered yet are discarded.
+     */
+    private void cancelFilter() {
+        if(this.filterWorker != null) {
+            this.filterWorker.cancel(false);
+            this.filterWorker = null;
+        }
+    }
+    
+    /**
+     * Shows the number of rows in the table on the status label.
+     */
+    private void showRowCount() {
+        this.lblStatus.setText( String.format("%,d students", this.model.getRowCount()) );
+    }
+    
+    /**
+     * Opens a {@link CourseListUI} window displaying all courses.
+     * 
+     * @param e the action event triggered by the user
+     */
+    private void showCourses(ActionEvent e) {
+        // open the StudentUI and pass the details of the selected row
+        new CourseListUI(this.controller, this.frame);
+    }
+    
+    /**
+     * Populates the JTable with the provided students
+     * and embeds it within a JScrollPane added to the frame.
+     * The cells are formatted lazily by a {@link StudentTableModel},
+     * so only the visible rows are ever converted to text.
+     * 
+     * @param students the students to display in the table
+     */
+    private void populateTable(StudentList students) {
+        // add the data to this table
+        this.model = new StudentTableModel(students);
+        this.table = new JTable(this.model);
+        
+        // make it scrollable
+        this.sp = new JScrollPane(this.table);
+        this.frame.add(this.sp, BorderLayout.CENTER);
+        
+        // refresh the UI
+        this.frame.revalidate();
+        this.frame.repaint();
+    }
+
+    /**
+     * Searches a student list slice by slice off the Event Dispatch Thread,
+     * publishing the matches of every slice so the table fills up progressively.
+     * Checks for cancellation between slices.
+     */
+    private class FilterWorker extends SwingWorker<Void, StudentList> {
+        
+        /** The list being searched */
+        private StudentList students;
+        
+        /** The search query string */
+        private String key;
+        
+        /**
+         * Constructs a worker that searches the given list.
+         * 
+         * @param students the list to search
+         * @param key the search query string
+         */
+        FilterWorker(StudentList students, String key) {
+            this.students = students;
+            this.key = key;
+        }
+        
+        /**
+         * Searches the list in slices, publishing the matches of each slice.
+         * 
+         * @return nothing
+         */
+        @Override
+        protected Void doInBackground() {
+            int total = this.students.size();
+            
+            for(int from = 0; from < total && !isCancelled(); from += FILTER_SLICE) {
+                int to = Math.min(total, from + FILTER_SLICE);
+                
+                publish( this.students.query(this.key, from, to) );
+                setProgress( (int) (100L * to / total) );
+            }
+            
+            return null;
+        }
+        
+        /**
+         * Appends the published matches to the table on the Event Dispatch Thread.
+         * 
+         * @param parts the matches of the slices searched since the last call
+         */
+        @Override
+        protected void process(List<StudentList> parts) {
+            // a newer filter or a reset may have replaced this one
+            if(isCancelled()) return;
+            
+            for(StudentList part : parts)
+                model.appendStudents(part);
+            
+            lblStatus.setText( String.format("%,d students (searching %d%%)", model.getRowCount(), getProgress()) );
+        }
+        
+        /**
+         * Remembers the complete result and shows the final row count once the search is over.
+         * If the search failed, the rows found so far are kept but not remembered,
+         * and the status shows the error instead.
+         */
+        @Override
+        protected void done() {
+            if(isCancelled()) return;
+            
+            filterWorker = null;
+            
+            try {
+                // rethrows whatever the search threw
+                get();
+            }
+            catch(ExecutionException e) {
+                lblStatus.setText( String.format("%,d students (search failed: %s)", model.getRowCount(), e.getCause()) );
+                return;
+            }
+            catch(InterruptedException e) {
+                // cannot happen once the worker is done
+                Thread.currentThread().interrupt();
+                return;
+            }
+            
+            search.remember(this.key, model.getStudents());
+            showRowCount();
+        }
+    }
+    
+}
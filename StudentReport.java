@@ -0,0 +1,483 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The {@code StudentReport} class computes aggregate figures over a list of
+ * students without any user interface: the number of students, credit hours and
+ * tuition due by status, the distribution of total credit hours, the number of
+ * students enrolled in every course, and the number of undergraduates per year level.
+ *
+ * <p>The figures are computed in a single pass over the list. The list is split
+ * into chunks of a fixed number of students that are aggregated independently on a
+ * {@link ForkJoinPool}, and the partial results are merged in list order, so the
+ * result, including the rounding of the tuition totals, does not depend on the
+ * number of threads.</p>
+ *
+ * <p>A report is written as CSV, one {@link Table} at a time, or as a single JSON
+ * document, straight to a channel without building the rows as strings first.
+ * The list must not be modified while the report is computed.</p>
+ */
+public class StudentReport {
+
+    /**
+     * The tables of a report that can be written as CSV.
+     */
+    public enum Table {
+        /** {@code status,students,credits,tuition}: the totals by status */
+        STATUS,
+        /** {@code credits,students}: the number of students by total credit hours */
+        CREDITS,
+        /** {@code code,title,credit,students}: the number of students enrolled in every course */
+        COURSES,
+        /** {@code year_level,students}: the number of undergraduates by year level */
+        YEAR_LEVELS
+    }
+
+    /**
+     * The totals of the students of one status.
+     */
+    public static class StatusTotals {
+
+        /** The number of students */
+        private long students;
+
+        /** The sum of their total credit hours */
+        private long credits;
+
+        /** The sum of their tuition due */
+        private double tuition;
+
+        /**
+         * Returns the number of students.
+         *
+         * @return the student count
+         */
+        public long getStudents() {
+            return this.students;
+        }
+
+        /**
+         * Returns the sum of the total credit hours of the students.
+         *
+         * @return the credit hours
+         */
+        public long getCredits() {
+            return this.credits;
+        }
+
+        /**
+         * Returns the sum of the tuition due of the students.
+         *
+         * @return the tuition due
+         */
+        public double getTuition() {
+            return this.tuition;
+        }
+
+        /**
+         * Adds the totals of another part of the list, which follows this one.
+         *
+         * @param other the totals to add
+         */
+        private void add(StatusTotals other) {
+            this.students += other.students;
+            this.credits += other.credits;
+            this.tuition += other.tuition;
+        }
+    }
+
+    /** The number of students aggregated by one task */
+    private static final int CHUNK_SIZE = 4096;
+
+
+    /** The totals by status, ordered by status */
+    private final TreeMap<String, StatusTotals> statusTotals = new TreeMap<>();
+
+    /** The number of students by total credit hours */
+    private final TreeMap<Integer, Long> creditDistribution = new TreeMap<>();
+
+    /** The number of students by year level, for undergraduates */
+    private final TreeMap<Integer, Long> yearLevels = new TreeMap<>();
+
+    /**
+     * The number of students by course. Courses are counted by identity while
+     * aggregating and grouped by catalog key when the parts are merged.
+     */
+    private Map<Course, long[]> enrollments = new IdentityHashMap<>();
+
+    /** The courses of {@code enrollments} by catalog key, once the parts are merged */
+    private Map<Object, Course> catalog;
+
+    /** The number of students aggregated */
+    private long students;
+
+
+    /**
+     * Constructs an empty report; use {@link #compute(StudentList)}.
+     */
+    private StudentReport() {
+    }
+
+    /**
+     * Computes a report over the given students on the common {@link ForkJoinPool}.
+     *
+     * @param list the students to report on
+     * @return the report
+     */
+    public static StudentReport compute(StudentList list) {
+        return compute(list, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes a report over the given students on the given pool.
+     *
+     * @param list the students to report on
+     * @param pool the pool to aggregate the chunks on
+     * @return the report
+     */
+    public static StudentReport compute(StudentList list, ForkJoinPool pool) {
+        int size = list.size();
+        List<ForkJoinTask<StudentReport>> tasks = new ArrayList<>();
+
+        for(int from = 0; from < size; from += CHUNK_SIZE) {
+            int start = from;
+            int end = Math.min(from + CHUNK_SIZE, size);
+
+            tasks.add( pool.submit(() -> aggregate(list, start, end)) );
+        }
+
+        StudentReport report = new StudentReport();
+        Map<Object, Course> catalog = new HashMap<>();
+        Map<Course, long[]> enrollments = new IdentityHashMap<>();
+
+        try {
+            for(ForkJoinTask<StudentReport> task : tasks) {
+                StudentReport part = task.join();
+
+                report.merge(part);
+
+                // group equal courses held by different objects
+                for(Map.Entry<Course, long[]> e : part.enrollments.entrySet()) {
+                    Course c = catalog.computeIfAbsent(e.getKey().getKey(), k -> e.getKey());
+                    enrollments.computeIfAbsent(c, k -> new long[1])[0] += e.getValue()[0];
+                }
+            }
+        }
+        finally {
+            for(ForkJoinTask<StudentReport> task : tasks)
+                task.cancel(false);
+        }
+
+        report.enrollments = enrollments;
+        report.catalog = catalog;
+
+        return report;
+    }
+
+    /**
+     * Aggregates a range of students.
+     *
+     * @param list the students
+     * @param from the position of the first student
+     * @param to the position just past the last student
+     * @return the partial report of the range
+     */
+    private static StudentReport aggregate(StudentList list, int from, int to) {
+        StudentReport part = new StudentReport();
+
+        for(int i = from; i < to; i++)
+            part.add( list.get(i) );
+
+        return part;
+    }
+
+    /**
+     * Adds one student to the figures.
+     *
+     * @param stud the student
+     */
+    private void add(Student stud) {
+        int credit = stud.getTotalCredit();
+        StatusTotals totals = this.statusTotals.computeIfAbsent(stud.getStatus(), k -> new StatusTotals());
+
+        totals.students++;
+        totals.credits += credit;
+        totals.tuition += stud.getTuitionDue();
+
+        this.creditDistribution.merge(credit, 1L, Long::sum);
+
+        if(stud instanceof UndergraduateStudent)
+            this.yearLevels.merge(((UndergraduateStudent) stud).getYearLevel(), 1L, Long::sum);
+
+        for(Course c : stud.getCourses())
+            this.enrollments.computeIfAbsent(c, k -> new long[1])[0]++;
+
+        this.students++;
+    }
+
+    /**
+     * Adds the figures of the part of the list following the part aggregated so far,
+     * except for the enrollments.
+     *
+     * @param part the partial report to add
+     */
+    private void merge(StudentReport part) {
+        for(Map.Entry<String, StatusTotals> e : part.statusTotals.entrySet())
+            this.statusTotals.computeIfAbsent(e.getKey(), k -> new StatusTotals()).add(e.getValue());
+
+        part.creditDistribution.forEach((k, v) -> this.creditDistribution.merge(k, v, Long::sum));
+        part.yearLevels.forEach((k, v) -> this.yearLevels.merge(k, v, Long::sum));
+
+        this.students += part.students;
+    }
+
+    /**
+     * Returns the number of students aggregated.
+     *
+     * @return the student count
+     */
+    public long getStudentCount() {
+        return this.students;
+    }
+
+    /**
+     * Returns the tuition due by all students.
+     *
+     * @return the total tuition
+     */
+    public double getTotalTuition() {
+        double total = 0;
+
+        for(StatusTotals totals : this.statusTotals.values())
+            total += totals.tuition;
+
+        return total;
+    }
+
+    /**
+     * Returns the totals by {@link Student#getStatus() status}.
+     *
+     * @return a read-only map from status to totals, ordered by status
+     */
+    public SortedMap<String, StatusTotals> getStatusTotals() {
+        return Collections.unmodifiableSortedMap(this.statusTotals);
+    }
+
+    /**
+     * Returns the number of students by total credit hours.
+     *
+     * @return a read-only map from credit hours to student count, in increasing order
+     */
+    public SortedMap<Integer, Long> getCreditDistribution() {
+        return Collections.unmodifiableSortedMap(this.creditDistribution);
+    }
+
+    /**
+     * Returns the number of undergraduates by year level.
+     *
+     * @return a read-only map from year level to student count, in increasing order
+     */
+    public SortedMap<Integer, Long> getYearLevels() {
+        return Collections.unmodifiableSortedMap(this.yearLevels);
+    }
+
+    /**
+     * Returns the number of students enrolled in the given course.
+     *
+     * @param c a course equal to a catalog course
+     * @return the number of students enrolled, or 0 if none is
+     */
+    public long getEnrollmentCount(Course c) {
+        Course counted = this.catalog.get(c.getKey());
+
+        return counted == null ? 0 : this.enrollments.get(counted)[0];
+    }
+
+    /**
+     * Returns the courses with at least one student, ordered by code, title and credit hours.
+     *
+     * @return the enrolled courses
+     */
+    public List<Course> getCourses() {
+        List<Course> courses = new ArrayList<>(this.enrollments.keySet());
+
+        courses.sort(Comparator.comparing(Course::getCode).thenComparing(Course::getTitle).thenComparingInt(Course::getCredit));
+
+        return courses;
+    }
+
+    /**
+     * Writes one table of the report as CSV, with a header line. The channel is
+     * not closed.
+     *
+     * @param table the table to write
+     * @param channel the channel to write to, in UTF-8
+     * @throws IOException if the channel cannot be written
+     */
+    public void writeCsv(Table table, WritableByteChannel channel) throws IOException {
+        Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+
+        switch(table) {
+            case STATUS:
+                out.write("status,students,credits,tuition\n");
+
+                for(Map.Entry<String, StatusTotals> e : this.statusTotals.entrySet()) {
+                    StatusTotals totals = e.getValue();
+                    out.write(csv(e.getKey()) + ',' + totals.students + ',' + totals.credits + ',' + money(totals.tuition) + '\n');
+                }
+                break;
+            case CREDITS:
+                out.write("credits,students\n");
+                writeCsvCounts(out, this.creditDistribution);
+                break;
+            case COURSES:
+                out.write("code,title,credit,students\n");
+
+                for(Course c : getCourses())
+                    out.write(csv(c.getCode()) + ',' + csv(c.getTitle()) + ',' + c.getCredit() + ',' + this.enrollments.get(c)[0] + '\n');
+                break;
+            case YEAR_LEVELS:
+                out.write("year_level,students\n");
+                writeCsvCounts(out, this.yearLevels);
+                break;
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Writes the whole report as a JSON object. The channel is not closed.
+     *
+     * @param channel the channel to write to, in UTF-8
+     * @throws IOException if the channel cannot be written
+     */
+    public void writeJson(WritableByteChannel channel) throws IOException {
+        Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+
+        out.write("{\"students\":" + this.students + ",\"tuition\":" + money(getTotalTuition()) + ",\"status\":[");
+
+        String separator = "";
+        for(Map.Entry<String, StatusTotals> e : this.statusTotals.entrySet()) {
+            StatusTotals totals = e.getValue();
+            out.write(separator + "{\"status\":" + json(e.getKey()) + ",\"students\":" + totals.students
+                    + ",\"credits\":" + totals.credits + ",\"tuition\":" + money(totals.tuition) + '}');
+            separator = ",";
+        }
+
+        out.write("],\"credits\":[");
+        writeJsonCounts(out, this.creditDistribution, "credits");
+
+        out.write("],\"courses\":[");
+
+        separator = "";
+        for(Course c : getCourses()) {
+            out.write(separator + "{\"code\":" + json(c.getCode()) + ",\"title\":" + json(c.getTitle())
+                    + ",\"credit\":" + c.getCredit() + ",\"students\":" + this.enrollments.get(c)[0] + '}');
+            separator = ",";
+        }
+
+        out.write("],\"yearLevels\":[");
+        writeJsonCounts(out, this.yearLevels, "yearLevel");
+
+        out.write("]}\n");
+        out.flush();
+    }
+
+    /**
+     * Writes the entries of a count map as CSV lines of key and count.
+     *
+     * @param out the writer
+     * @param counts the counts to write
+     * @throws IOException if the entries cannot be written
+     */
+    private static void writeCsvCounts(Writer out, Map<Integer, Long> counts) throws IOException {
+        for(Map.Entry<Integer, Long> e : counts.entrySet())
+            out.write(e.getKey() + "," + e.getValue() + "\n");
+    }
+
+    /**
+     * Writes the entries of a count map as comma-separated JSON objects of key and student count.
+     *
+     * @param out the writer
+     * @param counts the counts to write
+     * @param keyName the name of the key attribute
+     * @throws IOException if the entries cannot be written
+     */
+    private static void writeJsonCounts(Writer out, Map<Integer, Long> counts, String keyName) throws IOException {
+        String separator = "";
+
+        for(Map.Entry<Integer, Long> e : counts.entrySet()) {
+            out.write(separator + "{\"" + keyName + "\":" + e.getKey() + ",\"students\":" + e.getValue() + '}');
+            separator = ",";
+        }
+    }
+
+    /**
+     * Formats an amount of money with two decimals, independently of the locale.
+     *
+     * @param amount the amount
+     * @return the formatted amount
+     */
+    private static String money(double amount) {
+        return String.format(Locale.ROOT, "%.2f", amount);
+    }
+
+    /**
+     * Quotes a CSV field if it holds a comma, quote or line break.
+     *
+     * @param field the field
+     * @return the field as it is written
+     */
+    private static String csv(String field) {
+        if(field == null)
+            return "";
+
+        if(field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0)
+            return field;
+
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Quotes a string as a JSON string literal.
+     *
+     * @param s the string, or null
+     * @return the literal, or {@code null}
+     */
+    private static String json(String s) {
+        if(s == null)
+            return "null";
+
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+
+        for(int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+
+            if(ch == '"' || ch == '\\')
+                sb.append('\\').append(ch);
+            else if(ch < 0x20)
+                sb.append(String.format("\\u%04x", (int) ch));
+            else
+                sb.append(ch);
+        }
+
+        return sb.append('"').toString();
+    }
+
+}
@@ -0,0 +1,413 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The {@code StudentSnapshot} class saves loaded student and course lists in a
+ * compact binary format and loads them back much faster than the text file
+ * can be parsed.
+ *
+ * <p>All numbers are big-endian. A snapshot consists of:</p>
+ * <ul>
+ *   <li>the magic number {@code "SISN"} and the format version, as ints;</li>
+ *   <li>since version 2, the length of the {@link ChangeLog change log} already
+ *       applied to the data, as a long;</li>
+ *   <li>the number of courses, then each course as its code, title and credit hours;</li>
+ *   <li>the number of students, then each student as their name, a type byte
+ *       ({@code 0} undergraduate, {@code 1} graduate), the year level (int) or
+ *       the thesis topic (string), the number of courses they take, and the
+ *       ids of those courses as ints. A course id is the course's position in
+ *       the course table.</li>
+ * </ul>
+ * <p>Strings are stored as their length in bytes (int, {@code -1} for null)
+ * followed by their UTF-8 encoding. Snapshots are read with memory-mapped I/O.
+ * Snapshots of version 1 can still be read; no change log was applied to them.</p>
+ *
+ * <p>A snapshot is written to a temporary file next to the target, which then
+ * atomically replaces it, so a crash while saving a checkpoint leaves the
+ * previous snapshot intact.</p>
+ */
+public class StudentSnapshot {
+
+    /** The magic number identifying a snapshot file */
+    private static final int MAGIC = 0x5349534E;
+
+    /** The version of the format written by this class */
+    public static final int VERSION = 2;
+
+    /** The oldest version of the format this class can read */
+    private static final int OLDEST_VERSION = 1;
+
+    /** The type byte of an undergraduate student */
+    private static final byte UNDERGRADUATE = 0;
+
+    /** The type byte of a graduate student */
+    private static final byte GRADUATE = 1;
+
+    /** The largest region of the file mapped at once */
+    private static final int WINDOW_SIZE = 1 << 30;
+
+
+    /**
+     * Saves the given lists to a snapshot file. Courses taken by students that are
+     * missing from the course list are added to the snapshot's course table.
+     *
+     * @param filename the path of the snapshot file to write
+     * @param students the students to save
+     * @param courses the courses to save
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(String filename, StudentList students, CourseList courses) throws IOException {
+        save(filename, students, courses, 0);
+    }
+
+    /**
+     * Saves the given lists to a snapshot file, recording how much of the change
+     * log has been applied to them, so that loading the snapshot and applying
+     * the rest of the log restores the current state. The file is only replaced
+     * once the new snapshot has been written completely.
+     *
+     * @param filename the path of the snapshot file to write
+     * @param students the students to save
+     * @param courses the courses to save
+     * @param changeLogOffset the length of the change log applied to the lists
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(String filename, StudentList students, CourseList courses, long changeLogOffset) throws IOException {
+        // give every course an id, including those only known to students
+        CourseList catalog = new CourseList(courses.size() + 1);
+
+        for(int i = 0; i < courses.size(); i++)
+            catalog.add( courses.get(i) );
+
+        for(int i = 0; i < students.size(); i++) {
+            for(Course c : students.get(i).getCourses())
+                catalog.intern(c);
+        }
+
+        Path target = Paths.get(filename).toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+        try {
+            write(temp, students, catalog, changeLogOffset);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally {
+            // only left behind if writing or moving it failed
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes a snapshot to a file and forces it to the storage device.
+     *
+     * @param file the file to write
+     * @param students the students to save
+     * @param catalog every course, including those only known to students
+     * @param changeLogOffset the length of the change log applied to the lists
+     * @throws IOException if the file cannot be written
+     */
+    private static void write(Path file, StudentList students, CourseList catalog, long changeLogOffset) throws IOException {
+        FileOutputStream stream = new FileOutputStream(file.toFile());
+
+        try( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16)) ) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(changeLogOffset);
+
+            // course table
+            out.writeInt(catalog.size());
+
+            for(int i = 0; i < catalog.size(); i++) {
+                Course c = catalog.get(i);
+
+                writeString(out, c.getCode());
+                writeString(out, c.getTitle());
+                out.writeInt(c.getCredit());
+            }
+
+            // students with the ids of their courses
+            out.writeInt(students.size());
+
+            for(int i = 0; i < students.size(); i++) {
+                Student stud = students.get(i);
+
+                writeString(out, stud.getName());
+
+                if(stud instanceof GraduateStudent) {
+                    out.writeByte(GRADUATE);
+                    writeString(out, ((GraduateStudent) stud).getThesisTopic());
+                }
+                else if(stud instanceof UndergraduateStudent) {
+                    out.writeByte(UNDERGRADUATE);
+                    out.writeInt(((UndergraduateStudent) stud).getYearLevel());
+                }
+                else {
+                    throw new IllegalArgumentException("Unsupported student type: " + stud.getClass().getName());
+                }
+
+                out.writeInt(stud.getCourses().size());
+
+                for(Course c : stud.getCourses())
+                    out.writeInt(catalog.indexOf(c));
+            }
+
+            // the data must be on disk before the file replaces the old snapshot
+            out.flush();
+            stream.getFD().sync();
+        }
+    }
+
+    /**
+     * Loads a snapshot file into the given lists. Courses are interned into the
+     * course list and every student is enrolled in the shared course objects,
+     * just as when the text file is loaded. Course codes, titles and thesis topics
+     * are interned into a {@link StringPool}.
+     *
+     * @param filename the path of the snapshot file to read
+     * @param students the list receiving the students
+     * @param courses the list receiving the courses
+     * @return the length of the change log applied to the saved lists, 0 if none
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static long load(String filename, StudentList students, CourseList courses) throws IOException {
+        try( FileChannel channel = new FileInputStream(filename).getChannel() ) {
+            Input in = new Input(channel);
+
+            if(in.readInt() != MAGIC)
+                throw new IOException(filename + " is not a student snapshot");
+
+            int version = in.readInt();
+            if(version < OLDEST_VERSION || version > VERSION)
+                throw new IOException(String.format("Unsupported snapshot version %d in %s", version, filename));
+
+            long changeLogOffset = version >= 2 ? in.readLong() : 0;
+
+            // repeated values are decoded once
+            StringPool strings = new StringPool();
+
+            // course table
+            Course[] byId = new Course[in.readCount()];
+
+            for(int i = 0; i < byId.length; i++) {
+                String code = in.readString(strings);
+                String title = in.readString(strings);
+                int credit = in.readInt();
+
+                byId[i] = courses.intern( new Course(code, title, credit) );
+            }
+
+            // students
+            int count = in.readCount();
+
+            for(int i = 0; i < count; i++) {
+                String name = in.readString();
+                Student stud;
+
+                byte type = in.readByte();
+
+                if(type == GRADUATE) {
+                    GraduateStudent gs = new GraduateStudent(name);
+                    gs.setThesisTopic( in.readString(strings) );
+                    stud = gs;
+                }
+                else if(type == UNDERGRADUATE) {
+                    UndergraduateStudent ugs = new UndergraduateStudent(name);
+                    ugs.setYearLevel( in.readInt() );
+                    stud = ugs;
+                }
+                else {
+                    throw new IOException(String.format("Unknown student type %d in %s", type, filename));
+                }
+
+                int taken = in.readCount();
+
+                for(int j = 0; j < taken; j++)
+                    stud.enroll( byId[in.readInt()] );
+
+                students.add( stud );
+            }
+
+            return changeLogOffset;
+        }
+        catch(IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException(filename + " is truncated or corrupt", e);
+        }
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string.
+     *
+     * @param out the stream to write to
+     * @param str the string to write, possibly null
+     * @throws IOException if writing fails
+     */
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if(str == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a snapshot through a window of the file mapped into memory,
+     * moving the window forward as needed so that files larger than
+     * 2 GB can be read as well.
+     */
+    private static class Input {
+
+        /** The channel of the snapshot file */
+        private final FileChannel channel;
+
+        /** The size of the file */
+        private final long fileSize;
+
+        /** The currently mapped window */
+        private MappedByteBuffer window;
+
+        /** The file position where the window begins */
+        private long windowStart;
+
+        /** Reusable space for decoding strings */
+        private byte[] scratch = new byte[256];
+
+        /**
+         * Constructs an input mapping the beginning of the file.
+         *
+         * @param channel the channel of the snapshot file
+         * @throws IOException if the file cannot be mapped
+         */
+        Input(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.fileSize = channel.size();
+            map(0);
+        }
+
+        /**
+         * Reads a big-endian int.
+         *
+         * @return the int read
+         * @throws IOException if the window cannot be moved
+         */
+        int readInt() throws IOException {
+            ensure(4);
+            return this.window.getInt();
+        }
+
+        /**
+         * Reads a big-endian long.
+         *
+         * @return the long read
+         * @throws IOException if the window cannot be moved
+         */
+        long readLong() throws IOException {
+            ensure(8);
+            return this.window.getLong();
+        }
+
+        /**
+         * Reads the number of items that follow. Since every item takes at least
+         * one byte, a count larger than the file is reported as corruption instead
+         * of being trusted with an allocation.
+         *
+         * @return the count read
+         * @throws IOException if the window cannot be moved or the count is invalid
+         */
+        int readCount() throws IOException {
+            int count = readInt();
+
+            if(count < 0 || count > this.fileSize)
+                throw new IOException("Invalid count " + count);
+
+            return count;
+        }
+
+        /**
+         * Reads a single byte.
+         *
+         * @return the byte read
+         * @throws IOException if the window cannot be moved
+         */
+        byte readByte() throws IOException {
+            ensure(1);
+            return this.window.get();
+        }
+
+        /**
+         * Reads a length-prefixed UTF-8 string.
+         *
+         * @return the string read, possibly null
+         * @throws IOException if the window cannot be moved or the length is invalid
+         */
+        String readString() throws IOException {
+            return readString(null);
+        }
+
+        /**
+         * Reads a length-prefixed UTF-8 string, interned into the given pool.
+         *
+         * @param pool the pool to intern the string into, or null to decode it into a new String
+         * @return the string read, possibly null
+         * @throws IOException if the window cannot be moved or the length is invalid
+         */
+        String readString(StringPool pool) throws IOException {
+            int length = readInt();
+
+            if(length < 0)
+                return null;
+
+            if(length > this.fileSize)
+                throw new IOException("Invalid string length " + length);
+
+            if(length > this.scratch.length)
+                this.scratch = new byte[Math.max(length, this.scratch.length * 2)];
+
+            ensure(length);
+            this.window.get(this.scratch, 0, length);
+
+            if(pool != null)
+                return pool.intern(this.scratch, 0, length);
+
+            return new String(this.scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Moves the window forward if fewer than the given number of bytes remain in it.
+         *
+         * @param count the number of bytes about to be read
+         * @throws IOException if the window cannot be mapped
+         */
+        private void ensure(int count) throws IOException {
+            if(this.window.remaining() < count)
+                map(this.windowStart + this.window.position());
+        }
+
+        /**
+         * Maps the window starting at the given file position.
+         *
+         * @param start the file position where the window begins
+         * @throws IOException if the window cannot be mapped
+         */
+        private void map(long start) throws IOException {
+            long length = Math.min(WINDOW_SIZE, this.fileSize - start);
+
+            this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            this.windowStart = start;
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * The {@code StudentTableModel} class presents a {@link StudentList} to a
+ * {@link javax.swing.JTable} without converting it into a 2D array first.
+ *
+ * <p>Cells are formatted on demand in {@link #getValueAt(int, int)}, which the
+ * table only calls for the rows currently visible on screen. The displayed list
+ * can be replaced with {@link #setStudents(StudentList)}, so filtering only swaps
+ * the model's data instead of rebuilding the table.</p>
+ */
+public class StudentTableModel extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The column names, in display order */
+    private static final String[] COLUMN_NAMES = {"Name", "Student Type", "Total Credit Hours", "Tuition Due"};
+
+
+    /** The students shown in the table */
+    private StudentList students;
+
+
+    /**
+     * Constructs a model showing the given students.
+     *
+     * @param students the students to show
+     */
+    public StudentTableModel(StudentList students) {
+        this.students = students;
+    }
+
+    /**
+     * Replaces the students shown in the table and notifies the table.
+     * Must be called on the Event Dispatch Thread.
+     *
+     * @param students the students to show
+     */
+    public void setStudents(StudentList students) {
+        this.students = students;
+
+        fireTableDataChanged();
+    }
+
+    /**
+     * Empties the table. Rows can then be streamed in with {@link #appendStudents(StudentList)}.
+     * Must be called on the Event Dispatch Thread.
+     */
+    public void clear() {
+        setStudents(new StudentList());
+    }
+
+    /**
+     * Appends the given students to the rows shown, notifying the table only of the
+     * inserted rows. The model must have been {@link #clear() cleared} first, so that
+     * the list it appends to is its own. Must be called on the Event Dispatch Thread.
+     *
+     * @param more the students to append
+     */
+    public void appendStudents(StudentList more) {
+        int first = this.students.size();
+
+        for(int i = 0; i < more.size(); i++)
+            this.students.add( more.get(i) );
+
+        if(this.students.size() > first)
+            fireTableRowsInserted(first, this.students.size() - 1);
+    }
+
+    /**
+     * Returns the students shown in the table.
+     *
+     * @return the current list of students
+     */
+    public StudentList getStudents() {
+        return this.students;
+    }
+
+    /**
+     * Returns the student shown in the given row.
+     *
+     * @param row the row index in the model
+     * @return the student in that row
+     */
+    public Student getStudentAt(int row) {
+        return this.students.get(row);
+    }
+
+    /**
+     * Returns the number of students shown.
+     *
+     * @return the number of rows
+     */
+    @Override
+    public int getRowCount() {
+        return this.students.size();
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the number of columns
+     */
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    /**
+     * Returns the name of the given column.
+     *
+     * @param column the column index
+     * @return the column name
+     */
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    /**
+     * Formats the value of a single cell, in the same way as
+     * {@link Utility#studentListToArray(StudentList)}.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return the formatted cell value
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        Student s = getStudentAt(row);
+
+        switch(column) {
+            case 0:
+                return s.getName();
+            case 1:
+                return s.getStatus();
+            case 2:
+                return Integer.toString(s.getTotalCredit());
+            default:
+                return String.format("%.2f", s.getTuitionDue());
+        }
+    }
+
+}
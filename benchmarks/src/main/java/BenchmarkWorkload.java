@@ -0,0 +1,86 @@
+import bench.Workload;
+
+import java.io.IOException;
+
+/**
+ * The {@code BenchmarkWorkload} class implements {@link Workload} over a
+ * {@link Controller}, giving the benchmarks in package {@code bench} access
+ * to the application classes of the default package.
+ */
+public class BenchmarkWorkload implements Workload {
+
+    /** The controller holding the loaded data */
+    private Controller controller = new Controller();
+
+    /** Whether loaded lists get the trigram search index */
+    private boolean searchIndex;
+
+
+    @Override
+    public int load(String filename, boolean parallel) throws IOException {
+        this.controller = new Controller();
+
+        if(this.searchIndex)
+            this.controller.enableSearchIndex();
+
+        if(parallel)
+            this.controller.loadDataParallel(filename);
+        else
+            this.controller.loadData(filename);
+
+        return this.controller.getStudentList().size();
+    }
+
+    @Override
+    public void enableSearchIndex() {
+        this.searchIndex = true;
+        this.controller.enableSearchIndex();
+    }
+
+    @Override
+    public Object queryStudents(String key) {
+        return this.controller.getStudentList().query(key);
+    }
+
+    @Override
+    public Object findCourse(String code) {
+        return this.controller.getCourse(code);
+    }
+
+    @Override
+    public Object findStudent(String name) {
+        return this.controller.getStudent(name);
+    }
+
+    @Override
+    public String[][] studentTable() {
+        return this.controller.getStudentListData();
+    }
+
+    @Override
+    public Object copyStudents() {
+        StudentList source = this.controller.getStudentList();
+        StudentList copy = new StudentList();
+
+        for(int i = 0; i < source.size(); i++)
+            copy.add( source.get(i) );
+
+        return copy;
+    }
+
+    @Override
+    public String studentName(int index) {
+        return this.controller.getStudentList().get(index).getName();
+    }
+
+    @Override
+    public String courseCode(int index) {
+        return this.controller.getCourseList().get(index).getCode();
+    }
+
+    @Override
+    public int courseCount() {
+        return this.controller.getCourseList().size();
+    }
+
+}
@@ -0,0 +1,250 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A multi-threaded stress test of {@link ConcurrentStudentList} and
+ * {@link ConcurrentCourseList}.
+ *
+ * <p>Writer threads intern overlapping sets of equal but distinct course objects and
+ * add overlapping sets of shared students, while reader threads check on every read:</p>
+ * <ul>
+ *   <li>the size never decreases and every position below it holds an element;</li>
+ *   <li>an element seen once stays at the same position;</li>
+ *   <li>an element whose add has returned in any thread is found by
+ *       {@code contains}, {@code findMatch} and {@code query}.</li>
+ * </ul>
+ * <p>Afterwards every course and student must be stored exactly once, and every
+ * writer must have received the same instance when interning equal courses.</p>
+ *
+ * <p>Run with {@code java -cp target/benchmarks.jar ConcurrentListStress [rounds] [threads]};
+ * the exit status is non-zero if any check fails.</p>
+ */
+public class ConcurrentListStress {
+
+    /** The number of distinct courses and students added in each round */
+    private static final int ELEMENTS = 20000;
+
+
+    /**
+     * Runs the stress test.
+     *
+     * @param args the number of rounds and the number of writer threads, both optional
+     * @throws Exception if a thread fails unexpectedly
+     */
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads * 2);
+
+        try {
+            for(int round = 1; round <= rounds; round++) {
+                runRound(pool, threads);
+                System.out.printf("round %d of %d passed%n", round, rounds);
+            }
+        }
+        catch(AssertionError e) {
+            System.err.println("FAILED: " + e.getMessage());
+            System.exit(1);
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one round with fresh lists.
+     *
+     * @param pool the threads to run writers and readers on
+     * @param threads the number of writers, and of readers
+     * @throws Exception if a thread fails
+     */
+    private static void runRound(ExecutorService pool, int threads) throws Exception {
+        ConcurrentCourseList courses = new ConcurrentCourseList(1);
+        ConcurrentStudentList students = new ConcurrentStudentList(1);
+
+        Student[] shared = new Student[ELEMENTS];
+        for(int i = 0; i < ELEMENTS; i++)
+            shared[i] = new UndergraduateStudent("Student " + i);
+
+        // the highest index every writer has finished adding
+        AtomicInteger completed = new AtomicInteger(-1);
+        AtomicInteger finishedWriters = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Course[][] interned = new Course[threads][ELEMENTS];
+        List<Future<?>> futures = new ArrayList<>();
+
+        for(int t = 0; t < threads; t++) {
+            int writer = t;
+
+            futures.add(pool.submit(() -> {
+                start.await();
+
+                for(int i = 0; i < ELEMENTS; i++) {
+                    // every writer interns its own copy of the same course
+                    interned[writer][i] = courses.intern( new Course(code(i), "Title " + i, 1 + i % 4) );
+                    students.add( shared[i] );
+
+                    if(writer == 0)
+                        completed.set(i);
+                }
+
+                finishedWriters.incrementAndGet();
+                return null;
+            }));
+
+            futures.add(pool.submit(() -> {
+                start.await();
+                read(courses, students, shared, completed, done);
+                return null;
+            }));
+        }
+
+        start.countDown();
+
+        // writers finish on their own; readers stop once the writers are done
+        while(finishedWriters.get() < threads && !anyFailed(futures))
+            Thread.sleep(1);
+
+        done.set(true);
+
+        for(Future<?> f : futures) {
+            try {
+                f.get(1, TimeUnit.MINUTES);
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof AssertionError)
+                    throw (AssertionError) e.getCause();
+
+                throw e;
+            }
+        }
+
+        // every element exactly once
+        check(courses.size() == ELEMENTS, "course list has " + courses.size() + " courses");
+        check(students.size() == ELEMENTS, "student list has " + students.size() + " students");
+
+        for(int i = 0; i < ELEMENTS; i++) {
+            check(courses.findAllMatches(code(i)).size() == 1, "course " + code(i) + " is not stored once");
+            check(students.indexOf(shared[i]) >= 0, "student " + i + " is missing");
+
+            for(int t = 1; t < threads; t++)
+                check(interned[t][i] == interned[0][i], "writers got different instances of " + code(i));
+        }
+    }
+
+    /**
+     * Reads the lists until the writers are done, checking the guarantees.
+     *
+     * @param courses the course list being filled
+     * @param students the student list being filled
+     * @param shared the students being added
+     * @param completed the highest index writer 0 has finished adding
+     * @param done set once all writers are done
+     */
+    private static void read(ConcurrentCourseList courses, ConcurrentStudentList students, Student[] shared,
+                             AtomicInteger completed, AtomicBoolean done) {
+        Object[] seen = new Object[ELEMENTS];
+        int lastSize = 0;
+        int reads = 0;
+
+        while(!done.get() || reads == 0) {
+            // read the completed index first: everything up to it must be visible afterwards
+            int added = completed.get();
+            int size = students.size();
+
+            check(size >= lastSize, "student list shrank from " + lastSize + " to " + size);
+            check(size > added, "size " + size + " does not include completed add " + added);
+
+            for(int i = lastSize; i < size; i++) {
+                Student s = students.get(i);
+                check(s != null, "null student at " + i);
+                seen[i] = s;
+            }
+
+            if(size > 0) {
+                int i = reads % size;
+                check(students.get(i) == seen[i], "student at " + i + " changed");
+            }
+
+            lastSize = size;
+
+            if(added >= 0) {
+                Student s = shared[added];
+
+                check(students.contains(s), "contains misses " + s.getName());
+                check(students.findMatch(s.getName()) == s, "findMatch misses " + s.getName());
+                check(courses.findMatch(code(added)) != null, "findMatch misses course " + code(added));
+                check(courses.contains(new Course(code(added), "Title " + added, 1 + added % 4)),
+                      "contains misses course " + code(added));
+
+                // an exact name query every so often, since queries scan the list
+                if(reads % 64 == 0) {
+                    StudentList found = students.query(s.getName());
+                    boolean hit = false;
+
+                    for(int j = 0; j < found.size(); j++)
+                        hit |= found.get(j) == s;
+
+                    check(hit, "query misses " + s.getName());
+                }
+            }
+
+            reads++;
+        }
+    }
+
+    /**
+     * Returns the course code used for the given index.
+     *
+     * @param i the index of the course
+     * @return the course code
+     */
+    private static String code(int i) {
+        return String.format("C%05d", i);
+    }
+
+    /**
+     * Determines whether any of the given tasks has failed.
+     *
+     * @param futures the tasks
+     * @return true if a task completed with an exception
+     */
+    private static boolean anyFailed(List<Future<?>> futures) {
+        for(Future<?> f : futures) {
+            if(f.isDone()) {
+                try {
+                    f.get();
+                }
+                catch(Exception e) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Fails the test if a condition does not hold.
+     *
+     * @param condition the condition to check
+     * @param message the failure message
+     * @throws AssertionError if the condition is false
+     */
+    private static void check(boolean condition, String message) {
+        if(!condition)
+            throw new AssertionError(message);
+    }
+
+}
@@ -0,0 +1,200 @@
+import bench.DataGenerator;
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Compares the live heap of a loaded data set with and without the {@link StringPool}
+ * of {@link StudentDataReader}, and with the {@linkplain BaseList#enableSearchFormCache()
+ * search form cache} on top.
+ *
+ * <p>A synthetic file with about the requested number of enrollments is generated with
+ * {@link DataGenerator}, or reused from its cache directory. The file is loaded once per
+ * configuration, and while the lists are reachable a class histogram of the live objects
+ * is taken through the {@code gcClassHistogram} diagnostic command, which is what
+ * {@code jcmd <pid> GC.class_histogram} prints. The classes taking the most memory are
+ * then listed side by side for every configuration, after the bytes allocated while loading:</p>
+ * <ul>
+ *   <li>{@code decoded}: every code, title and thesis topic is decoded into its own String;</li>
+ *   <li>{@code pooled}: repeated values are interned into the reader's pool;</li>
+ *   <li>{@code pooled+forms}: as {@code pooled}, with the lowercased names and titles cached.</li>
+ * </ul>
+ *
+ * <p>The catalog already keeps one course object per distinct course, so without the pool the
+ * codes and titles of repeated enrollments are garbage rather than live: they show up in the
+ * allocated bytes, while the histogram mostly shows the thesis topics that every graduate
+ * keeps a copy of. The {@code java.lang.String} and {@code [B} rows are the ones to compare;
+ * rows unrelated to the data, such as {@code [I}, vary a little from run to run.</p>
+ *
+ * <p>Run with {@code java -Xmx4g -cp target/benchmarks.jar StringMemoryComparison [enrollments] [maxCourses] [rows]};
+ * the defaults are 10,000,000 enrollments of students taking 0 to 6 courses, and 12 rows.</p>
+ */
+public class StringMemoryComparison {
+
+    /** Matches a class row of a histogram: rank, instances, bytes and class name */
+    private static final Pattern ROW = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+)");
+
+    /** Matches the total row of a histogram */
+    private static final Pattern TOTAL = Pattern.compile("^Total\\s+(\\d+)\\s+(\\d+)");
+
+
+    /**
+     * Runs the comparison.
+     *
+     * @param args the number of enrollments, the maximum number of courses per student
+     *        and the number of classes listed, all optional
+     * @throws Exception if the file cannot be generated or read, or the histogram cannot be taken
+     */
+    public static void main(String[] args) throws Exception {
+        long enrollments = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        int maxCourses = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+
+        // a student takes maxCourses / 2 courses on average
+        int students = (int) Math.min(Integer.MAX_VALUE - 8, enrollments * 2 / Math.max(maxCourses, 1));
+        Path file = DataGenerator.generateCached(DataGenerator.cacheDirectory(), students, maxCourses);
+
+        System.out.printf("%s: %,d students, about %,d enrollments%n%n", file, students, enrollments);
+
+        String[] configurations = {"decoded", "pooled", "pooled+forms"};
+        List<Map<String, long[]>> histograms = new ArrayList<>();
+
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for(String configuration : configurations) {
+            long start = System.nanoTime();
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            Object[] lists = load(file.toString(), !configuration.equals("decoded"));
+
+            if(configuration.endsWith("+forms")) {
+                ((StudentList) lists[0]).enableSearchFormCache();
+                ((CourseList) lists[1]).enableSearchFormCache();
+            }
+
+            long loaded = System.nanoTime() - start;
+            allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+            // the lists stay reachable until the histogram has been taken
+            histograms.add( parse(classHistogram()) );
+            System.out.printf("%-13s loaded %,d students in %,d ms, allocating %,.1f MB%n",
+                    configuration, ((StudentList) lists[0]).size(), loaded / 1_000_000, allocated / (1024.0 * 1024.0));
+        }
+
+        print(configurations, histograms, rows);
+    }
+
+    /**
+     * Loads a data file the way {@link Controller#loadData(String)} does.
+     *
+     * @param filename the data file
+     * @param pooled whether repeated values are interned into the reader's string pool
+     * @return the student list and the course list
+     * @throws Exception if the file cannot be read
+     */
+    private static Object[] load(String filename, boolean pooled) throws Exception {
+        StudentList students = new StudentList();
+        CourseList courses = new CourseList();
+
+        try( StudentDataReader input = new StudentDataReader(filename) ) {
+            if(!pooled)
+                input.setStringPool(null);
+
+            int count = input.nextInt();
+            input.nextLine();
+
+            for(int i = 0; i < count; i++)
+                students.add( input.readStudent(courses) );
+        }
+
+        return new Object[] { students, courses };
+    }
+
+    /**
+     * Takes a class histogram of the live objects, after a full collection.
+     *
+     * @return the histogram as printed by {@code jcmd GC.class_histogram}
+     * @throws Exception if the diagnostic command is not available
+     */
+    private static String classHistogram() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName command = new ObjectName("com.sun.management:type=DiagnosticCommand");
+
+        return (String) server.invoke(command, "gcClassHistogram",
+                new Object[] { new String[0] }, new String[] { String[].class.getName() });
+    }
+
+    /**
+     * Parses a class histogram.
+     *
+     * @param histogram the histogram text
+     * @return the instances and bytes of every class, largest first, followed by the total under {@code "Total"}
+     */
+    private static Map<String, long[]> parse(String histogram) {
+        Map<String, long[]> result = new LinkedHashMap<>();
+
+        for(String line : histogram.split("\\R")) {
+            Matcher row = ROW.matcher(line);
+            Matcher total = TOTAL.matcher(line);
+
+            if(row.find())
+                result.put(row.group(3), new long[] { Long.parseLong(row.group(1)), Long.parseLong(row.group(2)) });
+            else if(total.find())
+                result.put("Total", new long[] { Long.parseLong(total.group(1)), Long.parseLong(total.group(2)) });
+        }
+
+        return result;
+    }
+
+    /**
+     * Prints the largest classes of every histogram side by side, followed by the totals.
+     *
+     * @param configurations the names of the configurations
+     * @param histograms the parsed histogram of every configuration
+     * @param rows the number of classes taken from the top of every histogram
+     */
+    private static void print(String[] configurations, List<Map<String, long[]>> histograms, int rows) {
+        Set<String> classes = new LinkedHashSet<>();
+
+        for(Map<String, long[]> histogram : histograms) {
+            int taken = 0;
+
+            for(String name : histogram.keySet()) {
+                if(taken++ == rows)
+                    break;
+
+                if(!name.equals("Total"))
+                    classes.add(name);
+            }
+        }
+
+        classes.add("Total");
+
+        System.out.printf("%n%-40s", "class");
+        for(String configuration : configurations)
+            System.out.printf(" %28s", configuration + " (instances / MB)");
+        System.out.println();
+
+        for(String name : classes) {
+            System.out.printf("%-40s", name.length() > 40 ? name.substring(0, 39) + "~" : name);
+
+            for(Map<String, long[]> histogram : histograms) {
+                long[] entry = histogram.getOrDefault(name, new long[2]);
+                System.out.printf(" %,16d / %,9.1f", entry[0], entry[1] / (1024.0 * 1024.0));
+            }
+
+            System.out.println();
+        }
+    }
+
+}
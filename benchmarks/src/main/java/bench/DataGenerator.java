@@ -0,0 +1,185 @@
+package bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * The {@code DataGenerator} class writes synthetic data files in the format
+ * of {@code input_updated.txt}.
+ *
+ * <p>Student names are unique, built from first and last name pools plus a
+ * number. Courses are drawn from a catalog whose size grows with the number
+ * of students, so the course table stays realistic at every size. The same
+ * parameters and seed always produce the same file.</p>
+ *
+ * <p>Usage: {@code java -cp benchmarks.jar bench.DataGenerator <file> <students> [maxCoursesPerStudent] [seed]}</p>
+ */
+public class DataGenerator {
+
+    /** First names the student names are built from */
+    private static final String[] FIRST_NAMES = {
+        "John", "Jane", "Maria", "Wei", "Ahmed", "Olga", "Carlos", "Aisha", "Kenji", "Priya",
+        "Liam", "Emma", "Noah", "Sofia", "Lucas", "Chloe", "Mateo", "Zara", "Ivan", "Nia"
+    };
+
+    /** Last names the student names are built from */
+    private static final String[] LAST_NAMES = {
+        "Smith", "Doe", "Garcia", "Chen", "Khan", "Ivanova", "Lopez", "Okafor", "Tanaka", "Patel",
+        "Brown", "Wilson", "Martin", "Rossi", "Silva", "Dubois", "Novak", "Haddad", "Kim", "Mario"
+    };
+
+    /** Prefixes of the generated course codes */
+    private static final String[] CODE_PREFIXES = {"COP", "CDA", "MAC", "MAP", "STA", "PHY", "CHM", "BSC", "ENC", "PSY"};
+
+    /** Words the course titles and thesis topics are built from */
+    private static final String[] WORDS = {
+        "Introduction", "to", "Programming", "Computer", "Science", "Object-Oriented", "Systems", "Data",
+        "Structures", "Algorithms", "Calculus", "Linear", "Algebra", "Statistics", "Physics", "Chemistry",
+        "Biology", "Writing", "Psychology", "Networks", "Security", "Learning", "Models", "Education"
+    };
+
+    /** The share of students that are graduates */
+    private static final double GRADUATE_SHARE = 0.25;
+
+
+    /**
+     * Writes a data file, or reuses it if it was already generated with the same parameters.
+     *
+     * @param directory the directory to write into
+     * @param students the number of students
+     * @param maxCourses the maximum number of courses per student
+     * @return the path of the data file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path generateCached(Path directory, int students, int maxCourses) throws IOException {
+        Path file = directory.resolve(String.format("sis-%d-%d.txt", students, maxCourses));
+
+        if(!Files.exists(file)) {
+            // write to a temporary file first so an interrupted run leaves nothing behind
+            Path tmp = Files.createTempFile(directory, "sis-", ".tmp");
+            generate(tmp, students, maxCourses, 42);
+            Files.move(tmp, file);
+        }
+
+        return file;
+    }
+
+    /**
+     * Writes a data file with the given number of students.
+     *
+     * @param file the file to write
+     * @param students the number of students
+     * @param maxCourses the maximum number of courses per student; each student takes 0 to this many
+     * @param seed the seed of the random generator
+     * @throws IOException if the file cannot be written
+     */
+    public static void generate(Path file, int students, int maxCourses, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        // the catalog grows with the population, between 50 and 20000 courses
+        int catalogSize = Math.max(50, Math.min(20000, students / 20));
+        String[] codes = new String[catalogSize];
+        String[] titles = new String[catalogSize];
+        int[] credits = new int[catalogSize];
+
+        for(int i = 0; i < catalogSize; i++) {
+            codes[i] = String.format("%s%04d", CODE_PREFIXES[i % CODE_PREFIXES.length], 1000 + i);
+            titles[i] = words(random, 2 + random.nextInt(3));
+            credits[i] = 1 + random.nextInt(4);
+        }
+
+        try( BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8) ) {
+            out.write(Integer.toString(students));
+            out.newLine();
+
+            for(int i = 0; i < students; i++) {
+                out.write(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                out.write(' ');
+                out.write(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                out.write(' ');
+                out.write(Integer.toString(i));
+                out.newLine();
+
+                if(random.nextDouble() < GRADUATE_SHARE) {
+                    out.write("Graduate ");
+                    out.write(words(random, 2));
+                }
+                else {
+                    out.write("Undergraduate ");
+                    out.write(Integer.toString(1 + random.nextInt(4)));
+                }
+                out.newLine();
+
+                int count = random.nextInt(maxCourses + 1);
+                out.write(Integer.toString(count));
+                out.newLine();
+
+                for(int j = 0; j < count; j++) {
+                    int c = random.nextInt(catalogSize);
+
+                    out.write(codes[c]);
+                    out.write(' ');
+                    out.write(Integer.toString(credits[c]));
+                    out.write(' ');
+                    out.write(titles[c]);
+                    out.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Joins random words from the word pool.
+     *
+     * @param random the random generator
+     * @param count the number of words
+     * @return the words separated by spaces
+     */
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; i < count; i++) {
+            if(i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes a data file from the command line.
+     *
+     * @param args the file, the number of students, and optionally the maximum courses per student and the seed
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.err.println("Usage: DataGenerator <file> <students> [maxCoursesPerStudent] [seed]");
+            System.exit(1);
+        }
+
+        int maxCourses = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        generate(Paths.get(args[0]), Integer.parseInt(args[1]), maxCourses, seed);
+    }
+
+    /**
+     * Returns the directory generated files are cached in: the {@code sis.bench.data}
+     * system property, or the system temporary directory.
+     *
+     * @return the cache directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path cacheDirectory() throws IOException {
+        Path dir = Paths.get(System.getProperty("sis.bench.data", System.getProperty("java.io.tmpdir")));
+
+        return Files.createDirectories(dir);
+    }
+
+}
@@ -0,0 +1,60 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * The {@code DataState} class generates a synthetic data file of the
+ * benchmarked size once per trial and loads it, so the benchmarks can
+ * measure operations over realistic lists.
+ */
+@State(Scope.Benchmark)
+public class DataState {
+
+    /**
+     * The number of students in the data file. Ten million students take about
+     * 2.6 GB once loaded, before the search index and the table built by
+     * {@code studentListToArray}, so the forks running these trials get a 12 GB heap.
+     */
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int students;
+
+    /** The maximum number of courses per student */
+    @Param({"2", "8"})
+    public int maxCourses;
+
+    /** Whether the trigram search index is enabled */
+    @Param({"false", "true"})
+    public boolean searchIndex;
+
+
+    /** The path of the generated data file */
+    public String file;
+
+    /** The workload with the data file loaded */
+    public Workload workload;
+
+
+    /**
+     * Generates (or reuses) the data file and loads it.
+     *
+     * @throws IOException if the file cannot be written or read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.file = DataGenerator.generateCached(DataGenerator.cacheDirectory(), this.students, this.maxCourses).toString();
+
+        this.workload = Workload.create();
+
+        if(this.searchIndex)
+            this.workload.enableSearchIndex();
+
+        this.workload.load(this.file, false);
+    }
+
+}
@@ -0,0 +1,156 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the list operations behind the UI and the batch jobs on loaded
+ * data of increasing size: {@code StudentList.query}, {@code CourseList.findMatch},
+ * {@code StudentList.findMatch}, {@code Utility.studentListToArray} and
+ * {@code BaseList.add}. Run with {@code -prof gc} to see allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class ListBenchmark {
+
+    /**
+     * Lookup keys taken from the loaded data, cycled through by each thread.
+     */
+    @State(Scope.Thread)
+    public static class Keys {
+
+        /** The number of keys sampled */
+        private static final int COUNT = 1024;
+
+        /** Names of existing students */
+        String[] names = new String[COUNT];
+
+        /** Codes of existing courses */
+        String[] codes = new String[COUNT];
+
+        /** Selective substrings of existing student names */
+        String[] fragments = new String[COUNT];
+
+        /** The index of the next key to use */
+        int next;
+
+        /**
+         * Samples the keys from the loaded data.
+         *
+         * @param data the loaded data
+         */
+        @Setup(Level.Trial)
+        public void setUp(DataState data) {
+            SplittableRandom random = new SplittableRandom(7);
+
+            for(int i = 0; i < COUNT; i++) {
+                String name = data.workload.studentName(random.nextInt(data.students));
+
+                this.names[i] = name.toUpperCase();
+                this.codes[i] = data.workload.courseCode(random.nextInt(data.workload.courseCount())).toLowerCase();
+
+                // the end of the last name and the number, such as "ith 1234"
+                this.fragments[i] = name.substring(Math.max(0, name.length() - 8));
+            }
+        }
+
+        /**
+         * Advances to the next key.
+         *
+         * @return the index of the key to use
+         */
+        int next() {
+            return this.next = (this.next + 1) & (COUNT - 1);
+        }
+    }
+
+
+    /**
+     * Substring query matching a handful of students.
+     *
+     * @param data the loaded data
+     * @param keys the lookup keys
+     * @return the matching students
+     */
+    @Benchmark
+    public Object querySelective(DataState data, Keys keys) {
+        return data.workload.queryStudents(keys.fragments[keys.next()]);
+    }
+
+    /**
+     * Substring query matching about a twentieth of all students.
+     *
+     * @param data the loaded data
+     * @return the matching students
+     */
+    @Benchmark
+    public Object queryBroad(DataState data) {
+        return data.workload.queryStudents("smith");
+    }
+
+    /**
+     * Exact, case-insensitive lookup of a course by code.
+     *
+     * @param data the loaded data
+     * @param keys the lookup keys
+     * @return the matching course
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object findCourse(DataState data, Keys keys) {
+        return data.workload.findCourse(keys.codes[keys.next()]);
+    }
+
+    /**
+     * Exact, case-insensitive lookup of a student by name.
+     *
+     * @param data the loaded data
+     * @param keys the lookup keys
+     * @return the matching student
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object findStudent(DataState data, Keys keys) {
+        return data.workload.findStudent(keys.names[keys.next()]);
+    }
+
+    /**
+     * Converts all students into table rows.
+     *
+     * @param data the loaded data
+     * @return the table rows
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String[][] studentListToArray(DataState data) {
+        return data.workload.studentTable();
+    }
+
+    /**
+     * Adds all students to a new list one by one.
+     *
+     * @param data the loaded data
+     * @return the new list
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object baseListAdd(DataState data) {
+        return data.workload.copyStudents();
+    }
+
+}
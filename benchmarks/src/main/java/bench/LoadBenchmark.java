@@ -0,0 +1,85 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code Controller.loadData} and {@code Controller.loadDataParallel}
+ * on generated files of increasing size. Every invocation loads the whole file
+ * into a new {@code Controller}; run with {@code -prof gc} to see the allocation
+ * per load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class LoadBenchmark {
+
+    /**
+     * The number of students in the data file. The 12 GB heap of the fork holds the
+     * ten million students of the last load while the next one is read.
+     */
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int students;
+
+    /** The maximum number of courses per student */
+    @Param({"2", "8"})
+    public int maxCourses;
+
+
+    /** The path of the generated data file */
+    private String file;
+
+    /** The workload the file is loaded into */
+    private Workload workload;
+
+
+    /**
+     * Generates (or reuses) the data file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.file = DataGenerator.generateCached(DataGenerator.cacheDirectory(), this.students, this.maxCourses).toString();
+        this.workload = Workload.create();
+    }
+
+    /**
+     * Loads the file on one thread.
+     *
+     * @return the number of students loaded
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public int loadData() throws IOException {
+        return this.workload.load(this.file, false);
+    }
+
+    /**
+     * Loads the file on the common fork/join pool.
+     *
+     * @return the number of students loaded
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public int loadDataParallel() throws IOException {
+        return this.workload.load(this.file, true);
+    }
+
+}
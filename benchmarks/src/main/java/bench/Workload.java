@@ -0,0 +1,107 @@
+package bench;
+
+import java.io.IOException;
+
+/**
+ * The {@code Workload} interface exposes the hot paths of the application
+ * to the benchmarks.
+ *
+ * <p>The application classes live in the default package, which classes in
+ * a named package (such as the JMH benchmarks) cannot refer to. The default
+ * package class {@code BenchmarkWorkload} implements this interface and is
+ * created reflectively with {@link #create()}; every call after that is an
+ * ordinary interface call.</p>
+ */
+public interface Workload {
+
+    /**
+     * Creates the workload implemented over the application classes.
+     *
+     * @return a new workload with empty lists
+     */
+    public static Workload create() {
+        try {
+            return (Workload) Class.forName("BenchmarkWorkload").getDeclaredConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchmarkWorkload is missing from the classpath", e);
+        }
+    }
+
+    /**
+     * Loads a data file into a new {@code Controller}, which replaces the previous one.
+     *
+     * @param filename the path to the data file
+     * @param parallel whether to use {@code Controller.loadDataParallel}
+     * @return the number of students loaded
+     * @throws IOException if the file cannot be read
+     */
+    public int load(String filename, boolean parallel) throws IOException;
+
+    /**
+     * Enables the trigram search index of the loaded lists and of every list loaded later.
+     */
+    public void enableSearchIndex();
+
+    /**
+     * Runs {@code StudentList.query} on the loaded students.
+     *
+     * @param key the search key
+     * @return the resulting list
+     */
+    public Object queryStudents(String key);
+
+    /**
+     * Runs {@code CourseList.findMatch} on the loaded courses.
+     *
+     * @param code the course code to find
+     * @return the matching course, or null
+     */
+    public Object findCourse(String code);
+
+    /**
+     * Runs {@code Controller.getStudent} on the loaded students.
+     *
+     * @param name the student name to find
+     * @return the matching student, or null
+     */
+    public Object findStudent(String name);
+
+    /**
+     * Runs {@code Utility.studentListToArray} over all loaded students.
+     *
+     * @return the table rows
+     */
+    public String[][] studentTable();
+
+    /**
+     * Adds every loaded student to a new {@code StudentList} through {@code BaseList.add}.
+     *
+     * @return the new list
+     */
+    public Object copyStudents();
+
+    /**
+     * Returns the name of the student at the given position, for picking lookup keys.
+     *
+     * @param index the position of the student
+     * @return the student's name
+     */
+    public String studentName(int index);
+
+    /**
+     * Returns the code of the course at the given position, for picking lookup keys.
+     *
+     * @param index the position of the course
+     * @return the course code
+     */
+    public String courseCode(int index);
+
+    /**
+     * Returns the number of loaded courses.
+     *
+     * @return the size of the course list
+     */
+    public int courseCount();
+
+}